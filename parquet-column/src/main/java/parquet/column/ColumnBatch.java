@@ -0,0 +1,171 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.column;
+
+import static parquet.Preconditions.checkArgument;
+import static parquet.Preconditions.checkNotNull;
+
+import parquet.io.api.Binary;
+
+/**
+ * A batch of (repetition level, definition level, value) triplets of a column,
+ * filled by a {@link ColumnBatchReader}.
+ *
+ * The triplet i is made of getRepetitionLevels()[i], getDefinitionLevels()[i] and,
+ * when the definition level is the maximum definition level of the column,
+ * the value at index i in the array corresponding to the type of the column.
+ * Otherwise the value is null and the content of the value array at that index is undefined.
+ *
+ * The arrays are allocated once and reused by the following reads.
+ */
+public class ColumnBatch {
+
+  private final ColumnDescriptor descriptor;
+  private final int capacity;
+  private final int[] repetitionLevels;
+  private final int[] definitionLevels;
+  private boolean[] booleans;
+  private int[] integers;
+  private long[] longs;
+  private float[] floats;
+  private double[] doubles;
+  private Binary[] binaries;
+  private int size;
+
+  /**
+   * @param descriptor the column the batch is for
+   * @param capacity the maximum number of triplets in a batch
+   */
+  public ColumnBatch(ColumnDescriptor descriptor, int capacity) {
+    this.descriptor = checkNotNull(descriptor, "descriptor");
+    checkArgument(capacity > 0, "capacity must be positive: " + capacity);
+    this.capacity = capacity;
+    this.repetitionLevels = new int[capacity];
+    this.definitionLevels = new int[capacity];
+    switch (descriptor.getType()) {
+    case BOOLEAN:
+      booleans = new boolean[capacity];
+      break;
+    case INT32:
+      integers = new int[capacity];
+      break;
+    case INT64:
+      longs = new long[capacity];
+      break;
+    case FLOAT:
+      floats = new float[capacity];
+      break;
+    case DOUBLE:
+      doubles = new double[capacity];
+      break;
+    default:
+      // BINARY, INT96 and FIXED_LEN_BYTE_ARRAY
+      binaries = new Binary[capacity];
+      break;
+    }
+  }
+
+  /**
+   * @return the column this batch is for
+   */
+  public ColumnDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * @return the maximum number of triplets in a batch
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return the number of triplets in the batch
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param size the number of triplets read in the batch
+   */
+  public void setSize(int size) {
+    checkArgument(size >= 0 && size <= capacity, "invalid size " + size + " for capacity " + capacity);
+    this.size = size;
+  }
+
+  public int[] getRepetitionLevels() {
+    return repetitionLevels;
+  }
+
+  public int[] getDefinitionLevels() {
+    return definitionLevels;
+  }
+
+  /**
+   * @return the values of a BOOLEAN column
+   */
+  public boolean[] getBooleans() {
+    return checkType(booleans);
+  }
+
+  /**
+   * @return the values of an INT32 column
+   */
+  public int[] getIntegers() {
+    return checkType(integers);
+  }
+
+  /**
+   * @return the values of an INT64 column
+   */
+  public long[] getLongs() {
+    return checkType(longs);
+  }
+
+  /**
+   * @return the values of a FLOAT column
+   */
+  public float[] getFloats() {
+    return checkType(floats);
+  }
+
+  /**
+   * @return the values of a DOUBLE column
+   */
+  public double[] getDoubles() {
+    return checkType(doubles);
+  }
+
+  /**
+   * @return the values of a BINARY, INT96 or FIXED_LEN_BYTE_ARRAY column
+   */
+  public Binary[] getBinaries() {
+    return checkType(binaries);
+  }
+
+  private <T> T checkType(T values) {
+    if (values == null) {
+      throw new UnsupportedOperationException("not a column of this type: " + descriptor);
+    }
+    return values;
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnBatch{" + descriptor + ", size " + size + "/" + capacity + "}";
+  }
+}
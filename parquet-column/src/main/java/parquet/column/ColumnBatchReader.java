@@ -0,0 +1,45 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.column;
+
+/**
+ * Reads the triplets of a column in batches, bypassing the converters and the record assembly.
+ * This is meant for consumers processing the values of a column in bulk.
+ *
+ * @see ColumnBatch
+ */
+public interface ColumnBatchReader {
+
+  /**
+   * @return the descriptor of the column
+   */
+  ColumnDescriptor getDescriptor();
+
+  /**
+   * @return the total count of triplets in the column
+   */
+  long getTotalValueCount();
+
+  /**
+   * Reads the next triplets into the batch, up to its capacity.
+   * The batch size is set to the number of triplets read.
+   * A batch may end in the middle of a record.
+   * @param batch the batch to fill, for the same column
+   * @return the number of triplets read, 0 when all the triplets have been read
+   */
+  int readBatch(ColumnBatch batch);
+
+}
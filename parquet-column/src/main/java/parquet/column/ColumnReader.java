@@ -15,6 +15,7 @@
  */
 package parquet.column;
 
+import parquet.column.statistics.Statistics;
 import parquet.io.api.Binary;
 
 /**
@@ -68,12 +69,36 @@ public interface ColumnReader {
    */
   void skip();
 
+  /**
+   * Skips the current record and the n - 1 following ones.
+   * For a non repeated column, the pages containing only skipped values are not decoded.
+   * The caller is responsible for not skipping past the last record.
+   * @param n the number of records to skip
+   */
+  void skipRecords(long n);
+
+  /**
+   * @return the statistics of the page containing the current value or null if not available
+   */
+  Statistics getCurrentPageStatistics();
+
+  /**
+   * @return the number of values left in the current page, including the current value
+   */
+  int getCurrentPageRemainingValueCount();
+
   /**
    * available when the underlying encoding is dictionary based
    * @return the dictionary id for the current value
    */
   int getCurrentValueDictionaryID();
 
+  /**
+   * @return the dictionary if the current page is dictionary encoded, null otherwise
+   * @see #getCurrentValueDictionaryID()
+   */
+  Dictionary getCurrentPageDictionary();
+
   /**
    * @return the current value
    */
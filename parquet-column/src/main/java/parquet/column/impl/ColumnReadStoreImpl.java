@@ -15,6 +15,7 @@
  */
 package parquet.column.impl;
 
+import parquet.column.ColumnBatchReader;
 import parquet.column.ColumnDescriptor;
 import parquet.column.ColumnReadStore;
 import parquet.column.ColumnReader;
@@ -37,6 +38,9 @@ import parquet.schema.Type;
  */
 public class ColumnReadStoreImpl implements ColumnReadStore {
 
+  // the batch readers do not write to converters
+  private static final PrimitiveConverter NO_CONVERTER = new PrimitiveConverter() {};
+
   private final PageReadStore pageReadStore;
   private final GroupConverter recordConverter;
   private final MessageType schema;
@@ -58,6 +62,15 @@ public class ColumnReadStoreImpl implements ColumnReadStore {
     return newMemColumnReader(path, pageReadStore.getPageReader(path));
   }
 
+  /**
+   * @param pageReadStore the pages to read from
+   * @param path the column to read
+   * @return a reader filling batches of triplets, without going through converters
+   */
+  public static ColumnBatchReader getColumnBatchReader(PageReadStore pageReadStore, ColumnDescriptor path) {
+    return new ColumnReaderImpl(path, pageReadStore.getPageReader(path), NO_CONVERTER);
+  }
+
   private ColumnReaderImpl newMemColumnReader(ColumnDescriptor path, PageReader pageReader) {
     PrimitiveConverter converter = getPrimitiveConverter(path);
     return new ColumnReaderImpl(path, pageReader, converter);
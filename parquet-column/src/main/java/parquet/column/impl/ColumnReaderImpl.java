@@ -17,11 +17,16 @@ package parquet.column.impl;
 
 import static java.lang.String.format;
 import static parquet.Log.DEBUG;
+import static parquet.Preconditions.checkArgument;
 import static parquet.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import parquet.Log;
+import parquet.bytes.BytesInput;
+import parquet.column.ColumnBatch;
+import parquet.column.ColumnBatchReader;
 import parquet.column.ColumnDescriptor;
 import parquet.column.ColumnReader;
 import parquet.column.Dictionary;
@@ -29,6 +34,7 @@ import parquet.column.ValuesType;
 import parquet.column.page.DictionaryPage;
 import parquet.column.page.Page;
 import parquet.column.page.PageReader;
+import parquet.column.statistics.Statistics;
 import parquet.column.values.ValuesReader;
 import parquet.io.ParquetDecodingException;
 import parquet.io.api.Binary;
@@ -42,7 +48,7 @@ import parquet.schema.PrimitiveType.PrimitiveTypeNameConverter;
  * @author Julien Le Dem
  *
  */
-class ColumnReaderImpl implements ColumnReader {
+class ColumnReaderImpl implements ColumnReader, ColumnBatchReader {
   private static final Log LOG = Log.getLog(ColumnReaderImpl.class);
 
   /**
@@ -134,6 +140,10 @@ class ColumnReaderImpl implements ColumnReader {
   private long endOfPageValueCount;
   private int readValues;
   private int pageValueCount;
+  private Statistics currentPageStatistics;
+  private boolean currentPageUsesDictionary;
+  // true once the last triplet has been consumed
+  private boolean endReached;
 
   private final PrimitiveConverter converter;
   private Binding binding;
@@ -143,6 +153,7 @@ class ColumnReaderImpl implements ColumnReader {
   private boolean valueRead;
 
   private void bindToDictionary(final Dictionary dictionary) {
+    final boolean converterHasDictionarySupport = converter.hasDictionarySupport();
     binding =
         new Binding() {
           void read() {
@@ -155,7 +166,33 @@ class ColumnReaderImpl implements ColumnReader {
             return dictionaryId;
           }
           void writeValue() {
-            converter.addValueFromDictionary(dictionaryId);
+            if (converterHasDictionarySupport) {
+              converter.addValueFromDictionary(dictionaryId);
+            } else {
+              writeDecodedValue();
+            }
+          }
+          private void writeDecodedValue() {
+            switch (path.getType()) {
+            case INT32:
+              converter.addInt(getInteger());
+              break;
+            case INT64:
+              converter.addLong(getLong());
+              break;
+            case FLOAT:
+              converter.addFloat(getFloat());
+              break;
+            case DOUBLE:
+              converter.addDouble(getDouble());
+              break;
+            case BOOLEAN:
+              converter.addBoolean(getBoolean());
+              break;
+            default:
+              converter.addBinary(getBinary());
+              break;
+            }
           }
           public int getInteger() {
             return dictionary.decodeToInt(dictionaryId);
@@ -488,6 +525,7 @@ class ColumnReaderImpl implements ColumnReader {
       if (isFullyConsumed()) {
         if (DEBUG) LOG.debug("end reached");
         repetitionLevel = 0; // the next repetition level
+        endReached = true;
         return;
       }
       readPage();
@@ -497,8 +535,11 @@ class ColumnReaderImpl implements ColumnReader {
 
   private void readPage() {
     if (DEBUG) LOG.debug("loading page");
-    Page page = pageReader.readPage();
+    initPage(pageReader.readPage());
+  }
 
+  private void initPage(Page page) {
+    this.currentPageStatistics = page.getStatistics();
     this.repetitionLevelColumn = page.getRlEncoding().getValuesReader(path, ValuesType.REPETITION_LEVEL);
     this.definitionLevelColumn = page.getDlEncoding().getValuesReader(path, ValuesType.DEFINITION_LEVEL);
     if (page.getValueEncoding().usesDictionary()) {
@@ -510,7 +551,9 @@ class ColumnReaderImpl implements ColumnReader {
     } else {
       this.dataColumn = page.getValueEncoding().getValuesReader(path, ValuesType.VALUES);
     }
-    if (page.getValueEncoding().usesDictionary() && converter.hasDictionarySupport()) {
+    this.currentPageUsesDictionary = page.getValueEncoding().usesDictionary();
+    // the dictionary ids are exposed even if the converter does not use them
+    if (currentPageUsesDictionary) {
       bindToDictionary(dictionary);
     } else {
       bind(path.getType());
@@ -518,7 +561,7 @@ class ColumnReaderImpl implements ColumnReader {
     this.pageValueCount = page.getValueCount();
     this.endOfPageValueCount = readValues + pageValueCount;
     try {
-      byte[] bytes = page.getBytes().toByteArray();
+      byte[] bytes = pageBytes(page.getBytes());
       if (DEBUG) LOG.debug("page size " + bytes.length + " bytes and " + pageValueCount + " records");
       if (DEBUG) LOG.debug("reading repetition levels at 0");
       repetitionLevelColumn.initFromPage(pageValueCount, bytes, 0);
@@ -533,6 +576,20 @@ class ColumnReaderImpl implements ColumnReader {
     }
   }
 
+  /**
+   * the values readers only read the array, and up to its end:
+   * a buffer covering a whole array is used in place, other inputs are copied
+   */
+  private static byte[] pageBytes(BytesInput bytes) throws IOException {
+    ByteBuffer buffer = bytes.toByteBuffer();
+    if (buffer.hasArray()
+        && buffer.arrayOffset() + buffer.position() == 0
+        && buffer.remaining() == buffer.array().length) {
+      return buffer.array();
+    }
+    return bytes.toByteArray();
+  }
+
   private boolean isPageFullyConsumed() {
     return readValues >= endOfPageValueCount;
   }
@@ -547,6 +604,251 @@ class ColumnReaderImpl implements ColumnReader {
     valueRead = false;
   }
 
+  /**
+   * {@inheritDoc}
+   * @see parquet.column.ColumnReader#skipRecords(long)
+   */
+  @Override
+  public void skipRecords(long n) {
+    if (path.getMaxRepetitionLevel() == 0) {
+      // one value per record
+      skipValues(n);
+    } else {
+      for (long i = 0; i < n; ++i) {
+        do {
+          skipTriplet();
+        } while (repetitionLevel != 0);
+      }
+    }
+  }
+
+  private void skipTriplet() {
+    if (definitionLevel == path.getMaxDefinitionLevel()) {
+      skip();
+    }
+    consume();
+  }
+
+  private void skipValues(long n) {
+    long remainingInPage = getCurrentPageRemainingValueCount();
+    if (n < remainingInPage) {
+      for (long i = 0; i < n; ++i) {
+        skipTriplet();
+      }
+      return;
+    }
+    // the rest of the current page is skipped
+    n -= remainingInPage;
+    readValues = (int) endOfPageValueCount;
+    // pages that are skipped entirely are not decoded
+    while (n > 0 && !isFullyConsumed()) {
+      Page page = pageReader.readPage();
+      if (page.getValueCount() <= n) {
+        if (DEBUG) LOG.debug("skipping page of " + page.getValueCount() + " values");
+        n -= page.getValueCount();
+        readValues += page.getValueCount();
+        endOfPageValueCount = readValues;
+      } else {
+        initPage(page);
+        readRepetitionAndDefinitionLevels();
+        valueRead = false;
+        for (long i = 0; i < n; ++i) {
+          skipTriplet();
+        }
+        return;
+      }
+    }
+    consume();
+  }
+
+  /**
+   * {@inheritDoc}
+   * @see parquet.column.ColumnBatchReader#readBatch(parquet.column.ColumnBatch)
+   */
+  @Override
+  public int readBatch(ColumnBatch batch) {
+    checkArgument(batch.getDescriptor().equals(path), "batch for " + batch.getDescriptor() + " used to read " + path);
+    int capacity = batch.getCapacity();
+    int count = 0;
+    while (count < capacity && !endReached) {
+      // the current triplet has already been read ahead
+      batch.getRepetitionLevels()[count] = repetitionLevel;
+      batch.getDefinitionLevels()[count] = definitionLevel;
+      if (definitionLevel == path.getMaxDefinitionLevel()) {
+        readValue();
+        readCurrentValue(batch, count);
+      }
+      ++ count;
+      // the rest of the page is read without looking ahead
+      int n = (int) Math.min(capacity - count, endOfPageValueCount - readValues);
+      try {
+        readPageTriplets(batch, count, n);
+      } catch (RuntimeException e) {
+        throw new ParquetDecodingException("Can't read values " + readValues + " to " + (readValues + n) + " in column " + path, e);
+      }
+      readValues += n;
+      count += n;
+      consume();
+    }
+    batch.setSize(count);
+    return count;
+  }
+
+  private void readCurrentValue(ColumnBatch batch, int index) {
+    switch (path.getType()) {
+    case BOOLEAN:
+      batch.getBooleans()[index] = binding.getBoolean();
+      break;
+    case INT32:
+      batch.getIntegers()[index] = binding.getInteger();
+      break;
+    case INT64:
+      batch.getLongs()[index] = binding.getLong();
+      break;
+    case FLOAT:
+      batch.getFloats()[index] = binding.getFloat();
+      break;
+    case DOUBLE:
+      batch.getDoubles()[index] = binding.getDouble();
+      break;
+    default:
+      batch.getBinaries()[index] = binding.getBinary();
+      break;
+    }
+  }
+
+  private static boolean allDefined(int[] definitionLevels, int from, int to, int maxDefinitionLevel) {
+    for (int i = from; i < to; ++i) {
+      if (definitionLevels[i] != maxDefinitionLevel) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * reads n non null values with the bulk methods of the values reader
+   * @return false if there is no bulk read for this type
+   */
+  private boolean readDefinedValues(ColumnBatch batch, int offset, int n) {
+    switch (path.getType()) {
+    case INT32:
+      dataColumn.readIntegers(batch.getIntegers(), offset, n);
+      return true;
+    case INT64:
+      dataColumn.readLongs(batch.getLongs(), offset, n);
+      return true;
+    case FLOAT:
+      dataColumn.readFloats(batch.getFloats(), offset, n);
+      return true;
+    case DOUBLE:
+      dataColumn.readDoubles(batch.getDoubles(), offset, n);
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * reads the next n triplets of the current page
+   */
+  private void readPageTriplets(ColumnBatch batch, int offset, int n) {
+    int end = offset + n;
+    int maxDefinitionLevel = path.getMaxDefinitionLevel();
+    int[] repetitionLevels = batch.getRepetitionLevels();
+    int[] definitionLevels = batch.getDefinitionLevels();
+    repetitionLevelColumn.readIntegers(repetitionLevels, offset, n);
+    definitionLevelColumn.readIntegers(definitionLevels, offset, n);
+    boolean dictionaryEncoded = currentPageUsesDictionary;
+    if (allDefined(definitionLevels, offset, end, maxDefinitionLevel) && readDefinedValues(batch, offset, n)) {
+      return;
+    }
+    switch (path.getType()) {
+    case BOOLEAN: {
+      boolean[] values = batch.getBooleans();
+      for (int i = offset; i < end; ++i) {
+        if (definitionLevels[i] == maxDefinitionLevel) {
+          values[i] = dictionaryEncoded ? dictionary.decodeToBoolean(dataColumn.readValueDictionaryId()) : dataColumn.readBoolean();
+        }
+      }
+      break;
+    }
+    case INT32: {
+      int[] values = batch.getIntegers();
+      for (int i = offset; i < end; ++i) {
+        if (definitionLevels[i] == maxDefinitionLevel) {
+          values[i] = dictionaryEncoded ? dictionary.decodeToInt(dataColumn.readValueDictionaryId()) : dataColumn.readInteger();
+        }
+      }
+      break;
+    }
+    case INT64: {
+      long[] values = batch.getLongs();
+      for (int i = offset; i < end; ++i) {
+        if (definitionLevels[i] == maxDefinitionLevel) {
+          values[i] = dictionaryEncoded ? dictionary.decodeToLong(dataColumn.readValueDictionaryId()) : dataColumn.readLong();
+        }
+      }
+      break;
+    }
+    case FLOAT: {
+      float[] values = batch.getFloats();
+      for (int i = offset; i < end; ++i) {
+        if (definitionLevels[i] == maxDefinitionLevel) {
+          values[i] = dictionaryEncoded ? dictionary.decodeToFloat(dataColumn.readValueDictionaryId()) : dataColumn.readFloat();
+        }
+      }
+      break;
+    }
+    case DOUBLE: {
+      double[] values = batch.getDoubles();
+      for (int i = offset; i < end; ++i) {
+        if (definitionLevels[i] == maxDefinitionLevel) {
+          values[i] = dictionaryEncoded ? dictionary.decodeToDouble(dataColumn.readValueDictionaryId()) : dataColumn.readDouble();
+        }
+      }
+      break;
+    }
+    default: {
+      Binary[] values = batch.getBinaries();
+      for (int i = offset; i < end; ++i) {
+        if (definitionLevels[i] == maxDefinitionLevel) {
+          values[i] = dictionaryEncoded ? dictionary.decodeToBinary(dataColumn.readValueDictionaryId()) : dataColumn.readBytes();
+        }
+      }
+      break;
+    }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * @see parquet.column.ColumnReader#getCurrentPageDictionary()
+   */
+  @Override
+  public Dictionary getCurrentPageDictionary() {
+    return currentPageUsesDictionary ? dictionary : null;
+  }
+
+  /**
+   * {@inheritDoc}
+   * @see parquet.column.ColumnReader#getCurrentPageStatistics()
+   */
+  @Override
+  public Statistics getCurrentPageStatistics() {
+    return currentPageStatistics;
+  }
+
+  /**
+   * {@inheritDoc}
+   * @see parquet.column.ColumnReader#getCurrentPageRemainingValueCount()
+   */
+  @Override
+  public int getCurrentPageRemainingValueCount() {
+    // readValues includes the current value
+    return (int) (endOfPageValueCount - readValues + 1);
+  }
+
   /**
    * {@inheritDoc}
    * @see parquet.column.ColumnReader#getTotalValueCount()
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.column.page;
+
+import parquet.column.ColumnDescriptor;
+
+/**
+ * gives access to the dictionary pages of the columns of a row group
+ * without reading their data pages
+ */
+public interface DictionaryPageReadStore {
+
+  /**
+   *
+   * @param descriptor the descriptor of the column
+   * @return the (decompressed) dictionary page of that column or null if it has none or it is not available
+   */
+  DictionaryPage readDictionaryPage(ColumnDescriptor descriptor);
+
+}
@@ -48,6 +48,16 @@ public class BinaryStatistics extends Statistics{
     this.markAsNotEmpty();
   }
 
+  @Override
+  public Binary genericGetMin() {
+    return min;
+  }
+
+  @Override
+  public Binary genericGetMax() {
+    return max;
+  }
+
   @Override
   public byte[] getMaxBytes() {
     return max.getBytes();
@@ -48,6 +48,16 @@ public class BooleanStatistics extends Statistics{
     this.markAsNotEmpty();
   }
 
+  @Override
+  public Boolean genericGetMin() {
+    return min;
+  }
+
+  @Override
+  public Boolean genericGetMax() {
+    return max;
+  }
+
   @Override
   public byte[] getMaxBytes() {
     return BytesUtils.booleanToBytes(max);
@@ -48,6 +48,16 @@ public class DoubleStatistics extends Statistics{
     this.markAsNotEmpty();
   }
 
+  @Override
+  public Double genericGetMin() {
+    return min;
+  }
+
+  @Override
+  public Double genericGetMax() {
+    return max;
+  }
+
   @Override
   public byte[] getMaxBytes() {
     return BytesUtils.longToBytes(Double.doubleToLongBits(max));
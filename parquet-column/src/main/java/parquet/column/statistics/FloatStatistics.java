@@ -48,6 +48,16 @@ public class FloatStatistics extends Statistics{
     this.markAsNotEmpty();
   }
 
+  @Override
+  public Float genericGetMin() {
+    return min;
+  }
+
+  @Override
+  public Float genericGetMax() {
+    return max;
+  }
+
   @Override
   public byte[] getMaxBytes() {
     return BytesUtils.intToBytes(Float.floatToIntBits(max));
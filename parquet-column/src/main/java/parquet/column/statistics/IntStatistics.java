@@ -48,6 +48,16 @@ public class IntStatistics extends Statistics{
     this.markAsNotEmpty();
   }
 
+  @Override
+  public Integer genericGetMin() {
+    return min;
+  }
+
+  @Override
+  public Integer genericGetMax() {
+    return max;
+  }
+
   @Override
   public byte[] getMaxBytes() {
     return BytesUtils.intToBytes(max);
@@ -48,6 +48,16 @@ public class LongStatistics extends Statistics{
     this.markAsNotEmpty();
   }
 
+  @Override
+  public Long genericGetMin() {
+    return min;
+  }
+
+  @Override
+  public Long genericGetMax() {
+    return max;
+  }
+
   @Override
   public byte[] getMaxBytes() {
     return BytesUtils.longToBytes(max);
@@ -162,6 +162,18 @@ public abstract class Statistics {
    */
   abstract public void setMinMaxFromBytes(byte[] minBytes, byte[] maxBytes);
 
+  /**
+   * Returns the min value boxed in its java type so that it can be compared generically
+   * @return the min value
+   */
+  abstract public Comparable<?> genericGetMin();
+
+  /**
+   * Returns the max value boxed in its java type so that it can be compared generically
+   * @return the max value
+   */
+  abstract public Comparable<?> genericGetMax();
+
   /**
    * Abstract method to return the max value as a byte array
    * @return byte array corresponding to the max value
@@ -115,6 +115,72 @@ public abstract class ValuesReader {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Reads the next dictionary ids of the page.
+   * The default implementation calls {@link #readValueDictionaryId()} for each value,
+   * encodings able to decode several values at once override it.
+   * @param ids where to write the ids
+   * @param offset the index of the first id in ids
+   * @param length how many ids to read
+   */
+  public void readValueDictionaryIds(int[] ids, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      ids[i] = readValueDictionaryId();
+    }
+  }
+
+  /**
+   * Reads the next integers of the page.
+   * @see #readValueDictionaryIds(int[], int, int)
+   * @param values where to write the values
+   * @param offset the index of the first value in values
+   * @param length how many values to read
+   */
+  public void readIntegers(int[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readInteger();
+    }
+  }
+
+  /**
+   * Reads the next longs of the page.
+   * @see #readValueDictionaryIds(int[], int, int)
+   * @param values where to write the values
+   * @param offset the index of the first value in values
+   * @param length how many values to read
+   */
+  public void readLongs(long[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readLong();
+    }
+  }
+
+  /**
+   * Reads the next floats of the page.
+   * @see #readValueDictionaryIds(int[], int, int)
+   * @param values where to write the values
+   * @param offset the index of the first value in values
+   * @param length how many values to read
+   */
+  public void readFloats(float[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readFloat();
+    }
+  }
+
+  /**
+   * Reads the next doubles of the page.
+   * @see #readValueDictionaryIds(int[], int, int)
+   * @param values where to write the values
+   * @param offset the index of the first value in values
+   * @param length how many values to read
+   */
+  public void readDoubles(double[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readDouble();
+    }
+  }
+
   /**
    * Skips the next value in the page
    */
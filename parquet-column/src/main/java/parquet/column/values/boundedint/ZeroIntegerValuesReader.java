@@ -16,6 +16,7 @@
 package parquet.column.values.boundedint;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import parquet.column.values.ValuesReader;
 
@@ -32,6 +33,11 @@ public class ZeroIntegerValuesReader extends ValuesReader {
     return 0;
   }
 
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    Arrays.fill(values, offset, offset + length, 0);
+  }
+
   @Override
   public void initFromPage(int valueCount, byte[] in, int offset) throws IOException {
     this.nextOffset = offset;
@@ -105,6 +105,15 @@ public class DeltaBinaryPackingValuesReader extends ValuesReader {
     return valuesBuffer[valuesRead++];
   }
 
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    if (valuesRead + length > totalValueCount) {
+      throw new ParquetDecodingException("can not read " + length + " values, " + (totalValueCount - valuesRead) + " left out of " + totalValueCount);
+    }
+    System.arraycopy(valuesBuffer, valuesRead, values, offset, length);
+    valuesRead += length;
+  }
+
   private void checkRead() {
     if (valuesRead >= totalValueCount) {
       throw new ParquetDecodingException("no more value to read, total value count is " + totalValueCount);
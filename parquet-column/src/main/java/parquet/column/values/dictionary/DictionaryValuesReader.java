@@ -44,6 +44,9 @@ public class DictionaryValuesReader extends ValuesReader {
 
   private RunLengthBitPackingHybridDecoder decoder;
 
+  // reused by the bulk reads
+  private int[] ids = new int[0];
+
   public DictionaryValuesReader(Dictionary dictionary) {
     this.dictionary = dictionary;
   }
@@ -67,6 +70,56 @@ public class DictionaryValuesReader extends ValuesReader {
     }
   }
 
+  @Override
+  public void readValueDictionaryIds(int[] ids, int offset, int length) {
+    try {
+      decoder.readInts(ids, offset, length);
+    } catch (IOException e) {
+      throw new ParquetDecodingException(e);
+    }
+  }
+
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    // the ids are decoded in place
+    readValueDictionaryIds(values, offset, length);
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = dictionary.decodeToInt(values[i]);
+    }
+  }
+
+  @Override
+  public void readLongs(long[] values, int offset, int length) {
+    int[] ids = readIds(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = dictionary.decodeToLong(ids[i]);
+    }
+  }
+
+  @Override
+  public void readFloats(float[] values, int offset, int length) {
+    int[] ids = readIds(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = dictionary.decodeToFloat(ids[i]);
+    }
+  }
+
+  @Override
+  public void readDoubles(double[] values, int offset, int length) {
+    int[] ids = readIds(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = dictionary.decodeToDouble(ids[i]);
+    }
+  }
+
+  private int[] readIds(int length) {
+    if (ids.length < length) {
+      ids = new int[length];
+    }
+    readValueDictionaryIds(ids, 0, length);
+    return ids;
+  }
+
   @Override
   public Binary readBytes() {
     try {
@@ -207,7 +207,10 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
   public void resetDictionary() {
     lastUsedDictionaryByteSize = 0;
     lastUsedDictionarySize = 0;
+    dictionaryByteSize = 0;
     dictionaryTooBig = false;
+    // the next column chunk starts like a new writer
+    firstPage = true;
     clearDictionaryContent();
   }
 
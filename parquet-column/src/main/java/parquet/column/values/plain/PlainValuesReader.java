@@ -36,6 +36,9 @@ abstract public class PlainValuesReader extends ValuesReader {
 
   protected LittleEndianDataInputStream in;
 
+  // the stream under in, the bulk reads decode the page directly
+  PageInputStream page;
+
   /**
    * {@inheritDoc}
    * @see parquet.column.values.ValuesReader#initFromPage(byte[], int)
@@ -43,7 +46,44 @@ abstract public class PlainValuesReader extends ValuesReader {
   @Override
   public void initFromPage(int valueCount, byte[] in, int offset) throws IOException {
     if (DEBUG) LOG.debug("init from page at offset "+ offset + " for length " + (in.length - offset));
-    this.in = new LittleEndianDataInputStream(new ByteArrayInputStream(in, offset, in.length - offset));
+    this.page = new PageInputStream(in, offset, in.length - offset);
+    this.in = new LittleEndianDataInputStream(page);
+  }
+
+  private static final class PageInputStream extends ByteArrayInputStream {
+
+    PageInputStream(byte[] buf, int offset, int length) {
+      super(buf, offset, length);
+    }
+
+    byte[] getBuffer() {
+      return buf;
+    }
+
+    /**
+     * @param n the number of bytes to read
+     * @return the position of the first byte in the buffer
+     */
+    int advance(int n) {
+      if (n > count - pos) {
+        throw new ParquetDecodingException("can not read " + n + " bytes, " + (count - pos) + " left in the page");
+      }
+      int position = pos;
+      pos += n;
+      return position;
+    }
+  }
+
+  private static int readIntLittleEndian(byte[] bytes, int position) {
+    return (bytes[position] & 0xFF)
+        | ((bytes[position + 1] & 0xFF) << 8)
+        | ((bytes[position + 2] & 0xFF) << 16)
+        | ((bytes[position + 3] & 0xFF) << 24);
+  }
+
+  private static long readLongLittleEndian(byte[] bytes, int position) {
+    return (readIntLittleEndian(bytes, position) & 0xFFFFFFFFL)
+        | ((long) readIntLittleEndian(bytes, position + 4) << 32);
   }
 
   public static class DoublePlainValuesReader extends PlainValuesReader {
@@ -65,6 +105,15 @@ abstract public class PlainValuesReader extends ValuesReader {
         throw new ParquetDecodingException("could not read double", e);
       }
     }
+
+    @Override
+    public void readDoubles(double[] values, int offset, int length) {
+      byte[] bytes = page.getBuffer();
+      int position = page.advance(length * 8);
+      for (int i = offset, end = offset + length; i < end; ++i, position += 8) {
+        values[i] = Double.longBitsToDouble(readLongLittleEndian(bytes, position));
+      }
+    }
   }
 
   public static class FloatPlainValuesReader extends PlainValuesReader {
@@ -86,6 +135,15 @@ abstract public class PlainValuesReader extends ValuesReader {
         throw new ParquetDecodingException("could not read float", e);
       }
     }
+
+    @Override
+    public void readFloats(float[] values, int offset, int length) {
+      byte[] bytes = page.getBuffer();
+      int position = page.advance(length * 4);
+      for (int i = offset, end = offset + length; i < end; ++i, position += 4) {
+        values[i] = Float.intBitsToFloat(readIntLittleEndian(bytes, position));
+      }
+    }
   }
 
   public static class IntegerPlainValuesReader extends PlainValuesReader {
@@ -107,6 +165,15 @@ abstract public class PlainValuesReader extends ValuesReader {
         throw new ParquetDecodingException("could not read int", e);
       }
     }
+
+    @Override
+    public void readIntegers(int[] values, int offset, int length) {
+      byte[] bytes = page.getBuffer();
+      int position = page.advance(length * 4);
+      for (int i = offset, end = offset + length; i < end; ++i, position += 4) {
+        values[i] = readIntLittleEndian(bytes, position);
+      }
+    }
   }
 
   public static class LongPlainValuesReader extends PlainValuesReader {
@@ -128,5 +195,14 @@ abstract public class PlainValuesReader extends ValuesReader {
         throw new ParquetDecodingException("could not read long", e);
       }
     }
+
+    @Override
+    public void readLongs(long[] values, int offset, int length) {
+      byte[] bytes = page.getBuffer();
+      int position = page.advance(length * 8);
+      for (int i = offset, end = offset + length; i < end; ++i, position += 8) {
+        values[i] = readLongLittleEndian(bytes, position);
+      }
+    }
   }
 }
\ No newline at end of file
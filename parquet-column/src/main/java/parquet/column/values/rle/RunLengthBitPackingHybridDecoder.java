@@ -21,6 +21,7 @@ import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 import parquet.Log;
 import parquet.Preconditions;
@@ -76,6 +77,35 @@ public class RunLengthBitPackingHybridDecoder {
     return result;
   }
 
+  /**
+   * reads the next values, copying whole runs at once
+   * @param values where to write the values
+   * @param offset the index of the first value in values
+   * @param length how many values to read
+   * @throws IOException
+   */
+  public void readInts(int[] values, int offset, int length) throws IOException {
+    int end = offset + length;
+    while (offset < end) {
+      if (currentCount == 0) {
+        readNext();
+      }
+      int n = Math.min(currentCount, end - offset);
+      switch (mode) {
+      case RLE:
+        Arrays.fill(values, offset, offset + n, currentValue);
+        break;
+      case PACKED:
+        System.arraycopy(currentBuffer, currentBuffer.length - currentCount, values, offset, n);
+        break;
+      default:
+        throw new ParquetDecodingException("not a valid mode " + mode);
+      }
+      currentCount -= n;
+      offset += n;
+    }
+  }
+
   private void readNext() throws IOException {	
 	Preconditions.checkArgument(in.available() > 0, "Reading past RLE/BitPacking stream.");
     final int header = BytesUtils.readUnsignedVarInt(in);
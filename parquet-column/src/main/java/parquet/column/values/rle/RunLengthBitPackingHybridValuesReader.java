@@ -62,6 +62,15 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
     }
   }
   
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    try {
+      decoder.readInts(values, offset, length);
+    } catch (IOException e) {
+      throw new ParquetDecodingException(e);
+    }
+  }
+
   @Override
   public boolean readBoolean() {
     return readInteger() == 0 ? false : true;
@@ -25,7 +25,7 @@ import parquet.column.ColumnReader;
  *
  * @author Jacob Metcalf
  */
-public final class AndRecordFilter implements RecordFilter {
+public final class AndRecordFilter implements SkippingRecordFilter {
 
   private final RecordFilter boundFilter1;
   private final RecordFilter boundFilter2;
@@ -58,4 +58,15 @@ public final class AndRecordFilter implements RecordFilter {
   public boolean isMatch() {
     return boundFilter1.isMatch() && boundFilter2.isMatch();
   }
+
+  /**
+   * Only the first filter is asked, as the second one is not evaluated for the records it rejects.
+   */
+  @Override
+  public long getSkippableRecordCount() {
+    if (boundFilter1 instanceof SkippingRecordFilter) {
+      return ((SkippingRecordFilter) boundFilter1).getSkippableRecordCount();
+    }
+    return 0;
+  }
 }
@@ -56,110 +56,186 @@ public class ColumnPredicates {
     boolean functionToApply(boolean input);
   }
 
+  /**
+   * A predicate which only depends on the current value of the column.
+   * It can be evaluated once per entry of a dictionary instead of once per value.
+   */
+  static abstract class ValuePredicate implements Predicate {
+
+    // the view of the last reader the predicate was applied to, replaced when applied to another one.
+    // Its reader is final so that a view published by another thread is complete: a race only allocates a new one.
+    private ReaderValue lastValue;
+
+    /**
+     * @param reader the column to read the current value from
+     * @return a view of the current value of the column, to be created once per column
+     */
+    static ColumnValue valueOf(ColumnReader reader) {
+      return new ReaderValue(reader);
+    }
+
+    @Override
+    public boolean apply(ColumnReader input) {
+      ReaderValue value = lastValue;
+      if (value == null || value.reader != input) {
+        value = new ReaderValue(input);
+        lastValue = value;
+      }
+      return apply(value);
+    }
+
+    /**
+     * @param input the value to evaluate
+     * @return whether the value matches
+     */
+    abstract boolean apply(ColumnValue input);
+  }
+
+  /**
+   * the current value of a column reader
+   */
+  private static final class ReaderValue implements ColumnValue {
+    private final ColumnReader reader;
+
+    private ReaderValue(ColumnReader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    public int getInteger() {
+      return reader.getInteger();
+    }
+
+    @Override
+    public long getLong() {
+      return reader.getLong();
+    }
+
+    @Override
+    public float getFloat() {
+      return reader.getFloat();
+    }
+
+    @Override
+    public double getDouble() {
+      return reader.getDouble();
+    }
+
+    @Override
+    public boolean getBoolean() {
+      return reader.getBoolean();
+    }
+
+    @Override
+    public Binary getBinary() {
+      return reader.getBinary();
+    }
+  }
+
   public static Predicate equalTo(final String target) {
     Preconditions.checkNotNull(target,"target");
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return target.equals(input.getBinary().toStringUsingUTF8());
       }
     };
   }
 
   public static Predicate applyFunctionToString(final PredicateFunction<String> fn) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
           return fn.functionToApply(input.getBinary().toStringUsingUTF8());
       }
     };
   }
 
   public static Predicate equalTo(final int target) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return input.getInteger() == target;
       }
     };
   }
 
   public static Predicate applyFunctionToInteger(final IntegerPredicateFunction fn) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return fn.functionToApply(input.getInteger());
       }
     };
   }
 
   public static Predicate equalTo(final long target) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return input.getLong() == target;
       }
     };
   }
 
   public static Predicate applyFunctionToLong(final LongPredicateFunction fn) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return fn.functionToApply(input.getLong());
       }
     };
   }
 
   public static Predicate equalTo(final float target) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return input.getFloat() == target;
       }
     };
   }
 
   public static Predicate applyFunctionToFloat(final FloatPredicateFunction fn) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return fn.functionToApply(input.getFloat());
       }
     };
   }
 
   public static Predicate equalTo(final double target) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return input.getDouble() == target;
       }
     };
   }
 
   public static Predicate applyFunctionToDouble(final DoublePredicateFunction fn) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return fn.functionToApply(input.getDouble());
       }
     };
   }
 
   public static Predicate equalTo(final boolean target) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return input.getBoolean() == target;
       }
     };
   }
 
   public static Predicate applyFunctionToBoolean (final BooleanPredicateFunction fn) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return fn.functionToApply(input.getBoolean());
       }
     };
@@ -168,18 +244,18 @@ public class ColumnPredicates {
   public static <E extends Enum> Predicate equalTo(final E target) {
     Preconditions.checkNotNull(target,"target");
     final String targetAsString = target.name();
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
         return targetAsString.equals(input.getBinary().toStringUsingUTF8());
       }
     };
   }
 
   public static Predicate applyFunctionToBinary (final PredicateFunction<Binary> fn) {
-    return new Predicate() {
+    return new ValuePredicate() {
       @Override
-      public boolean apply(ColumnReader input) {
+      public boolean apply(ColumnValue input) {
 	  return fn.functionToApply(input.getBinary());
       }
     };
@@ -16,16 +16,30 @@
 package parquet.filter;
 
 import parquet.column.ColumnReader;
+import parquet.column.Dictionary;
+import parquet.filter.ColumnPredicates.ValuePredicate;
+
 import java.util.Arrays;
+import java.util.BitSet;
 import static parquet.Preconditions.checkNotNull;
 
 /**
  * Record filter which applies the supplied predicate to the specified column.
+ * When the column is dictionary encoded, the predicates created by {@link ColumnPredicates}
+ * are evaluated once per dictionary entry instead of decoding each value.
  */
 public final class ColumnRecordFilter implements RecordFilter {
 
   private final ColumnReader filterOnColumn;
   private final ColumnPredicates.Predicate filterPredicate;
+  // null if the predicate does not only depend on the value
+  private final ValuePredicate valuePredicate;
+  private final ColumnValue currentValue;
+  private final DictionaryEntryValue dictionaryEntry;
+  // the result of the predicate for the entries of the dictionary evaluated so far
+  private Dictionary dictionary;
+  private final BitSet evaluated = new BitSet();
+  private final BitSet matches = new BitSet();
 
   /**
    * Factory method for record filter which applies the supplied predicate to the specified column.
@@ -59,6 +73,15 @@ public final class ColumnRecordFilter implements RecordFilter {
   private ColumnRecordFilter(ColumnReader filterOnColumn, ColumnPredicates.Predicate filterPredicate) {
     this.filterOnColumn  = filterOnColumn;
     this.filterPredicate = filterPredicate;
+    if (filterPredicate instanceof ValuePredicate) {
+      this.valuePredicate = (ValuePredicate) filterPredicate;
+      this.currentValue = ValuePredicate.valueOf(filterOnColumn);
+      this.dictionaryEntry = new DictionaryEntryValue();
+    } else {
+      this.valuePredicate = null;
+      this.currentValue = null;
+      this.dictionaryEntry = null;
+    }
   }
 
   /**
@@ -66,7 +89,30 @@ public final class ColumnRecordFilter implements RecordFilter {
    */
   @Override
   public boolean isMatch() {
-    return filterPredicate.apply(filterOnColumn);
+    if (valuePredicate == null) {
+      return filterPredicate.apply(filterOnColumn);
+    }
+    if (filterOnColumn.getCurrentDefinitionLevel() == filterOnColumn.getDescriptor().getMaxDefinitionLevel()) {
+      Dictionary currentDictionary = filterOnColumn.getCurrentPageDictionary();
+      if (currentDictionary != null) {
+        return isMatch(currentDictionary, filterOnColumn.getCurrentValueDictionaryID());
+      }
+    }
+    return valuePredicate.apply(currentValue);
+  }
+
+  private boolean isMatch(Dictionary currentDictionary, int id) {
+    if (currentDictionary != dictionary) {
+      dictionary = currentDictionary;
+      evaluated.clear();
+      matches.clear();
+    }
+    if (!evaluated.get(id)) {
+      dictionaryEntry.setEntry(dictionary, id);
+      matches.set(id, valuePredicate.apply(dictionaryEntry));
+      evaluated.set(id);
+    }
+    return matches.get(id);
   }
 
 }
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter;
+
+import parquet.io.api.Binary;
+
+/**
+ * The current value of a column, as seen by a {@link ColumnPredicates.ValuePredicate}.
+ * It can be read from a column or from the entry of a dictionary.
+ */
+interface ColumnValue {
+
+  int getInteger();
+
+  long getLong();
+
+  float getFloat();
+
+  double getDouble();
+
+  boolean getBoolean();
+
+  Binary getBinary();
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter;
+
+import parquet.column.Dictionary;
+import parquet.io.api.Binary;
+
+/**
+ * An entry of a dictionary so that a {@link ColumnPredicates.ValuePredicate} can be applied to it.
+ */
+class DictionaryEntryValue implements ColumnValue {
+
+  private Dictionary dictionary;
+  private int id;
+
+  /**
+   * @param dictionary the dictionary to read from
+   * @param id the id of the current value
+   */
+  void setEntry(Dictionary dictionary, int id) {
+    this.dictionary = dictionary;
+    this.id = id;
+  }
+
+  @Override
+  public int getInteger() {
+    return dictionary.decodeToInt(id);
+  }
+
+  @Override
+  public boolean getBoolean() {
+    return dictionary.decodeToBoolean(id);
+  }
+
+  @Override
+  public long getLong() {
+    return dictionary.decodeToLong(id);
+  }
+
+  @Override
+  public Binary getBinary() {
+    return dictionary.decodeToBinary(id);
+  }
+
+  @Override
+  public float getFloat() {
+    return dictionary.decodeToFloat(id);
+  }
+
+  @Override
+  public double getDouble() {
+    return dictionary.decodeToDouble(id);
+  }
+
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter;
+
+/**
+ * A record filter which can tell how many records, starting from the current one,
+ * can not match without evaluating them one by one (typically from the statistics of the current pages).
+ * Those records are skipped without being assembled.
+ */
+public interface SkippingRecordFilter extends RecordFilter {
+
+  /**
+   * @return the number of records starting from the current one which can not match, 0 if unknown
+   */
+  long getSkippableRecordCount();
+
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter2.predicate;
+
+import parquet.filter2.predicate.Operators.And;
+import parquet.filter2.predicate.Operators.Eq;
+import parquet.filter2.predicate.Operators.Gt;
+import parquet.filter2.predicate.Operators.GtEq;
+import parquet.filter2.predicate.Operators.In;
+import parquet.filter2.predicate.Operators.IsNull;
+import parquet.filter2.predicate.Operators.Lt;
+import parquet.filter2.predicate.Operators.LtEq;
+import parquet.filter2.predicate.Operators.Not;
+import parquet.filter2.predicate.Operators.NotEq;
+import parquet.filter2.predicate.Operators.Or;
+
+/**
+ * A typed predicate on the columns of a record.
+ * Unlike {@link parquet.filter.UnboundRecordFilter}, its structure is visible
+ * so that it can be evaluated against column statistics, dictionaries and records.
+ *
+ * Instances are created through {@link FilterApi} and are immutable and serializable.
+ */
+public interface FilterPredicate {
+
+  /**
+   * @param visitor the visitor to dispatch to
+   * @return the result of the visitor for this node
+   */
+  <R> R accept(Visitor<R> visitor);
+
+  /**
+   * visits each type of node in a predicate tree
+   *
+   * @param <R> the type returned by the visitor
+   */
+  public static interface Visitor<R> {
+    <T extends Comparable<T>> R visit(Eq<T> eq);
+    <T extends Comparable<T>> R visit(NotEq<T> notEq);
+    <T extends Comparable<T>> R visit(Lt<T> lt);
+    <T extends Comparable<T>> R visit(LtEq<T> ltEq);
+    <T extends Comparable<T>> R visit(Gt<T> gt);
+    <T extends Comparable<T>> R visit(GtEq<T> gtEq);
+    <T extends Comparable<T>> R visit(In<T> in);
+    <T extends Comparable<T>> R visit(IsNull<T> isNull);
+    R visit(And and);
+    R visit(Or or);
+    R visit(Not not);
+  }
+
+}
@@ -0,0 +1,491 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter2.predicate;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import parquet.common.schema.ColumnPath;
+import parquet.io.api.Binary;
+
+import static parquet.Preconditions.checkNotNull;
+
+/**
+ * The nodes of a {@link FilterPredicate} tree.
+ * Use {@link FilterApi} to create them.
+ */
+public final class Operators {
+
+  private Operators() { }
+
+  /**
+   * A typed reference to a column
+   *
+   * @param <T> the java type of the values of the column
+   */
+  public static abstract class Column<T extends Comparable<T>> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final ColumnPath columnPath;
+    private final Class<T> columnType;
+
+    protected Column(ColumnPath columnPath, Class<T> columnType) {
+      this.columnPath = checkNotNull(columnPath, "columnPath");
+      this.columnType = checkNotNull(columnType, "columnType");
+    }
+
+    public ColumnPath getColumnPath() {
+      return columnPath;
+    }
+
+    public Class<T> getColumnType() {
+      return columnType;
+    }
+
+    @Override
+    public String toString() {
+      return "column(" + columnPath.toDotString() + ")";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Column) {
+        Column<?> other = (Column<?>) obj;
+        return columnPath.equals(other.columnPath) && columnType.equals(other.columnType);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * columnPath.hashCode() + columnType.hashCode();
+    }
+  }
+
+  /**
+   * columns that can be used with eq and notEq
+   */
+  public static interface SupportsEqNotEq { }
+
+  /**
+   * columns that can be used with lt, ltEq, gt and gtEq
+   */
+  public static interface SupportsLtGt extends SupportsEqNotEq { }
+
+  public static final class IntColumn extends Column<Integer> implements SupportsLtGt {
+    private static final long serialVersionUID = 1L;
+    IntColumn(ColumnPath columnPath) {
+      super(columnPath, Integer.class);
+    }
+  }
+
+  public static final class LongColumn extends Column<Long> implements SupportsLtGt {
+    private static final long serialVersionUID = 1L;
+    LongColumn(ColumnPath columnPath) {
+      super(columnPath, Long.class);
+    }
+  }
+
+  public static final class FloatColumn extends Column<Float> implements SupportsLtGt {
+    private static final long serialVersionUID = 1L;
+    FloatColumn(ColumnPath columnPath) {
+      super(columnPath, Float.class);
+    }
+  }
+
+  public static final class DoubleColumn extends Column<Double> implements SupportsLtGt {
+    private static final long serialVersionUID = 1L;
+    DoubleColumn(ColumnPath columnPath) {
+      super(columnPath, Double.class);
+    }
+  }
+
+  public static final class BooleanColumn extends Column<Boolean> implements SupportsEqNotEq {
+    private static final long serialVersionUID = 1L;
+    BooleanColumn(ColumnPath columnPath) {
+      super(columnPath, Boolean.class);
+    }
+  }
+
+  public static final class BinaryColumn extends Column<Binary> implements SupportsLtGt {
+    private static final long serialVersionUID = 1L;
+    BinaryColumn(ColumnPath columnPath) {
+      super(columnPath, Binary.class);
+    }
+  }
+
+  /**
+   * base class for the predicates comparing a column to a value
+   *
+   * @param <T> the java type of the values of the column
+   */
+  public static abstract class ColumnFilterPredicate<T extends Comparable<T>> implements FilterPredicate, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Column<T> column;
+    private final T value;
+
+    protected ColumnFilterPredicate(Column<T> column, T value) {
+      this.column = checkNotNull(column, "column");
+      this.value = checkNotNull(value, "value");
+    }
+
+    public Column<T> getColumn() {
+      return column;
+    }
+
+    public T getValue() {
+      return value;
+    }
+
+    abstract String getName();
+
+    @Override
+    public String toString() {
+      return getName() + "(" + column.getColumnPath().toDotString() + ", " + value + ")";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj != null && obj.getClass() == getClass()) {
+        ColumnFilterPredicate<?> other = (ColumnFilterPredicate<?>) obj;
+        return column.equals(other.column) && value.equals(other.value);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * getClass().hashCode() + column.hashCode()) + value.hashCode();
+    }
+  }
+
+  public static final class Eq<T extends Comparable<T>> extends ColumnFilterPredicate<T> {
+    private static final long serialVersionUID = 1L;
+
+    Eq(Column<T> column, T value) {
+      super(column, value);
+    }
+
+    @Override
+    String getName() {
+      return "eq";
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static final class NotEq<T extends Comparable<T>> extends ColumnFilterPredicate<T> {
+    private static final long serialVersionUID = 1L;
+
+    NotEq(Column<T> column, T value) {
+      super(column, value);
+    }
+
+    @Override
+    String getName() {
+      return "noteq";
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static final class Lt<T extends Comparable<T>> extends ColumnFilterPredicate<T> {
+    private static final long serialVersionUID = 1L;
+
+    Lt(Column<T> column, T value) {
+      super(column, value);
+    }
+
+    @Override
+    String getName() {
+      return "lt";
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static final class LtEq<T extends Comparable<T>> extends ColumnFilterPredicate<T> {
+    private static final long serialVersionUID = 1L;
+
+    LtEq(Column<T> column, T value) {
+      super(column, value);
+    }
+
+    @Override
+    String getName() {
+      return "lteq";
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static final class Gt<T extends Comparable<T>> extends ColumnFilterPredicate<T> {
+    private static final long serialVersionUID = 1L;
+
+    Gt(Column<T> column, T value) {
+      super(column, value);
+    }
+
+    @Override
+    String getName() {
+      return "gt";
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static final class GtEq<T extends Comparable<T>> extends ColumnFilterPredicate<T> {
+    private static final long serialVersionUID = 1L;
+
+    GtEq(Column<T> column, T value) {
+      super(column, value);
+    }
+
+    @Override
+    String getName() {
+      return "gteq";
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  /**
+   * keeps records where the column is one of the values
+   *
+   * @param <T> the java type of the values of the column
+   */
+  public static final class In<T extends Comparable<T>> implements FilterPredicate, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Column<T> column;
+    private final Set<T> values;
+
+    In(Column<T> column, Set<T> values) {
+      this.column = checkNotNull(column, "column");
+      checkNotNull(values, "values");
+      for (T value : values) {
+        checkNotNull(value, "value");
+      }
+      this.values = Collections.unmodifiableSet(new HashSet<T>(values));
+    }
+
+    public Column<T> getColumn() {
+      return column;
+    }
+
+    public Set<T> getValues() {
+      return values;
+    }
+
+    @Override
+    public String toString() {
+      return "in(" + column.getColumnPath().toDotString() + ", " + values + ")";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof In) {
+        In<?> other = (In<?>) obj;
+        return column.equals(other.column) && values.equals(other.values);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * In.class.hashCode() + column.hashCode()) + values.hashCode();
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  /**
+   * keeps records where the column is null
+   *
+   * @param <T> the java type of the values of the column
+   */
+  public static final class IsNull<T extends Comparable<T>> implements FilterPredicate, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Column<T> column;
+
+    IsNull(Column<T> column) {
+      this.column = checkNotNull(column, "column");
+    }
+
+    public Column<T> getColumn() {
+      return column;
+    }
+
+    @Override
+    public String toString() {
+      return "isnull(" + column.getColumnPath().toDotString() + ")";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof IsNull && column.equals(((IsNull<?>) obj).column);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * IsNull.class.hashCode() + column.hashCode();
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  /**
+   * base class for and / or
+   */
+  private static abstract class BinaryLogicalFilterPredicate implements FilterPredicate, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final FilterPredicate left;
+    private final FilterPredicate right;
+
+    protected BinaryLogicalFilterPredicate(FilterPredicate left, FilterPredicate right) {
+      this.left = checkNotNull(left, "left");
+      this.right = checkNotNull(right, "right");
+    }
+
+    public FilterPredicate getLeft() {
+      return left;
+    }
+
+    public FilterPredicate getRight() {
+      return right;
+    }
+
+    abstract String getName();
+
+    @Override
+    public String toString() {
+      return getName() + "(" + left + ", " + right + ")";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj != null && obj.getClass() == getClass()) {
+        BinaryLogicalFilterPredicate other = (BinaryLogicalFilterPredicate) obj;
+        return left.equals(other.left) && right.equals(other.right);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * getClass().hashCode() + left.hashCode()) + right.hashCode();
+    }
+  }
+
+  public static final class And extends BinaryLogicalFilterPredicate {
+    private static final long serialVersionUID = 1L;
+
+    And(FilterPredicate left, FilterPredicate right) {
+      super(left, right);
+    }
+
+    @Override
+    String getName() {
+      return "and";
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static final class Or extends BinaryLogicalFilterPredicate {
+    private static final long serialVersionUID = 1L;
+
+    Or(FilterPredicate left, FilterPredicate right) {
+      super(left, right);
+    }
+
+    @Override
+    String getName() {
+      return "or";
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static final class Not implements FilterPredicate, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final FilterPredicate predicate;
+
+    Not(FilterPredicate predicate) {
+      this.predicate = checkNotNull(predicate, "predicate");
+    }
+
+    public FilterPredicate getPredicate() {
+      return predicate;
+    }
+
+    @Override
+    public String toString() {
+      return "not(" + predicate + ")";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Not && predicate.equals(((Not) obj).predicate);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Not.class.hashCode() + predicate.hashCode();
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+}
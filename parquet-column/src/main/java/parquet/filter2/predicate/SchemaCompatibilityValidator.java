@@ -0,0 +1,173 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter2.predicate;
+
+import parquet.filter2.predicate.Operators.And;
+import parquet.filter2.predicate.Operators.Column;
+import parquet.filter2.predicate.Operators.ColumnFilterPredicate;
+import parquet.filter2.predicate.Operators.Eq;
+import parquet.filter2.predicate.Operators.Gt;
+import parquet.filter2.predicate.Operators.GtEq;
+import parquet.filter2.predicate.Operators.In;
+import parquet.filter2.predicate.Operators.IsNull;
+import parquet.filter2.predicate.Operators.Lt;
+import parquet.filter2.predicate.Operators.LtEq;
+import parquet.filter2.predicate.Operators.Not;
+import parquet.filter2.predicate.Operators.NotEq;
+import parquet.filter2.predicate.Operators.Or;
+import parquet.io.api.Binary;
+import parquet.schema.MessageType;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+import parquet.schema.Type;
+
+import static parquet.Preconditions.checkNotNull;
+
+/**
+ * Checks that the columns referenced by a {@link FilterPredicate} have the type declared in the schema.
+ * Columns that are not in the schema are allowed: all their values are null.
+ * Repeated columns (or columns nested in a repeated group) are not supported.
+ */
+public class SchemaCompatibilityValidator implements FilterPredicate.Visitor<Void> {
+
+  /**
+   * @param predicate the predicate to validate
+   * @param schema the schema of the data it will be applied to
+   * @throws IllegalArgumentException if a column is not a primitive of the expected type
+   */
+  public static void validate(FilterPredicate predicate, MessageType schema) {
+    checkNotNull(predicate, "predicate");
+    checkNotNull(schema, "schema");
+    predicate.accept(new SchemaCompatibilityValidator(schema));
+  }
+
+  /**
+   * @param type a primitive type
+   * @return the java type used to represent it in predicates
+   */
+  public static Class<?> getJavaType(PrimitiveTypeName type) {
+    switch (type) {
+    case INT32:
+      return Integer.class;
+    case INT64:
+      return Long.class;
+    case FLOAT:
+      return Float.class;
+    case DOUBLE:
+      return Double.class;
+    case BOOLEAN:
+      return Boolean.class;
+    case BINARY:
+    case INT96:
+    case FIXED_LEN_BYTE_ARRAY:
+      return Binary.class;
+    default:
+      throw new IllegalArgumentException("unknown primitive type " + type);
+    }
+  }
+
+  private final MessageType schema;
+
+  private SchemaCompatibilityValidator(MessageType schema) {
+    this.schema = schema;
+  }
+
+  private void validateColumn(Column<?> column) {
+    String[] path = column.getColumnPath().toArray();
+    if (!schema.containsPath(path)) {
+      return;
+    }
+    Type type = schema.getType(path);
+    if (!type.isPrimitive()) {
+      throw new IllegalArgumentException("column " + column.getColumnPath().toDotString() + " is not a primitive column: " + type);
+    }
+    if (schema.getMaxRepetitionLevel(path) > 0) {
+      throw new IllegalArgumentException("column " + column.getColumnPath().toDotString() + " is repeated, filters only apply to non repeated columns");
+    }
+    Class<?> expected = getJavaType(type.asPrimitiveType().getPrimitiveTypeName());
+    if (!expected.equals(column.getColumnType())) {
+      throw new IllegalArgumentException(
+          "column " + column.getColumnPath().toDotString() + " is of type " + type
+          + " but the filter uses it as " + column.getColumnType().getSimpleName());
+    }
+  }
+
+  private <T extends Comparable<T>> Void validateColumnFilterPredicate(ColumnFilterPredicate<T> predicate) {
+    validateColumn(predicate.getColumn());
+    return null;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Void visit(Eq<T> eq) {
+    return validateColumnFilterPredicate(eq);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Void visit(NotEq<T> notEq) {
+    return validateColumnFilterPredicate(notEq);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Void visit(Lt<T> lt) {
+    return validateColumnFilterPredicate(lt);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Void visit(LtEq<T> ltEq) {
+    return validateColumnFilterPredicate(ltEq);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Void visit(Gt<T> gt) {
+    return validateColumnFilterPredicate(gt);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Void visit(GtEq<T> gtEq) {
+    return validateColumnFilterPredicate(gtEq);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Void visit(In<T> in) {
+    validateColumn(in.getColumn());
+    return null;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Void visit(IsNull<T> isNull) {
+    validateColumn(isNull.getColumn());
+    return null;
+  }
+
+  @Override
+  public Void visit(And and) {
+    and.getLeft().accept(this);
+    and.getRight().accept(this);
+    return null;
+  }
+
+  @Override
+  public Void visit(Or or) {
+    or.getLeft().accept(this);
+    or.getRight().accept(this);
+    return null;
+  }
+
+  @Override
+  public Void visit(Not not) {
+    not.getPredicate().accept(this);
+    return null;
+  }
+}
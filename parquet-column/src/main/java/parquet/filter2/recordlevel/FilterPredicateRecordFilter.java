@@ -0,0 +1,336 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter2.recordlevel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import parquet.column.ColumnReader;
+import parquet.column.statistics.Statistics;
+import parquet.common.schema.ColumnPath;
+import parquet.filter.RecordFilter;
+import parquet.filter.SkippingRecordFilter;
+import parquet.filter.UnboundRecordFilter;
+import parquet.filter2.predicate.FilterPredicate;
+import parquet.filter2.predicate.Operators.And;
+import parquet.filter2.predicate.Operators.Column;
+import parquet.filter2.predicate.Operators.Eq;
+import parquet.filter2.predicate.Operators.Gt;
+import parquet.filter2.predicate.Operators.GtEq;
+import parquet.filter2.predicate.Operators.In;
+import parquet.filter2.predicate.Operators.IsNull;
+import parquet.filter2.predicate.Operators.Lt;
+import parquet.filter2.predicate.Operators.LtEq;
+import parquet.filter2.predicate.Operators.Not;
+import parquet.filter2.predicate.Operators.NotEq;
+import parquet.filter2.predicate.Operators.Or;
+import parquet.filter2.statisticslevel.StatisticsEvaluator;
+import parquet.io.ParquetDecodingException;
+
+import static parquet.Preconditions.checkNotNull;
+
+/**
+ * Record filter which evaluates a {@link FilterPredicate} on the current value of the column readers.
+ * Columns that are not read (not in the file or not in the requested schema) are treated as null.
+ * When the statistics of the current pages of the filtered columns prove that no record can match
+ * until the end of one of those pages, the records up to there are reported as skippable.
+ *
+ * Repeated columns are not supported,
+ * see {@link parquet.filter2.predicate.SchemaCompatibilityValidator}.
+ */
+public final class FilterPredicateRecordFilter implements SkippingRecordFilter, FilterPredicate.Visitor<Boolean> {
+
+  /**
+   * Factory method for a record filter evaluating the given predicate.
+   *
+   * @param predicate the predicate records must satisfy
+   * @return the corresponding unbound record filter
+   */
+  public static final UnboundRecordFilter filter(final FilterPredicate predicate) {
+    checkNotNull(predicate, "predicate");
+    return new UnboundRecordFilter() {
+      @Override
+      public RecordFilter bind(Iterable<ColumnReader> readers) {
+        return new FilterPredicateRecordFilter(predicate, readers);
+      }
+    };
+  }
+
+  private final FilterPredicate predicate;
+  private final Map<ColumnPath, ColumnReader> readers = new HashMap<ColumnPath, ColumnReader>();
+  // the readers of the columns the predicate applies to
+  private final List<ColumnReader> filterReaders = new ArrayList<ColumnReader>();
+  // only non repeated columns have one value per record
+  private final boolean canSkip;
+  private final PageStatisticsEvaluator pageStatisticsEvaluator = new PageStatisticsEvaluator();
+  // the statistics of the current pages when they last failed to rule out the predicate
+  private final Statistics[] nonSkippableStatistics;
+  private boolean hasNonSkippableStatistics = false;
+
+  /**
+   * Private constructor. Use filter() instead.
+   */
+  private FilterPredicateRecordFilter(FilterPredicate predicate, Iterable<ColumnReader> readers) {
+    this.predicate = predicate;
+    for (ColumnReader reader : readers) {
+      this.readers.put(ColumnPath.get(reader.getDescriptor().getPath()), reader);
+    }
+    boolean canSkip = true;
+    for (ColumnPath path : getColumnPaths(predicate)) {
+      ColumnReader reader = this.readers.get(path);
+      if (reader != null) {
+        filterReaders.add(reader);
+        canSkip &= reader.getDescriptor().getMaxRepetitionLevel() == 0;
+      }
+    }
+    this.canSkip = canSkip;
+    this.nonSkippableStatistics = new Statistics[filterReaders.size()];
+  }
+
+  /**
+   * @return true if the current record matches the predicate.
+   */
+  @Override
+  public boolean isMatch() {
+    return predicate.accept(this);
+  }
+
+  /**
+   * @return the number of records left in the current pages of the filtered columns
+   * if their statistics prove that none of them matches, 0 otherwise
+   */
+  @Override
+  public long getSkippableRecordCount() {
+    if (!canSkip || isNonSkippable()) {
+      return 0;
+    }
+    if (!predicate.accept(pageStatisticsEvaluator)) {
+      for (int i = 0; i < nonSkippableStatistics.length; i++) {
+        nonSkippableStatistics[i] = filterReaders.get(i).getCurrentPageStatistics();
+      }
+      hasNonSkippableStatistics = true;
+      return 0;
+    }
+    long skippable = Long.MAX_VALUE;
+    for (ColumnReader reader : filterReaders) {
+      skippable = Math.min(skippable, reader.getCurrentPageRemainingValueCount());
+    }
+    return skippable;
+  }
+
+  /**
+   * The result of the evaluation only depends on the statistics:
+   * it does not change until one of them does (null meaning unknown).
+   * @return true if the current pages have the statistics which could not rule out the predicate last time
+   */
+  private boolean isNonSkippable() {
+    if (!hasNonSkippableStatistics) {
+      return false;
+    }
+    for (int i = 0; i < nonSkippableStatistics.length; i++) {
+      if (filterReaders.get(i).getCurrentPageStatistics() != nonSkippableStatistics[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isNull(ColumnReader reader) {
+    return reader == null || reader.getCurrentDefinitionLevel() < reader.getDescriptor().getMaxDefinitionLevel();
+  }
+
+  /**
+   * @return the current value of the column or null
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends Comparable<T>> T getValue(Column<T> column) {
+    ColumnReader reader = readers.get(column.getColumnPath());
+    if (isNull(reader)) {
+      return null;
+    }
+    switch (reader.getDescriptor().getType()) {
+    case INT32:
+      return (T) Integer.valueOf(reader.getInteger());
+    case INT64:
+      return (T) Long.valueOf(reader.getLong());
+    case FLOAT:
+      return (T) Float.valueOf(reader.getFloat());
+    case DOUBLE:
+      return (T) Double.valueOf(reader.getDouble());
+    case BOOLEAN:
+      return (T) Boolean.valueOf(reader.getBoolean());
+    case BINARY:
+    case INT96:
+    case FIXED_LEN_BYTE_ARRAY:
+      return (T) reader.getBinary();
+    default:
+      throw new ParquetDecodingException("unknown type " + reader.getDescriptor().getType());
+    }
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(Eq<T> eq) {
+    T value = getValue(eq.getColumn());
+    return value != null && value.compareTo(eq.getValue()) == 0;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(NotEq<T> notEq) {
+    T value = getValue(notEq.getColumn());
+    return value == null || value.compareTo(notEq.getValue()) != 0;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(Lt<T> lt) {
+    T value = getValue(lt.getColumn());
+    return value != null && value.compareTo(lt.getValue()) < 0;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(LtEq<T> ltEq) {
+    T value = getValue(ltEq.getColumn());
+    return value != null && value.compareTo(ltEq.getValue()) <= 0;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(Gt<T> gt) {
+    T value = getValue(gt.getColumn());
+    return value != null && value.compareTo(gt.getValue()) > 0;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(GtEq<T> gtEq) {
+    T value = getValue(gtEq.getColumn());
+    return value != null && value.compareTo(gtEq.getValue()) >= 0;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(In<T> in) {
+    T value = getValue(in.getColumn());
+    return value != null && in.getValues().contains(value);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(IsNull<T> isNull) {
+    return isNull(readers.get(isNull.getColumn().getColumnPath()));
+  }
+
+  @Override
+  public Boolean visit(And and) {
+    return and.getLeft().accept(this) && and.getRight().accept(this);
+  }
+
+  @Override
+  public Boolean visit(Or or) {
+    return or.getLeft().accept(this) || or.getRight().accept(this);
+  }
+
+  @Override
+  public Boolean visit(Not not) {
+    return !not.getPredicate().accept(this);
+  }
+
+  /**
+   * evaluates the predicate against the statistics of the current pages
+   */
+  private final class PageStatisticsEvaluator extends StatisticsEvaluator {
+    @Override
+    protected <T extends Comparable<T>> ColumnStats<T> getStats(Column<T> column) {
+      ColumnReader reader = readers.get(column.getColumnPath());
+      if (reader == null) {
+        return ColumnStats.allNull();
+      }
+      // pages with only nulls have no min and max and are not identified as such
+      return ColumnStats.of(reader.getCurrentPageStatistics(), 0);
+    }
+  }
+
+  /**
+   * @param predicate a filter predicate
+   * @return the columns the predicate references
+   */
+  public static Set<ColumnPath> getColumnPaths(FilterPredicate predicate) {
+    final Set<ColumnPath> paths = new HashSet<ColumnPath>();
+    predicate.accept(new FilterPredicate.Visitor<Void>() {
+      private <T extends Comparable<T>> Void add(Column<T> column) {
+        paths.add(column.getColumnPath());
+        return null;
+      }
+
+      @Override
+      public <T extends Comparable<T>> Void visit(Eq<T> eq) {
+        return add(eq.getColumn());
+      }
+
+      @Override
+      public <T extends Comparable<T>> Void visit(NotEq<T> notEq) {
+        return add(notEq.getColumn());
+      }
+
+      @Override
+      public <T extends Comparable<T>> Void visit(Lt<T> lt) {
+        return add(lt.getColumn());
+      }
+
+      @Override
+      public <T extends Comparable<T>> Void visit(LtEq<T> ltEq) {
+        return add(ltEq.getColumn());
+      }
+
+      @Override
+      public <T extends Comparable<T>> Void visit(Gt<T> gt) {
+        return add(gt.getColumn());
+      }
+
+      @Override
+      public <T extends Comparable<T>> Void visit(GtEq<T> gtEq) {
+        return add(gtEq.getColumn());
+      }
+
+      @Override
+      public <T extends Comparable<T>> Void visit(In<T> in) {
+        return add(in.getColumn());
+      }
+
+      @Override
+      public <T extends Comparable<T>> Void visit(IsNull<T> isNull) {
+        return add(isNull.getColumn());
+      }
+
+      @Override
+      public Void visit(And and) {
+        and.getLeft().accept(this);
+        return and.getRight().accept(this);
+      }
+
+      @Override
+      public Void visit(Or or) {
+        or.getLeft().accept(this);
+        return or.getRight().accept(this);
+      }
+
+      @Override
+      public Void visit(Not not) {
+        return not.getPredicate().accept(this);
+      }
+    });
+    return paths;
+  }
+}
@@ -0,0 +1,286 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter2.statisticslevel;
+
+import parquet.column.statistics.Statistics;
+import parquet.filter2.predicate.FilterPredicate;
+import parquet.filter2.predicate.Operators.And;
+import parquet.filter2.predicate.Operators.Column;
+import parquet.filter2.predicate.Operators.ColumnFilterPredicate;
+import parquet.filter2.predicate.Operators.Eq;
+import parquet.filter2.predicate.Operators.Gt;
+import parquet.filter2.predicate.Operators.GtEq;
+import parquet.filter2.predicate.Operators.In;
+import parquet.filter2.predicate.Operators.IsNull;
+import parquet.filter2.predicate.Operators.Lt;
+import parquet.filter2.predicate.Operators.LtEq;
+import parquet.filter2.predicate.Operators.Not;
+import parquet.filter2.predicate.Operators.NotEq;
+import parquet.filter2.predicate.Operators.Or;
+
+/**
+ * Evaluates a {@link FilterPredicate} against the statistics of the columns for a range of rows
+ * (a row group, a page, ...). The visit methods return true when the statistics prove that
+ * no record in the range can match the predicate.
+ * It is conservative: when in doubt (no statistics, ...) it returns false.
+ *
+ * The inverted evaluator evaluates whether the negation of the visited predicate
+ * can be dropped, which is how {@link Not} is supported.
+ */
+public abstract class StatisticsEvaluator implements FilterPredicate.Visitor<Boolean> {
+
+  /**
+   * the information we have about the values of a column in the range of rows
+   *
+   * @param <T> the java type of the values of the column
+   */
+  public static final class ColumnStats<T extends Comparable<T>> {
+
+    /**
+     * @return stats for a column the statistics can not tell anything about
+     */
+    public static <T extends Comparable<T>> ColumnStats<T> unknown() {
+      return new ColumnStats<T>(true, false, true, null, null);
+    }
+
+    /**
+     * @return stats for a column with only null values (or not present)
+     */
+    public static <T extends Comparable<T>> ColumnStats<T> allNull() {
+      return new ColumnStats<T>(false, true, true, null, null);
+    }
+
+    /**
+     * @param statistics the statistics of the column in the range (may be null)
+     * @param valueCount the number of values (including nulls) of the column in the range
+     * @return the corresponding stats
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T>> ColumnStats<T> of(Statistics statistics, long valueCount) {
+      if (statistics != null && valueCount > 0 && statistics.getNumNulls() == valueCount) {
+        return allNull();
+      }
+      if (statistics == null || statistics.isEmpty()) {
+        // no statistics were written
+        return unknown();
+      }
+      return new ColumnStats<T>(false, false, statistics.getNumNulls() > 0, (T) statistics.genericGetMin(), (T) statistics.genericGetMax());
+    }
+
+    // the statistics can not tell anything
+    final boolean unknown;
+    // all the values are null
+    final boolean allNull;
+    final boolean hasNulls;
+    final T min;
+    final T max;
+
+    private ColumnStats(boolean unknown, boolean allNull, boolean hasNulls, T min, T max) {
+      this.unknown = unknown;
+      this.allNull = allNull;
+      this.hasNulls = hasNulls;
+      this.min = min;
+      this.max = max;
+    }
+  }
+
+  private final boolean inverted;
+  private StatisticsEvaluator inverse;
+
+  protected StatisticsEvaluator() {
+    this.inverted = false;
+  }
+
+  private StatisticsEvaluator(StatisticsEvaluator inverse) {
+    this.inverted = !inverse.inverted;
+    this.inverse = inverse;
+  }
+
+  private StatisticsEvaluator inverse() {
+    if (inverse == null) {
+      inverse = new Inverse(this);
+    }
+    return inverse;
+  }
+
+  /**
+   * @param column a column referenced by the predicate
+   * @return what the statistics tell about the values of this column in the range of rows
+   */
+  protected abstract <T extends Comparable<T>> ColumnStats<T> getStats(Column<T> column);
+
+  // the visit methods return whether the rows can be dropped for the predicate
+  // (or its negation when inverted)
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(Eq<T> eq) {
+    return inverted ? canDropNotEq(eq) : canDropEq(eq);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(NotEq<T> notEq) {
+    return inverted ? canDropEq(notEq) : canDropNotEq(notEq);
+  }
+
+  private <T extends Comparable<T>> boolean canDropEq(ColumnFilterPredicate<T> predicate) {
+    ColumnStats<T> stats = getStats(predicate.getColumn());
+    if (stats.unknown) {
+      return false;
+    }
+    if (stats.allNull) {
+      // null == value is false
+      return true;
+    }
+    T value = predicate.getValue();
+    return value.compareTo(stats.min) < 0 || value.compareTo(stats.max) > 0;
+  }
+
+  private <T extends Comparable<T>> boolean canDropNotEq(ColumnFilterPredicate<T> predicate) {
+    ColumnStats<T> stats = getStats(predicate.getColumn());
+    if (stats.unknown || stats.hasNulls) {
+      // null != value is true
+      return false;
+    }
+    T value = predicate.getValue();
+    return value.compareTo(stats.min) == 0 && value.compareTo(stats.max) == 0;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(Lt<T> lt) {
+    ColumnStats<T> stats = getStats(lt.getColumn());
+    if (stats.unknown) {
+      return false;
+    }
+    T value = lt.getValue();
+    if (inverted) {
+      // keeps nulls and values >= value
+      return !stats.hasNulls && stats.max.compareTo(value) < 0;
+    }
+    return stats.allNull || stats.min.compareTo(value) >= 0;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(LtEq<T> ltEq) {
+    ColumnStats<T> stats = getStats(ltEq.getColumn());
+    if (stats.unknown) {
+      return false;
+    }
+    T value = ltEq.getValue();
+    if (inverted) {
+      // keeps nulls and values > value
+      return !stats.hasNulls && stats.max.compareTo(value) <= 0;
+    }
+    return stats.allNull || stats.min.compareTo(value) > 0;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(Gt<T> gt) {
+    ColumnStats<T> stats = getStats(gt.getColumn());
+    if (stats.unknown) {
+      return false;
+    }
+    T value = gt.getValue();
+    if (inverted) {
+      // keeps nulls and values <= value
+      return !stats.hasNulls && stats.min.compareTo(value) > 0;
+    }
+    return stats.allNull || stats.max.compareTo(value) <= 0;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(GtEq<T> gtEq) {
+    ColumnStats<T> stats = getStats(gtEq.getColumn());
+    if (stats.unknown) {
+      return false;
+    }
+    T value = gtEq.getValue();
+    if (inverted) {
+      // keeps nulls and values < value
+      return !stats.hasNulls && stats.min.compareTo(value) >= 0;
+    }
+    return stats.allNull || stats.max.compareTo(value) < 0;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(In<T> in) {
+    ColumnStats<T> stats = getStats(in.getColumn());
+    if (stats.unknown) {
+      return false;
+    }
+    if (inverted) {
+      // keeps nulls and values not in the set
+      return !stats.hasNulls && stats.min.compareTo(stats.max) == 0 && in.getValues().contains(stats.min);
+    }
+    if (stats.allNull) {
+      return true;
+    }
+    for (T value : in.getValues()) {
+      if (value.compareTo(stats.min) >= 0 && value.compareTo(stats.max) <= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(IsNull<T> isNull) {
+    ColumnStats<T> stats = getStats(isNull.getColumn());
+    if (stats.unknown) {
+      return false;
+    }
+    return inverted ? stats.allNull : !stats.hasNulls;
+  }
+
+  @Override
+  public Boolean visit(And and) {
+    if (inverted) {
+      // not(a and b) == not(a) or not(b)
+      return and.getLeft().accept(this) && and.getRight().accept(this);
+    }
+    return and.getLeft().accept(this) || and.getRight().accept(this);
+  }
+
+  @Override
+  public Boolean visit(Or or) {
+    if (inverted) {
+      // not(a or b) == not(a) and not(b)
+      return or.getLeft().accept(this) || or.getRight().accept(this);
+    }
+    return or.getLeft().accept(this) && or.getRight().accept(this);
+  }
+
+  @Override
+  public Boolean visit(Not not) {
+    return not.getPredicate().accept(inverse());
+  }
+
+  /**
+   * evaluates the negation of the predicates visited by another evaluator
+   */
+  private static final class Inverse extends StatisticsEvaluator {
+    private final StatisticsEvaluator delegate;
+
+    Inverse(StatisticsEvaluator delegate) {
+      super(delegate);
+      this.delegate = delegate;
+    }
+
+    @Override
+    protected <T extends Comparable<T>> ColumnStats<T> getStats(Column<T> column) {
+      return delegate.getStats(column);
+    }
+  }
+}
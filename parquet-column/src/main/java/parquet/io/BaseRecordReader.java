@@ -23,13 +23,20 @@ import parquet.io.api.Binary;
 import parquet.io.api.RecordConsumer;
 import parquet.io.api.RecordMaterializer;
 
-// TODO(julien): this class appears to be unused -- can it be nuked? - todd
+/**
+ * base class for the record readers generated by the {@link RecordReaderCompiler}
+ *
+ * @param <T> the type of the materialized record
+ */
 public abstract class BaseRecordReader<T> extends RecordReader<T> {
   private static final Log LOG = Log.getLog(BaseRecordReader.class);
 
   public RecordConsumer recordConsumer;
   public RecordMaterializer<T> recordMaterializer;
   public ColumnReadStore columnStore;
+
+  // the interpreted reader this one was compiled from, it owns the column readers
+  RecordReaderImplementation<T> recordReaderImplementation;
   @Override
   public T read() {
     readOneRecord();
@@ -17,7 +17,9 @@ package parquet.io;
 
 import parquet.column.ColumnReader;
 import parquet.column.impl.ColumnReadStoreImpl;
+import parquet.column.page.PageReadStore;
 import parquet.filter.RecordFilter;
+import parquet.filter.SkippingRecordFilter;
 import parquet.filter.UnboundRecordFilter;
 import parquet.io.api.RecordMaterializer;
 
@@ -28,9 +30,11 @@ import parquet.io.api.RecordMaterializer;
  */
 class FilteredRecordReader<T> extends RecordReaderImplementation<T> {
 
-  private final RecordFilter recordFilter;
-  private final long recordCount;
+  private final UnboundRecordFilter unboundFilter;
+  private RecordFilter recordFilter;
+  private long recordCount;
   private long recordsRead = 0;
+  private boolean exhausted;
 
   /**
    * @param root          the root of the schema
@@ -42,6 +46,7 @@ class FilteredRecordReader<T> extends RecordReaderImplementation<T> {
                               ColumnReadStoreImpl columnStore, UnboundRecordFilter unboundFilter, long recordCount) {
     super(root, recordMaterializer, validating, columnStore);
     this.recordCount = recordCount;
+    this.unboundFilter = unboundFilter;
     if ( unboundFilter != null ) {
       recordFilter = unboundFilter.bind(getColumnReaders());
     } else {
@@ -49,6 +54,20 @@ class FilteredRecordReader<T> extends RecordReaderImplementation<T> {
     }
   }
 
+  /**
+   * Also binds the filter to the new column readers.
+   */
+  @Override
+  void setPages(PageReadStore pages) {
+    super.setPages(pages);
+    recordCount = pages.getRowCount();
+    recordsRead = 0;
+    exhausted = false;
+    if (unboundFilter != null) {
+      recordFilter = unboundFilter.bind(getColumnReaders());
+    }
+  }
+
   /**
    * Override read() method to provide skip.
    */
@@ -56,22 +75,41 @@ class FilteredRecordReader<T> extends RecordReaderImplementation<T> {
   public T read() {
     skipToMatch();
     if (recordsRead == recordCount) {
+      exhausted = true;
       return null;
     }
     ++ recordsRead;
     return super.read();
   }
 
+  @Override
+  public boolean isExhausted() {
+    return exhausted;
+  }
+
 
   /**
    * Skips forwards until the filter finds the first match. Returns false
    * if none found.
    */
   private void skipToMatch() {
-    while (recordsRead < recordCount && !recordFilter.isMatch()) {
+    while (recordsRead < recordCount) {
+      if (recordFilter instanceof SkippingRecordFilter) {
+        long skippable = Math.min(((SkippingRecordFilter) recordFilter).getSkippableRecordCount(), recordCount - recordsRead);
+        if (skippable > 0) {
+          for (ColumnReader columnReader : getColumnReaders()) {
+            columnReader.skipRecords(skippable);
+          }
+          recordsRead += skippable;
+          continue;
+        }
+      }
+      if (recordFilter.isMatch()) {
+        return;
+      }
       State currentState = getState(0);
       do {
-        ColumnReader columnReader = currentState.column;
+        ColumnReader columnReader = getColumnReader(currentState);
 
         // currentLevel = depth + 1 at this point
         // set the current value
@@ -30,6 +30,8 @@ import parquet.io.api.RecordConsumer;
 import parquet.io.api.RecordMaterializer;
 import parquet.schema.MessageType;
 
+import static parquet.Preconditions.checkArgument;
+
 /**
  * Message level of the IO structure
  *
@@ -83,6 +85,32 @@ public class MessageColumnIO extends GroupColumnIO {
     );
   }
 
+  /**
+   * Points a record reader returned by this MessageColumnIO to the pages of another row group.
+   * The record assembly structures derived from the schema are reused and the filter,
+   * if any, is bound to the new columns. The record reader must not be used
+   * to read the previous pages anymore.
+   *
+   * @param columns the pages to read from
+   * @param recordReader a record reader returned by one of the getRecordReader methods of this MessageColumnIO
+   *        or compiled from one by a {@link RecordReaderCompiler}
+   * @return the record reader, reading from the given pages
+   */
+  public <T> RecordReader<T> getRecordReader(PageReadStore columns, RecordReader<T> recordReader) {
+    if (recordReader instanceof EmptyRecordReader) {
+      return recordReader;
+    }
+    // a compiled reader shares its column readers with the reader it was compiled from
+    RecordReader<T> recordReaderImplementation = recordReader instanceof BaseRecordReader
+        ? ((BaseRecordReader<T>) recordReader).recordReaderImplementation
+        : recordReader;
+    checkArgument(recordReaderImplementation instanceof RecordReaderImplementation
+        && ((RecordReaderImplementation<T>) recordReaderImplementation).getRoot() == this,
+        "the record reader was not created by this MessageColumnIO: " + recordReader);
+    ((RecordReaderImplementation<T>) recordReaderImplementation).setPages(columns);
+    return recordReader;
+  }
+
   private class MessageColumnIORecordConsumer extends RecordConsumer {
     private ColumnIO currentColumnIO;
     private int currentLevel = 0;
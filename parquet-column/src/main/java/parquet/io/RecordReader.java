@@ -30,4 +30,13 @@ public abstract class RecordReader<T> {
    */
   public abstract T read();
 
+  /**
+   * Readers that skip the records not matching a filter return null from {@link #read()}
+   * once no record remains. The materializer may also return null for a record.
+   * @return true if the last call to read() returned null because no record remained
+   */
+  public boolean isExhausted() {
+    return false;
+  }
+
 }
@@ -0,0 +1,382 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.io;
+
+import static parquet.Log.DEBUG;
+import static parquet.Log.INFO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import parquet.Log;
+import parquet.column.ColumnReader;
+import parquet.io.RecordReaderImplementation.State;
+import parquet.io.api.GroupConverter;
+
+/**
+ * Generates a record reader specialized for a requested schema.
+ *
+ * The state machine of the {@link RecordReaderImplementation} is turned into Java code:
+ * each state becomes a method in which the group converters to start and end
+ * are called directly instead of being looked up by level.
+ * When the transition out of a state does not depend on the repetition level
+ * the next state is called without going through the dispatch.
+ * The generated classes are compiled with the system Java compiler
+ * and are reused for all the readers of the same schema.
+ */
+public class RecordReaderCompiler {
+  private static final Log LOG = Log.getLog(RecordReaderCompiler.class);
+
+  private static final String PACKAGE = "parquet.io.compiled";
+
+  private static final AtomicInteger CLASS_ID = new AtomicInteger();
+
+  // the generated classes, each with its class loader, are unloaded once evicted and no longer used
+  private static final int MAX_COMPILED_READERS = 64;
+
+  // generated classes by requested schema, least recently used first
+  private static final Map<String, Class<?>> COMPILED_READERS = new LinkedHashMap<String, Class<?>>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Class<?>> eldest) {
+      return size() > MAX_COMPILED_READERS;
+    }
+  };
+
+  // null on a JRE, looked up once
+  private static final JavaCompiler JAVAC = ToolProvider.getSystemJavaCompiler();
+  static {
+    if (JAVAC == null) {
+      LOG.warn("no Java compiler available, the record assembly will not be compiled on this JRE and falls back to the generic one");
+    }
+  }
+
+  private static class GeneratedClassLoader extends ClassLoader {
+
+    GeneratedClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    Class<?> define(String name, byte[] bytes) {
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+
+  /**
+   * Compiles a record reader returned by {@link MessageColumnIO#getRecordReader(parquet.column.page.PageReadStore, parquet.io.api.RecordMaterializer)}.
+   * Filtered and empty record readers are returned unchanged,
+   * as well as all readers when no Java compiler is available (on a JRE).
+   * The compiled reader can be moved to another row group with
+   * {@link MessageColumnIO#getRecordReader(parquet.column.page.PageReadStore, RecordReader)}
+   *
+   * @param recordReader the reader to compile
+   * @return the compiled reader
+   * @throws CompilationException if the compilation failed
+   */
+  public <T> RecordReader<T> compile(RecordReader<T> recordReader) {
+    if (JAVAC == null
+        || !(recordReader instanceof RecordReaderImplementation)
+        || recordReader instanceof FilteredRecordReader) {
+      return recordReader;
+    }
+    RecordReaderImplementation<T> recordReaderImplementation = (RecordReaderImplementation<T>)recordReader;
+    Class<?> readerClass = getReaderClass(recordReaderImplementation);
+    GroupConverter[][] groupConverterPaths = new GroupConverter[recordReaderImplementation.getStateCount()][];
+    for (int i = 0; i < groupConverterPaths.length; i++) {
+      groupConverterPaths[i] = recordReaderImplementation.getState(i).groupConverterPath;
+    }
+    try {
+      @SuppressWarnings("unchecked")
+      BaseRecordReader<T> compiled = (BaseRecordReader<T>)readerClass
+          .getConstructor(GroupConverter.class, GroupConverter[][].class, ColumnReader[].class)
+          .newInstance(
+              recordReaderImplementation.getRecordConsumer().asGroupConverter(),
+              groupConverterPaths,
+              recordReaderImplementation.getColumnReaderArray());
+      compiled.recordMaterializer = recordReaderImplementation.getMaterializer();
+      compiled.recordReaderImplementation = recordReaderImplementation;
+      return compiled;
+    } catch (InstantiationException e) {
+      throw new CompilationException("could not instantiate " + readerClass.getName(), e);
+    } catch (IllegalAccessException e) {
+      throw new CompilationException("could not instantiate " + readerClass.getName(), e);
+    } catch (InvocationTargetException e) {
+      throw new CompilationException("could not instantiate " + readerClass.getName(), e);
+    } catch (NoSuchMethodException e) {
+      throw new CompilationException("could not instantiate " + readerClass.getName(), e);
+    }
+  }
+
+  private Class<?> getReaderClass(RecordReaderImplementation<?> recordReader) {
+    String schema = recordReader.getRoot().getType().toString();
+    synchronized (COMPILED_READERS) {
+      Class<?> readerClass = COMPILED_READERS.get(schema);
+      if (readerClass == null) {
+        String className = "RecordReader" + CLASS_ID.incrementAndGet();
+        String source = generate(className, recordReader);
+        if (DEBUG) LOG.debug("generated " + className + " for " + schema + ":\n" + source);
+        readerClass = compile(PACKAGE + "." + className, source);
+        if (INFO) LOG.info("compiled the record reader " + className + " for the schema " + schema);
+        COMPILED_READERS.put(schema, readerClass);
+      }
+      return readerClass;
+    }
+  }
+
+  String generate(String className, RecordReaderImplementation<?> recordReader) {
+    int stateCount = recordReader.getStateCount();
+    StringBuilder code = new StringBuilder();
+    code.append("package ").append(PACKAGE).append(";\n\n")
+        .append("import parquet.column.ColumnReader;\n")
+        .append("import parquet.io.api.GroupConverter;\n\n")
+        .append("public final class ").append(className).append(" extends parquet.io.BaseRecordReader<Object> {\n\n")
+        .append("  private final GroupConverter root;\n")
+        .append("  private final ColumnReader[] columns;\n");
+    for (int i = 0; i < stateCount; i++) {
+      State state = recordReader.getState(i);
+      for (int level = 0; level < state.groupConverterPath.length; level++) {
+        code.append("  private final GroupConverter ").append(group(i, level)).append(";\n");
+      }
+    }
+    code.append("  private int currentLevel;\n\n");
+
+    code.append("  public ").append(className).append("(GroupConverter root, GroupConverter[][] groupConverterPaths, ColumnReader[] columns) {\n")
+        .append("    this.root = root;\n")
+        .append("    this.columns = columns;\n");
+    for (int i = 0; i < stateCount; i++) {
+      State state = recordReader.getState(i);
+      for (int level = 0; level < state.groupConverterPath.length; level++) {
+        code.append("    this.").append(group(i, level))
+            .append(" = groupConverterPaths[").append(i).append("][").append(level).append("];\n");
+      }
+    }
+    code.append("  }\n\n");
+
+    code.append("  protected void readOneRecord() {\n")
+        .append("    root.start();\n")
+        .append("    currentLevel = 0;\n")
+        .append("    int state = 0;\n")
+        .append("    do {\n")
+        .append("      switch (state) {\n");
+    for (int i = 0; i < stateCount; i++) {
+      State state = recordReader.getState(i);
+      code.append("      case ").append(i).append(":\n");
+      if (state.maxRepetitionLevel == 0) {
+        // the next state is always the same
+        code.append("        read").append(i).append("();\n");
+        State nextState = state.getNextState(0);
+        if (nextState == null) {
+          code.append("        state = -1;\n")
+              .append("        break;\n");
+        } else if (nextState.id != i + 1) {
+          code.append("        state = ").append(nextState.id).append(";\n")
+              .append("        break;\n");
+        } // else fall through to the next state
+      } else {
+        code.append("        state = read").append(i).append("();\n")
+            .append("        break;\n");
+      }
+    }
+    code.append("      default:\n")
+        .append("        error(\"unknown state \" + state);\n")
+        .append("      }\n")
+        .append("    } while (state >= 0);\n")
+        .append("    root.end();\n")
+        .append("  }\n");
+
+    for (int i = 0; i < stateCount; i++) {
+      generateState(code, recordReader.getState(i));
+    }
+    code.append("}\n");
+    return code.toString();
+  }
+
+  private void generateState(StringBuilder code, State state) {
+    int i = state.id;
+    boolean dynamicTransition = state.maxRepetitionLevel > 0;
+    code.append("\n  // ").append(Arrays.toString(state.fieldPath)).append("\n")
+        .append("  private ").append(dynamicTransition ? "int" : "void").append(" read").append(i).append("() {\n")
+        .append("    ColumnReader column = columns[").append(i).append("];\n");
+    // opening the groups
+    if (state.maxDefinitionLevel == 0) {
+      generateStart(code, state, state.getDepth(0), "    ");
+      code.append("    column.writeCurrentValueToConverter();\n");
+    } else {
+      code.append("    int d = column.getCurrentDefinitionLevel();\n")
+          .append("    switch (d) {\n");
+      for (int d = 0; d <= state.maxDefinitionLevel; d++) {
+        code.append("    case ").append(d).append(":\n");
+        // definition levels leading to the same depth share the same code
+        if (d == state.maxDefinitionLevel || state.getDepth(d) != state.getDepth(d + 1)) {
+          generateStart(code, state, state.getDepth(d), "      ");
+          code.append("      break;\n");
+        }
+      }
+      code.append("    default:\n")
+          .append("      error(\"invalid definition level \" + d + \" for ").append(Arrays.toString(state.fieldPath)).append("\");\n")
+          .append("    }\n")
+          .append("    if (d == ").append(state.maxDefinitionLevel).append(") {\n")
+          .append("      column.writeCurrentValueToConverter();\n")
+          .append("    }\n");
+    }
+    code.append("    column.consume();\n");
+    // closing the groups
+    if (dynamicTransition) {
+      code.append("    int r = column.getCurrentRepetitionLevel();\n")
+          .append("    switch (r) {\n");
+      for (int r = 0; r <= state.maxRepetitionLevel; r++) {
+        code.append("    case ").append(r).append(":\n");
+        generateEnd(code, state, state.nextLevel[r], "      ");
+        State nextState = state.getNextState(r);
+        code.append("      return ").append(nextState == null ? -1 : nextState.id).append(";\n");
+      }
+      code.append("    default:\n")
+          .append("      error(\"invalid repetition level \" + r + \" for ").append(Arrays.toString(state.fieldPath)).append("\");\n")
+          .append("      return -1;\n")
+          .append("    }\n");
+    } else {
+      generateEnd(code, state, state.nextLevel[0], "    ");
+    }
+    code.append("  }\n");
+  }
+
+  /**
+   * starts the groups from the current level to depth
+   */
+  private void generateStart(StringBuilder code, State state, int depth, String indent) {
+    if (depth < 0) {
+      return;
+    }
+    code.append(indent).append("switch (currentLevel) {\n");
+    for (int level = 0; level <= depth; level++) {
+      code.append(indent).append("case ").append(level).append(":\n")
+          .append(indent).append("  ").append(group(state.id, level)).append(".start();\n");
+    }
+    code.append(indent).append("  currentLevel = ").append(depth + 1).append(";\n")
+        .append(indent).append("}\n");
+  }
+
+  /**
+   * ends the groups from the current level down to next
+   */
+  private void generateEnd(StringBuilder code, State state, int next, String indent) {
+    int maxLevel = state.groupConverterPath.length;
+    if (next >= maxLevel) {
+      return;
+    }
+    code.append(indent).append("switch (currentLevel) {\n");
+    for (int level = maxLevel; level > next; level--) {
+      code.append(indent).append("case ").append(level).append(":\n")
+          .append(indent).append("  ").append(group(state.id, level - 1)).append(".end();\n");
+    }
+    code.append(indent).append("  currentLevel = ").append(next).append(";\n")
+        .append(indent).append("}\n");
+  }
+
+  private String group(int state, int level) {
+    return "g" + state + "_" + level;
+  }
+
+  private Class<?> compile(final String className, final String source) {
+    JavaCompiler javac = JAVAC;
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    final Map<String, ByteArrayOutputStream> classes = new HashMap<String, ByteArrayOutputStream>();
+    StandardJavaFileManager standardFileManager = javac.getStandardFileManager(diagnostics, null, null);
+    JavaFileManager fileManager = new ForwardingJavaFileManager<StandardJavaFileManager>(standardFileManager) {
+      @Override
+      public JavaFileObject getJavaFileForOutput(Location location, final String name, Kind kind, FileObject sibling) {
+        return new SimpleJavaFileObject(URI.create("mem:///" + name.replace('.', '/') + kind.extension), kind) {
+          @Override
+          public OutputStream openOutputStream() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            classes.put(name, out);
+            return out;
+          }
+        };
+      }
+    };
+    JavaFileObject sourceFile = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+      }
+    };
+    List<String> options = Arrays.asList("-classpath", getClassPath());
+    boolean success = javac.getTask(null, fileManager, diagnostics, options, null, Arrays.asList(sourceFile)).call();
+    if (!success || !classes.containsKey(className)) {
+      StringBuilder message = new StringBuilder("could not compile ").append(className);
+      for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+        message.append("\n").append(diagnostic);
+      }
+      throw new CompilationException(message.toString());
+    }
+    GeneratedClassLoader classLoader = new GeneratedClassLoader(BaseRecordReader.class.getClassLoader());
+    return classLoader.define(className, classes.get(className).toByteArray());
+  }
+
+  /**
+   * the generated code only depends on parquet-column and parquet-common
+   */
+  private String getClassPath() {
+    List<String> classPath = new ArrayList<String>();
+    for (Class<?> c : Arrays.asList(BaseRecordReader.class, Log.class)) {
+      CodeSource codeSource = c.getProtectionDomain().getCodeSource();
+      URL location = codeSource == null ? null : codeSource.getLocation();
+      if (location != null) {
+        try {
+          classPath.add(new File(location.toURI()).getPath());
+        } catch (URISyntaxException e) {
+          throw new CompilationException("invalid class path location " + location, e);
+        }
+      }
+    }
+    classPath.add(System.getProperty("java.class.path"));
+    StringBuilder result = new StringBuilder();
+    for (String entry : classPath) {
+      if (result.length() > 0) {
+        result.append(File.pathSeparator);
+      }
+      result.append(entry);
+    }
+    return result.toString();
+  }
+}
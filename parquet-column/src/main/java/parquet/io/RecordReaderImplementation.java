@@ -26,6 +26,7 @@ import java.util.Map;
 import parquet.Log;
 import parquet.column.ColumnReader;
 import parquet.column.impl.ColumnReadStoreImpl;
+import parquet.column.page.PageReadStore;
 import parquet.io.api.Converter;
 import parquet.io.api.GroupConverter;
 import parquet.io.api.PrimitiveConverter;
@@ -176,7 +177,7 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
     public final int maxDefinitionLevel;
     public final int maxRepetitionLevel;
     public final PrimitiveTypeName primitive;
-    public final ColumnReader column;
+    public final ColumnReader column; // reader of the first row group, see getColumnReader(State)
     public final String[] fieldPath; // indexed by currentLevel
     public final int[] indexFieldPath; // indexed by currentLevel
     public final GroupConverter[] groupConverterPath;
@@ -228,6 +229,7 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
     }
   }
 
+  private final MessageColumnIO root;
   private final GroupConverter recordRootConverter;
   private final RecordMaterializer<T> recordMaterializer;
 
@@ -241,6 +243,7 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
    * @param columnStore where to read the column data from
    */
   public RecordReaderImplementation(MessageColumnIO root, RecordMaterializer<T> recordMaterializer, boolean validating, ColumnReadStoreImpl columnStore) {
+    this.root = root;
     this.recordMaterializer = recordMaterializer;
     this.recordRootConverter = recordMaterializer.getRootConverter(); // TODO: validator(wrap(recordMaterializer), validating, root.getType());
     PrimitiveColumnIO[] leaves = root.getLeaves().toArray(new PrimitiveColumnIO[root.getLeaves().size()]);
@@ -365,6 +368,17 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
     }
   }
 
+  /**
+   * Reads from the pages of another row group, reusing the state machine built from the schema.
+   * @param pages the pages to read from
+   */
+  void setPages(PageReadStore pages) {
+    ColumnReadStoreImpl columnStore = new ColumnReadStoreImpl(pages, recordRootConverter, root.getType());
+    for (State state : states) {
+      columnReaders[state.id] = columnStore.getColumnReader(state.primitiveColumnIO.getColumnDescriptor());
+    }
+  }
+
   //TODO: have those wrappers for a converter
   private RecordConsumer validator(RecordConsumer recordConsumer, boolean validating, MessageType schema) {
     return validating ? new ValidatingRecordConsumer(recordConsumer, schema) : recordConsumer;
@@ -386,7 +400,7 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
     recordRootConverter.start();
     State currentState = states[0];
     do {
-      ColumnReader columnReader = currentState.column;
+      ColumnReader columnReader = columnReaders[currentState.id];
       int d = columnReader.getCurrentDefinitionLevel();
       // creating needed nested groups until the current field (opening tags)
       int depth = currentState.definitionLevelToDepth[d];
@@ -443,6 +457,10 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
     return states[i];
   }
 
+  protected MessageColumnIO getRoot() {
+    return root;
+  }
+
   protected RecordMaterializer<T> getMaterializer() {
     return recordMaterializer;
   }
@@ -451,6 +469,21 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
     return recordRootConverter;
   }
 
+  /**
+   * @param state a state of the record assembly
+   * @return the reader of the column of this state in the current row group
+   */
+  protected ColumnReader getColumnReader(State state) {
+    return columnReaders[state.id];
+  }
+
+  /**
+   * @return the column readers indexed by state id, updated in place when moving to another row group
+   */
+  ColumnReader[] getColumnReaderArray() {
+    return columnReaders;
+  }
+
   protected Iterable<ColumnReader> getColumnReaders() {
     // Converting the array to an iterable ensures that the array cannot be altered
     return Arrays.asList(columnReaders);
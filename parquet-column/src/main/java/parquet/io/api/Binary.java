@@ -20,6 +20,7 @@ import static parquet.bytes.BytesUtils.UTF8;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
@@ -27,7 +28,7 @@ import java.util.Arrays;
 import parquet.bytes.BytesUtils;
 import parquet.io.ParquetEncodingException;
 
-abstract public class Binary {
+abstract public class Binary implements Comparable<Binary>, Serializable {
 
   public static final Binary EMPTY = fromByteArray(new byte[0]);
 
@@ -348,4 +349,29 @@ abstract public class Binary {
   public String toString() {
     return "Binary{" + length() + " bytes, " + Arrays.toString(getBytes()) + "}";
   };
+
+  /**
+   * all the implementations are serialized as a plain byte array
+   * @return the serialized form of this binary
+   */
+  protected Object writeReplace() {
+    return new SerializedBinary(getBytes());
+  }
+
+  /**
+   * serialized form of a Binary
+   */
+  private static final class SerializedBinary implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] bytes;
+
+    private SerializedBinary(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    private Object readResolve() {
+      return Binary.fromByteArray(bytes);
+    }
+  }
 }
@@ -20,6 +20,8 @@ import static org.junit.Assert.assertEquals;
 import org.junit.Test;
 
 import parquet.Log;
+import parquet.column.ColumnBatch;
+import parquet.column.ColumnBatchReader;
 import parquet.column.ColumnDescriptor;
 import parquet.column.ColumnReader;
 import parquet.column.ColumnWriter;
@@ -156,6 +158,68 @@ public class TestMemColumn {
     }
   }
 
+  @Test
+  public void testColumnBatchReader() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { repeated group foo { repeated int64 bar; } }");
+    ColumnDescriptor path = mt.getColumnDescription(new String[]{"foo", "bar"});
+    MemPageStore memPageStore = new MemPageStore(10);
+    ColumnWriteStoreImpl memColumnsStore = newColumnWriteStoreImpl(memPageStore);
+
+    ColumnWriter columnWriter = memColumnsStore.getColumnWriter(path);
+    int[] rs = { 0, 0, 0, 1, 1, 1, 2, 2, 2};
+    int[] ds = { 0, 1, 2, 0, 1, 2, 0, 1, 2};
+    for (int i = 0; i < 837; i++) {
+      int d = ds[i % ds.length];
+      if (d == 2) {
+        columnWriter.write((long)i, rs[i % rs.length], d);
+      } else {
+        columnWriter.writeNull(rs[i % rs.length], d);
+      }
+    }
+    columnWriter.flush();
+
+    ColumnBatchReader batchReader = ColumnReadStoreImpl.getColumnBatchReader(memPageStore, path);
+    // batches smaller than the pages and across page boundaries
+    ColumnBatch batch = new ColumnBatch(path, 100);
+    int i = 0;
+    while (batchReader.readBatch(batch) > 0) {
+      for (int j = 0; j < batch.size(); j++, i++) {
+        int d = ds[i % ds.length];
+        assertEquals("r row " + i, rs[i % rs.length], batch.getRepetitionLevels()[j]);
+        assertEquals("d row " + i, d, batch.getDefinitionLevels()[j]);
+        if (d == 2) {
+          assertEquals("data row " + i, (long)i, batch.getLongs()[j]);
+        }
+      }
+    }
+    assertEquals(837, i);
+    assertEquals(0, batch.size());
+  }
+
+  @Test
+  public void testColumnBatchReaderDictionary() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { required binary bar; }");
+    ColumnDescriptor path = mt.getColumnDescription(new String[]{"bar"});
+    MemPageStore memPageStore = new MemPageStore(10);
+    ColumnWriteStoreImpl memColumnsStore = new ColumnWriteStoreImpl(memPageStore, 2048, 2048, 2048, true, WriterVersion.PARQUET_1_0);
+
+    ColumnWriter columnWriter = memColumnsStore.getColumnWriter(path);
+    for (int i = 0; i < 5000; i++) {
+      columnWriter.write(Binary.fromString("value" + (i % 10)), 0, 0);
+    }
+    columnWriter.flush();
+
+    ColumnBatchReader batchReader = ColumnReadStoreImpl.getColumnBatchReader(memPageStore, path);
+    ColumnBatch batch = new ColumnBatch(path, 1024);
+    int i = 0;
+    while (batchReader.readBatch(batch) > 0) {
+      for (int j = 0; j < batch.size(); j++, i++) {
+        assertEquals("value" + (i % 10), batch.getBinaries()[j].toStringUsingUTF8());
+      }
+    }
+    assertEquals(5000, i);
+  }
+
   private ColumnWriteStoreImpl newColumnWriteStoreImpl(MemPageStore memPageStore) {
     return new ColumnWriteStoreImpl(memPageStore, 2048, 2048, 2048, false, WriterVersion.PARQUET_1_0);
   }
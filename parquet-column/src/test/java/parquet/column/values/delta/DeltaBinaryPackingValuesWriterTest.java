@@ -17,6 +17,7 @@ package parquet.column.values.delta;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.util.Random;
@@ -194,6 +195,29 @@ public class DeltaBinaryPackingValuesWriterTest {
     }
   }
 
+  @Test
+  public void shouldReadInBulk() throws IOException {
+    int[] data = new int[5 * blockSize + 1];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = i * 32;
+    }
+    writeData(data);
+    reader = new DeltaBinaryPackingValuesReader();
+    reader.initFromPage(100, writer.getBytes().toByteArray(), 0);
+    int[] values = new int[data.length];
+    values[0] = reader.readInteger();
+    reader.readIntegers(values, 1, data.length - 1);
+    for (int i = 0; i < data.length; i++) {
+      assertEquals(data[i], values[i]);
+    }
+    try {
+      reader.readIntegers(values, 0, 1);
+      fail("read past the values of the page");
+    } catch (ParquetDecodingException e) {
+      // expected
+    }
+  }
+
   @Test
   public void shouldReset() throws IOException {
     shouldReadWriteWhenDataIsNotAlignedWithBlock();
@@ -135,6 +135,35 @@ public class TestDictionary {
     checkRepeated(COUNT, bytes3, cr, "a");
   }
 
+  @Test
+  public void testResetDictionary() throws IOException {
+    int COUNT = 100;
+    ValuesWriter cw = new PlainBinaryDictionaryValuesWriter(200, 10000);
+    BytesInput expectedBytes = null;
+    BytesInput expectedDictionary = null;
+    // the writer is reused for the column chunks of several row groups
+    for (int chunk = 0; chunk < 5; chunk++) {
+      writeRepeated(COUNT, cw, "a");
+      BytesInput bytes = getBytesAndCheckEncoding(cw, PLAIN_DICTIONARY);
+      BytesInput dictionary = BytesInput.copy(cw.createDictionaryPage().getBytes());
+      if (expectedBytes == null) {
+        expectedBytes = bytes;
+        expectedDictionary = dictionary;
+      } else {
+        Assert.assertArrayEquals(expectedBytes.toByteArray(), bytes.toByteArray());
+        Assert.assertArrayEquals(expectedDictionary.toByteArray(), dictionary.toByteArray());
+      }
+      cw.resetDictionary();
+    }
+
+    // a chunk falling back on its first page does not affect the next one
+    writeDistinct(1000, cw, "b");
+    getBytesAndCheckEncoding(cw, PLAIN);
+    cw.resetDictionary();
+    writeRepeated(COUNT, cw, "a");
+    getBytesAndCheckEncoding(cw, PLAIN_DICTIONARY);
+  }
+
   @Test
   public void testLongDictionary() throws IOException {
 
@@ -168,6 +197,32 @@ public class TestDictionary {
     }
   }
   
+  @Test
+  public void testBulkRead() throws IOException {
+    final DictionaryValuesWriter cw = new PlainLongDictionaryValuesWriter(10000, 10000);
+    for (long i = 0; i < 1000; i++) {
+      cw.writeLong(i % 50);
+    }
+    BytesInput bytes = getBytesAndCheckEncoding(cw, PLAIN_DICTIONARY);
+    DictionaryValuesReader cr = initDicReader(cw, PrimitiveTypeName.INT64);
+
+    cr.initFromPage(1000, bytes.toByteArray(), 0);
+    long[] values = new long[1000];
+    values[0] = cr.readLong();
+    cr.readLongs(values, 1, 999);
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i % 50, values[i]);
+    }
+
+    cr.initFromPage(1000, bytes.toByteArray(), 0);
+    int[] ids = new int[1000];
+    cr.readValueDictionaryIds(ids, 0, 1000);
+    for (int i = 0; i < 1000; i++) {
+      // the values were added to the dictionary in order
+      assertEquals(i % 50, ids[i]);
+    }
+  }
+
   private void roundTripLong(DictionaryValuesWriter cw,  ValuesReader reader, int maxDictionaryByteSize) throws IOException {
     int fallBackThreshold = maxDictionaryByteSize / 8;
     for (long i = 0; i < 100; i++) {
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.column.values.plain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import parquet.column.values.ValuesReader;
+import parquet.column.values.ValuesWriter;
+import parquet.io.ParquetDecodingException;
+
+public class TestPlainValuesReader {
+
+  @Test
+  public void testBulkRead() throws IOException {
+    ValuesWriter writer = new PlainValuesWriter(1024);
+    for (int i = 0; i < 100; i++) {
+      writer.writeInteger(i - 50);
+    }
+    for (int i = 0; i < 100; i++) {
+      writer.writeLong(Long.MAX_VALUE - i);
+    }
+    for (int i = 0; i < 100; i++) {
+      writer.writeFloat(i / 3f);
+    }
+    for (int i = 0; i < 100; i++) {
+      writer.writeDouble(-i / 7d);
+    }
+    byte[] page = writer.getBytes().toByteArray();
+
+    ValuesReader reader = new PlainValuesReader.IntegerPlainValuesReader();
+    reader.initFromPage(100, page, 0);
+    int[] integers = new int[100];
+    integers[0] = reader.readInteger();
+    reader.readIntegers(integers, 1, 99);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i - 50, integers[i]);
+    }
+
+    reader = new PlainValuesReader.LongPlainValuesReader();
+    reader.initFromPage(100, page, 400);
+    long[] longs = new long[100];
+    reader.readLongs(longs, 0, 50);
+    longs[50] = reader.readLong();
+    reader.readLongs(longs, 51, 49);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(Long.MAX_VALUE - i, longs[i]);
+    }
+
+    reader = new PlainValuesReader.FloatPlainValuesReader();
+    reader.initFromPage(100, page, 1200);
+    float[] floats = new float[100];
+    reader.readFloats(floats, 0, 100);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i / 3f, floats[i], 0);
+    }
+
+    reader = new PlainValuesReader.DoublePlainValuesReader();
+    reader.initFromPage(100, page, 1600);
+    double[] doubles = new double[100];
+    reader.readDoubles(doubles, 0, 100);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(-i / 7d, doubles[i], 0);
+    }
+    try {
+      reader.readDoubles(doubles, 0, 1);
+      fail("read past the end of the page");
+    } catch (ParquetDecodingException e) {
+      // expected
+    }
+  }
+}
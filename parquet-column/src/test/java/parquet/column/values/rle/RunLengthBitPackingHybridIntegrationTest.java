@@ -93,5 +93,23 @@ public class RunLengthBitPackingHybridIntegrationTest {
     for (int i = 0; i < 1000; i++) {
       assertEquals(17 % modValue, decoder.readInt());
     }
+
+    // bulk reads across runs, starting in the middle of one
+    decoder = new RunLengthBitPackingHybridDecoder(bitWidth, new ByteArrayInputStream(encodedBytes));
+    assertEquals(0, decoder.readInt());
+    int[] values = new int[numValues];
+    decoder.readInts(values, 1, numValues - 1);
+    for (int i = 1; i < 100; i++) {
+      assertEquals(i % modValue, values[i]);
+    }
+    for (int i = 100; i < 200; i++) {
+      assertEquals(77 % modValue, values[i]);
+    }
+    for (int i = 300; i < 3300; i++) {
+      assertEquals((i - 300) / 3 % modValue, values[i]);
+    }
+    for (int i = 3300; i < numValues; i++) {
+      assertEquals(17 % modValue, values[i]);
+    }
   }
 }
@@ -16,6 +16,7 @@
 package parquet.io;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static parquet.example.Paper.pr1;
 import static parquet.example.Paper.pr2;
@@ -513,6 +514,39 @@ public class TestColumnIO {
 
   }
 
+  @Test
+  public void testCompiledRecordReader() {
+    MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(schema);
+    MemPageStore memPageStore = new MemPageStore(2);
+    ColumnWriteStoreImpl columns = newColumnWriteStore(memPageStore);
+    GroupWriter groupWriter = new GroupWriter(columnIO.getRecordWriter(columns), schema);
+    groupWriter.write(r1);
+    groupWriter.write(r2);
+    columns.flush();
+
+    RecordReader<Group> recordReader = new RecordReaderCompiler().compile(getRecordReader(columnIO, schema, memPageStore));
+    assertTrue(recordReader instanceof BaseRecordReader);
+    assertEquals(r1.toString(), recordReader.read().toString());
+    assertEquals(r2.toString(), recordReader.read().toString());
+
+    MessageColumnIO columnIO2 = new ColumnIOFactory().getColumnIO(schema2);
+    RecordReader<Group> projectedRecordReader = new RecordReaderCompiler().compile(getRecordReader(columnIO2, schema2, memPageStore));
+    assertEquals(pr1.toString(), projectedRecordReader.read().toString());
+    assertEquals(pr2.toString(), projectedRecordReader.read().toString());
+
+    // the compiled reader moves to the next row group like the generic one
+    MemPageStore memPageStore2 = new MemPageStore(1);
+    ColumnWriteStoreImpl columns2 = newColumnWriteStore(memPageStore2);
+    new GroupWriter(columnIO.getRecordWriter(columns2), schema).write(r2);
+    columns2.flush();
+    assertEquals(r2.toString(), columnIO.getRecordReader(memPageStore2, recordReader).read().toString());
+
+    // same events as the generic record assembly
+    RecordReader<Void> validatingRecordReader = new RecordReaderCompiler().compile(
+        columnIO.getRecordReader(memPageStore, new ExpectationValidatingConverter(expectedEventsForR1, schema)));
+    validatingRecordReader.read();
+  }
+
   private ColumnWriteStoreImpl newColumnWriteStore(MemPageStore memPageStore) {
     return new ColumnWriteStoreImpl(memPageStore, 800, 800, 800, useDictionary, WriterVersion.PARQUET_1_0);
   }
@@ -16,6 +16,8 @@
 package parquet.io;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static parquet.example.Paper.r1;
 import static parquet.example.Paper.r2;
 import static parquet.example.Paper.schema;
@@ -27,21 +29,44 @@ import static parquet.filter.ColumnRecordFilter.column;
 import static parquet.filter.NotRecordFilter.not;
 import static parquet.filter.OrRecordFilter.or;
 import static parquet.filter.PagedRecordFilter.page;
-
+import static parquet.filter2.predicate.FilterApi.gt;
+import static parquet.filter2.predicate.FilterApi.in;
+import static parquet.filter2.predicate.FilterApi.isNull;
+import static parquet.filter2.predicate.FilterApi.longColumn;
+import static parquet.filter2.predicate.FilterApi.lt;
+import static parquet.filter2.predicate.FilterApi.notEq;
+import static parquet.filter2.recordlevel.FilterPredicateRecordFilter.filter;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
 
+import parquet.bytes.BytesInput;
+import parquet.column.ColumnDescriptor;
+import parquet.column.ColumnReader;
 import parquet.column.ParquetProperties.WriterVersion;
+import parquet.column.impl.ColumnReadStoreImpl;
 import parquet.column.impl.ColumnWriteStoreImpl;
+import parquet.column.page.DictionaryPage;
+import parquet.column.page.Page;
+import parquet.column.page.PageReadStore;
+import parquet.column.page.PageReader;
 import parquet.column.page.mem.MemPageStore;
 import parquet.example.data.Group;
 import parquet.example.data.GroupWriter;
+import parquet.example.data.simple.SimpleGroupFactory;
 import parquet.example.data.simple.convert.GroupRecordConverter;
+import parquet.filter.ColumnPredicates;
 import parquet.filter.ColumnPredicates.LongPredicateFunction;
 import parquet.filter.ColumnPredicates.PredicateFunction;
+import parquet.filter2.predicate.FilterApi;
+import parquet.filter2.predicate.Operators.LongColumn;
 import parquet.io.api.RecordMaterializer;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
 
 public class TestFiltered {
 
@@ -252,9 +277,247 @@ public class TestFiltered {
     }
   }
 
+  @Test
+  public void testFilterPredicate() {
+    MessageColumnIO columnIO =  new ColumnIOFactory(true).getColumnIO(schema);
+    MemPageStore memPageStore = writeTestRecords(columnIO, 1);
+    RecordMaterializer<Group> recordConverter = new GroupRecordConverter(schema);
+    LongColumn docId = longColumn("DocId");
+
+    RecordReaderImplementation<Group> recordReader = (RecordReaderImplementation<Group>)
+        columnIO.getRecordReader(memPageStore, recordConverter, filter(FilterApi.eq(docId, 10l)));
+    readOne(recordReader, "r2 filtered out", r1);
+
+    recordReader = (RecordReaderImplementation<Group>)
+        columnIO.getRecordReader(memPageStore, recordConverter, filter(gt(docId, 10l)));
+    readOne(recordReader, "r1 filtered out", r2);
+
+    recordReader = (RecordReaderImplementation<Group>)
+        columnIO.getRecordReader(memPageStore, recordConverter, filter(FilterApi.not(notEq(docId, 20l))));
+    readOne(recordReader, "r1 filtered out", r2);
+
+    recordReader = (RecordReaderImplementation<Group>)
+        columnIO.getRecordReader(memPageStore, recordConverter, filter(in(docId, 20l, 30l)));
+    readOne(recordReader, "r1 filtered out", r2);
+
+    recordReader = (RecordReaderImplementation<Group>)
+        columnIO.getRecordReader(memPageStore, recordConverter, filter(isNull(docId)));
+    List<Group> all = readAll(recordReader);
+    assertEquals("There should be no matching records: " + all , 0, all.size());
+
+    // columns that are not read are null
+    recordReader = (RecordReaderImplementation<Group>)
+        columnIO.getRecordReader(memPageStore, recordConverter,
+            filter(FilterApi.and(isNull(longColumn("foo")), FilterApi.eq(docId, 20l))));
+    readOne(recordReader, "r1 filtered out", r2);
+  }
+
+  @Test
+  public void testFilterPredicateAndPaged() {
+    MessageColumnIO columnIO =  new ColumnIOFactory(true).getColumnIO(schema);
+    MemPageStore memPageStore = writeTestRecords(columnIO, 8);
+
+    RecordMaterializer<Group> recordConverter = new GroupRecordConverter(schema);
+    RecordReaderImplementation<Group> recordReader = (RecordReaderImplementation<Group>)
+        columnIO.getRecordReader(memPageStore, recordConverter,
+            and(filter(FilterApi.eq(longColumn("DocId"), 10l)), page(2, 4)));
+
+    List<Group> all = readAll(recordReader);
+    assertEquals("expecting 4 records " + all, 4, all.size());
+    for (int i = 0; i < all.size(); i++) {
+      assertEquals("expecting record1", r1.toString(), all.get(i).toString());
+    }
+  }
+
+  @Test
+  public void testFilterPredicateSkipsPages() {
+    MessageType pagedSchema = MessageTypeParser.parseMessageType(
+        "message test { required int64 id; optional binary name; repeated int32 tags; }");
+    MessageColumnIO columnIO =  new ColumnIOFactory(true).getColumnIO(pagedSchema);
+    int count = 1000;
+    MemPageStore memPageStore = new MemPageStore(count);
+    // small pages
+    ColumnWriteStoreImpl columns = new ColumnWriteStoreImpl(memPageStore, 200, 200, 200, false, WriterVersion.PARQUET_1_0);
+    GroupWriter groupWriter = new GroupWriter(columnIO.getRecordWriter(columns), pagedSchema);
+    SimpleGroupFactory groupFactory = new SimpleGroupFactory(pagedSchema);
+    for (long i = 0; i < count; i++) {
+      Group group = groupFactory.newGroup().append("id", i);
+      if (i % 3 != 0) {
+        // larger values than the id column: many name pages for a given id page
+        group.append("name", "name " + i + " ---------------------------------------------");
+      }
+      for (int j = 0; j < i % 4; j++) {
+        group.append("tags", j);
+      }
+      groupWriter.write(group);
+    }
+    columns.flush();
+
+    CountingPageReadStore pages = new CountingPageReadStore(memPageStore);
+    RecordMaterializer<Group> recordConverter = new GroupRecordConverter(pagedSchema);
+    RecordReader<Group> recordReader = columnIO.getRecordReader(pages, recordConverter,
+        filter(FilterApi.or(in(longColumn("id"), 3l, 500l, 501l), FilterApi.and(gt(longColumn("id"), 997l), lt(longColumn("id"), 999l)))));
+    List<Group> all = readAll(recordReader);
+    assertEquals("expecting 4 records " + all, 4, all.size());
+    long[] expected = { 3, 500, 501, 998 };
+    for (int i = 0; i < expected.length; i++) {
+      Group group = all.get(i);
+      assertEquals(String.valueOf(expected[i]), group.getValueToString(0, 0));
+      assertEquals(expected[i] % 3 == 0 ? 0 : 1, group.getFieldRepetitionCount("name"));
+      assertEquals(expected[i] % 4, group.getFieldRepetitionCount("tags"));
+    }
+    assertTrue("pages of the name column should have been skipped: " + pages.decodedPages + " out of " + pages.pages,
+        pages.decodedPages < pages.pages / 2);
+
+    // same result without page skipping
+    recordReader = columnIO.getRecordReader(memPageStore, recordConverter,
+        column("id", applyFunctionToLong(new LongPredicateFunction() {
+          @Override
+          public boolean functionToApply(long input) {
+            return input == 3 || input == 500 || input == 501 || input == 998;
+          }
+        })));
+    assertEquals(all.toString(), readAll(recordReader).toString());
+  }
+
+  /**
+   * counts the pages of the name column which bytes are read
+   */
+  private static final class CountingPageReadStore implements PageReadStore {
+    private final PageReadStore delegate;
+    int pages = 0;
+    int decodedPages = 0;
+
+    CountingPageReadStore(PageReadStore delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public PageReader getPageReader(final ColumnDescriptor descriptor) {
+      final PageReader pageReader = delegate.getPageReader(descriptor);
+      if (!descriptor.getPath()[0].equals("name")) {
+        return pageReader;
+      }
+      return new PageReader() {
+        @Override
+        public DictionaryPage readDictionaryPage() {
+          return pageReader.readDictionaryPage();
+        }
+
+        @Override
+        public long getTotalValueCount() {
+          return pageReader.getTotalValueCount();
+        }
+
+        @Override
+        public Page readPage() {
+          final Page page = pageReader.readPage();
+          ++ pages;
+          BytesInput bytes = new BytesInput() {
+            @Override
+            public void writeAllTo(OutputStream out) throws IOException {
+              ++ decodedPages;
+              page.getBytes().writeAllTo(out);
+            }
+
+            @Override
+            public long size() {
+              return page.getBytes().size();
+            }
+          };
+          return new Page(bytes, page.getValueCount(), page.getUncompressedSize(), page.getStatistics(),
+              page.getRlEncoding(), page.getDlEncoding(), page.getValueEncoding());
+        }
+      };
+    }
+
+    @Override
+    public long getRowCount() {
+      return delegate.getRowCount();
+    }
+  }
+
+  @Test
+  public void testFilterOnDictionaryEncodedColumn() {
+    MessageColumnIO columnIO =  new ColumnIOFactory(true).getColumnIO(schema);
+    MemPageStore memPageStore = writeTestRecords(columnIO, 100, true);
+    RecordMaterializer<Group> recordConverter = new GroupRecordConverter(schema);
+
+    final List<String> evaluated = new ArrayList<String>();
+    RecordReader<Group> recordReader = columnIO.getRecordReader(memPageStore, recordConverter,
+        column("Name.Url", applyFunctionToString(new PredicateFunction<String>() {
+          @Override
+          public boolean functionToApply(String input) {
+            evaluated.add(input);
+            return input.endsWith("C");
+          }
+        })));
+    List<Group> all = readAll(recordReader);
+    assertEquals("expecting 100 records " + all, 100, all.size());
+    for (Group group : all) {
+      assertEquals("expecting record2", r2.toString(), group.toString());
+    }
+    // evaluated once per dictionary entry
+    assertEquals("evaluated " + evaluated, 2, evaluated.size());
+
+    recordReader = columnIO.getRecordReader(memPageStore, recordConverter,
+        and(column("Name.Url", equalTo("http://A")), column("DocId", equalTo(10l))));
+    all = readAll(recordReader);
+    assertEquals("expecting 100 records " + all, 100, all.size());
+    for (Group group : all) {
+      assertEquals("expecting record1", r1.toString(), group.toString());
+    }
+  }
+
+  @Test
+  public void testReuseRecordReaderForAnotherRowGroup() {
+    MessageColumnIO columnIO =  new ColumnIOFactory(true).getColumnIO(schema);
+    MemPageStore rowGroup1 = writeTestRecords(columnIO, 2);
+    MemPageStore rowGroup2 = writeTestRecords(columnIO, 3);
+    RecordMaterializer<Group> recordConverter = new GroupRecordConverter(schema);
+
+    RecordReader<Group> recordReader = columnIO.getRecordReader(rowGroup1, recordConverter);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(i % 2 == 0 ? r1.toString() : r2.toString(), recordReader.read().toString());
+    }
+    assertTrue(recordReader == columnIO.getRecordReader(rowGroup2, recordReader));
+    for (int i = 0; i < 6; i++) {
+      assertEquals(i % 2 == 0 ? r1.toString() : r2.toString(), recordReader.read().toString());
+    }
+
+    recordReader = columnIO.getRecordReader(rowGroup1, recordConverter, column("DocId", equalTo(20l)));
+    assertEquals(2, readAll(recordReader).size());
+    recordReader = columnIO.getRecordReader(rowGroup2, recordReader);
+    List<Group> all = readAll(recordReader);
+    assertEquals("expecting 3 records " + all, 3, all.size());
+    for (Group group : all) {
+      assertEquals("expecting record2", r2.toString(), group.toString());
+    }
+  }
+
+  @Test
+  public void testApplyPredicateToSeveralReaders() {
+    MessageColumnIO columnIO = new ColumnIOFactory(true).getColumnIO(schema);
+    GroupRecordConverter converter = new GroupRecordConverter(schema);
+    ColumnReadStoreImpl columns = new ColumnReadStoreImpl(writeTestRecords(columnIO, 1), converter.getRootConverter(), schema);
+    // 10 and 20
+    ColumnReader first = columns.getColumnReader(schema.getColumnDescription(new String[] { "DocId" }));
+    ColumnReader second = columns.getColumnReader(schema.getColumnDescription(new String[] { "Links", "Forward" }));
+    // the predicate reads the value of the reader it is applied to
+    ColumnPredicates.Predicate predicate = equalTo(10l);
+    for (int i = 0; i < 2; i++) {
+      assertTrue(predicate.apply(first));
+      assertFalse(predicate.apply(second));
+    }
+  }
+
   private MemPageStore writeTestRecords(MessageColumnIO columnIO, int number) {
+    return writeTestRecords(columnIO, number, false);
+  }
+
+  private MemPageStore writeTestRecords(MessageColumnIO columnIO, int number, boolean enableDictionary) {
     MemPageStore memPageStore = new MemPageStore(number * 2);
-    ColumnWriteStoreImpl columns = new ColumnWriteStoreImpl(memPageStore, 800, 800, 800, false, WriterVersion.PARQUET_1_0);
+    ColumnWriteStoreImpl columns = new ColumnWriteStoreImpl(memPageStore, 800, 800, 800, enableDictionary, WriterVersion.PARQUET_1_0);
 
     GroupWriter groupWriter = new GroupWriter(columnIO.getRecordWriter(columns), schema);
     for ( int i = 0; i < number; i++ ) {
@@ -13,12 +13,19 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package parquet.hadoop.metadata;
+package parquet.common.schema;
 
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Iterator;
 
-public final class ColumnPath implements Iterable<String> {
+import parquet.common.internal.Canonicalizer;
+
+import static parquet.Preconditions.checkNotNull;
+
+public final class ColumnPath implements Iterable<String>, Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   private static Canonicalizer<ColumnPath> paths = new Canonicalizer<ColumnPath>() {
     protected ColumnPath toCanonical(ColumnPath value) {
@@ -30,6 +37,15 @@ public final class ColumnPath implements Iterable<String> {
     }
   };
 
+  /**
+   * @param path a dot separated path, for example "a.b.c"
+   * @return the canonical ColumnPath
+   */
+  public static ColumnPath fromDotString(String path) {
+    checkNotNull(path, "path");
+    return get(path.split("\\."));
+  }
+
   public static ColumnPath get(String... path){
     return paths.canonicalize(new ColumnPath(path));
   }
@@ -53,6 +69,20 @@ public final class ColumnPath implements Iterable<String> {
     return Arrays.hashCode(p);
   }
 
+  /**
+   * @return the path as a dot separated string, for example "a.b.c"
+   */
+  public String toDotString() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < p.length; i++) {
+      if (i > 0) {
+        sb.append('.');
+      }
+      sb.append(p[i]);
+    }
+    return sb.toString();
+  }
+
   @Override
   public String toString() {
     return Arrays.toString(p);
@@ -70,4 +100,12 @@ public final class ColumnPath implements Iterable<String> {
   public String[] toArray() {
     return p;
   }
+
+  /**
+   * deserialized paths are canonicalized like the ones created through get()
+   * @return the canonical path
+   */
+  private Object readResolve() {
+    return paths.canonicalize(this);
+  }
 }
@@ -0,0 +1,42 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.bytes;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Allocates the slabs used by a {@link CapacityByteArrayOutputStream}
+ *
+ * Slabs that are no longer used are handed back through {@link #release(ByteBuffer)}
+ * so that allocators holding memory outside of the heap can free it right away
+ * instead of waiting for the garbage collector.
+ *
+ */
+public interface ByteBufferAllocator {
+
+  /**
+   * @param size the capacity of the buffer
+   * @return a new buffer of the requested capacity positioned at 0
+   */
+  ByteBuffer allocate(int size);
+
+  /**
+   * the buffer must not be used after it has been released
+   * @param buffer a buffer returned by {@link #allocate(int)}
+   */
+  void release(ByteBuffer buffer);
+
+}
@@ -20,6 +20,8 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.Arrays;
 import java.util.List;
 
@@ -84,6 +86,15 @@ abstract public class BytesInput {
     return new ByteArrayBytesInput(in, offset, length);
   }
 
+  /**
+   * @param buffer the bytes between the position and the limit of the buffer (not modified)
+   * @return a BytesInput referring to the buffer, which can be direct or memory mapped
+   */
+  public static BytesInput from(ByteBuffer buffer) {
+    if (DEBUG) LOG.debug("BytesInput from buffer of " + buffer.remaining() + " bytes");
+    return new ByteBufferBytesInput(buffer.slice());
+  }
+
   /**
    * @param intValue the int to write
    * @return a BytesInput that will write 4 bytes in little endian
@@ -161,6 +172,15 @@ abstract public class BytesInput {
     return baos.getBuf();
   }
 
+  /**
+   *
+   * @return a buffer with the contents of this input, not copied if they are already in memory
+   * @throws IOException
+   */
+  public ByteBuffer toByteBuffer() throws IOException {
+    return ByteBuffer.wrap(toByteArray());
+  }
+
   /**
    *
    * @return the size in bytes that would be written
@@ -335,6 +355,38 @@ abstract public class BytesInput {
 
   }
 
+  private static class ByteBufferBytesInput extends BytesInput {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferBytesInput(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void writeAllTo(OutputStream out) throws IOException {
+      Channels.newChannel(out).write(buffer.duplicate());
+    }
+
+    @Override
+    public byte[] toByteArray() throws IOException {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.duplicate().get(bytes);
+      return bytes;
+    }
+
+    @Override
+    public ByteBuffer toByteBuffer() throws IOException {
+      return buffer.duplicate();
+    }
+
+    @Override
+    public long size() {
+      return buffer.remaining();
+    }
+
+  }
+
   private static class ByteArrayBytesInput extends BytesInput {
 
     private final byte[] in;
@@ -352,6 +404,11 @@ abstract public class BytesInput {
       out.write(in, offset, length);
     }
 
+    @Override
+    public ByteBuffer toByteBuffer() throws IOException {
+      return ByteBuffer.wrap(in, offset, length);
+    }
+
     @Override
     public long size() {
       return length;
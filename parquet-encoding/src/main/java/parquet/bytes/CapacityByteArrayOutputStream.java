@@ -18,6 +18,9 @@ package parquet.bytes;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -32,6 +35,9 @@ import parquet.Preconditions;
  *
  * When reusing a buffer it will adjust the slab size based on the previous data size ({@link CapacityByteArrayOutputStream#reset()})
  *
+ * The slabs are obtained from a {@link ByteBufferAllocator} (on the heap by default)
+ * and handed back to it when they are dropped by {@link #reset()} or when the stream is closed.
+ *
  * @author Julien Le Dem
  *
  */
@@ -41,46 +47,69 @@ public class CapacityByteArrayOutputStream extends OutputStream {
   private static final int MINIMUM_SLAB_SIZE = 64 * 1024;
   private static final int EXPONENTIAL_SLAB_SIZE_THRESHOLD = 10;
 
+  private final ByteBufferAllocator allocator;
   private int slabSize;
-  private List<byte[]> slabs = new ArrayList<byte[]>();
-  private byte[] currentSlab;
+  private List<ByteBuffer> slabs = new ArrayList<ByteBuffer>();
+  private ByteBuffer currentSlab;
   private int capacity;
   private int currentSlabIndex;
-  private int currentSlabPosition;
   private int size;
 
   /**
    * @param initialSize the initialSize of the buffer (also slab size)
    */
   public CapacityByteArrayOutputStream(int initialSize) {
+    this(initialSize, new HeapByteBufferAllocator());
+  }
+
+  /**
+   * @param initialSize the initialSize of the buffer (also slab size)
+   * @param allocator to allocate and release the slabs
+   */
+  public CapacityByteArrayOutputStream(int initialSize, ByteBufferAllocator allocator) {
     Preconditions.checkArgument(initialSize > 0, "initialSize must be > 0");
+    this.allocator = Preconditions.checkNotNull(allocator, "allocator");
     initSlabs(initialSize);
   }
 
   private void initSlabs(int initialSize) {
     if (Log.DEBUG) LOG.debug(String.format("initial slab of size %d", initialSize));
+    releaseSlabs(0);
     this.slabSize = initialSize;
-    this.slabs.clear();
     this.capacity = initialSize;
-    this.currentSlab = new byte[slabSize];
+    this.currentSlab = allocator.allocate(slabSize);
     this.slabs.add(currentSlab);
     this.currentSlabIndex = 0;
-    this.currentSlabPosition = 0;
     this.size = 0;
   }
 
+  /**
+   * hands the slabs from index <code>from</code> back to the allocator
+   * @param from the index of the first slab to release
+   */
+  private void releaseSlabs(int from) {
+    while (slabs.size() > from) {
+      ByteBuffer slab = slabs.remove(slabs.size() - 1);
+      capacity -= slab.capacity();
+      allocator.release(slab);
+    }
+  }
+
   private void addSlab(int minimumSize) {
     this.currentSlabIndex += 1;
     if (currentSlabIndex < this.slabs.size()) {
       // reuse existing slab
       this.currentSlab = this.slabs.get(currentSlabIndex);
-      if (Log.DEBUG) LOG.debug(String.format("reusing slab of size %d", currentSlab.length));
-      if (currentSlab.length < minimumSize) {
-        if (Log.DEBUG) LOG.debug(String.format("slab size %,d too small for value of size %,d. replacing slab", currentSlab.length, minimumSize));
-        byte[] newSlab = new byte[minimumSize];
-        capacity += minimumSize - currentSlab.length;
+      if (Log.DEBUG) LOG.debug(String.format("reusing slab of size %d", currentSlab.capacity()));
+      if (currentSlab.capacity() < minimumSize) {
+        if (Log.DEBUG) LOG.debug(String.format("slab size %,d too small for value of size %,d. replacing slab", currentSlab.capacity(), minimumSize));
+        ByteBuffer newSlab = allocator.allocate(minimumSize);
+        capacity += minimumSize - currentSlab.capacity();
+        allocator.release(currentSlab);
         this.currentSlab = newSlab;
         this.slabs.set(currentSlabIndex, newSlab);
+      } else {
+        this.currentSlab.clear();
       }
     } else {
       if (currentSlabIndex > EXPONENTIAL_SLAB_SIZE_THRESHOLD) {
@@ -94,20 +123,18 @@ public class CapacityByteArrayOutputStream extends OutputStream {
         this.slabSize = minimumSize;
       }
       if (Log.DEBUG) LOG.debug(String.format("new slab of size %d", slabSize));
-      this.currentSlab = new byte[slabSize];
+      this.currentSlab = allocator.allocate(slabSize);
       this.slabs.add(currentSlab);
       this.capacity += slabSize;
     }
-    this.currentSlabPosition = 0;
   }
 
   @Override
   public void write(int b) {
-    if (currentSlabPosition == currentSlab.length) {
+    if (!currentSlab.hasRemaining()) {
       addSlab(1);
     }
-    currentSlab[currentSlabPosition] = (byte) b;
-    currentSlabPosition += 1;
+    currentSlab.put((byte) b);
     size += 1;
   }
 
@@ -117,33 +144,44 @@ public class CapacityByteArrayOutputStream extends OutputStream {
         ((off + len) - b.length > 0)) {
       throw new IndexOutOfBoundsException();
     }
-    if (currentSlabPosition + len >= currentSlab.length) {
-      final int length1 = currentSlab.length - currentSlabPosition;
-      System.arraycopy(b, off, currentSlab, currentSlabPosition, length1);
+    if (len >= currentSlab.remaining()) {
+      final int length1 = currentSlab.remaining();
+      currentSlab.put(b, off, length1);
       final int length2 = len - length1;
       addSlab(length2);
-      System.arraycopy(b, off + length1, currentSlab, currentSlabPosition, length2);
-      currentSlabPosition = length2;
+      currentSlab.put(b, off + length1, length2);
     } else {
-      System.arraycopy(b, off, currentSlab, currentSlabPosition, len);
-      currentSlabPosition += len;
+      currentSlab.put(b, off, len);
     }
     size += len;
   }
 
   /**
    * Writes the complete contents of this buffer to the specified output stream argument. the output
-   * stream's write method <code>out.write(slab, 0, slab.length)</code>) will be called once per slab.
+   * stream's write method <code>out.write(slab, 0, slab.length)</code>) will be called once per slab
+   * held on the heap. Slabs held outside of the heap are copied to the stream through a channel.
    *
    * @param      out   the output stream to which to write the data.
    * @exception  IOException  if an I/O error occurs.
    */
   public void writeTo(OutputStream out) throws IOException {
-    for (int i = 0; i < currentSlabIndex; i++) {
-      final byte[] slab = slabs.get(i);
-      out.write(slab, 0, slab.length);
+    WritableByteChannel channel = null;
+    for (int i = 0; i <= currentSlabIndex; i++) {
+      final ByteBuffer slab = slabs.get(i);
+      final int length = i < currentSlabIndex ? slab.capacity() : currentSlab.position();
+      if (slab.hasArray()) {
+        out.write(slab.array(), slab.arrayOffset(), length);
+      } else {
+        if (channel == null) {
+          channel = Channels.newChannel(out);
+        }
+        ByteBuffer data = slab.duplicate();
+        data.clear().limit(length);
+        while (data.hasRemaining()) {
+          channel.write(data);
+        }
+      }
     }
-    out.write(currentSlab, 0, currentSlabPosition);
   }
 
   /**
@@ -168,7 +206,7 @@ public class CapacityByteArrayOutputStream extends OutputStream {
     // heuristics to adjust slab size
     if (
         // if we have only one slab, make sure it is not way too big (more than twice what we need). Except if the slab is already small
-        (currentSlabIndex == 0 && currentSlabPosition < currentSlab.length / 2 && currentSlab.length > MINIMUM_SLAB_SIZE)
+        (currentSlabIndex == 0 && currentSlab.position() < currentSlab.capacity() / 2 && currentSlab.capacity() > MINIMUM_SLAB_SIZE)
         ||
         // we want to avoid generating too many slabs.
         (currentSlabIndex > EXPONENTIAL_SLAB_SIZE_THRESHOLD)
@@ -178,15 +216,22 @@ public class CapacityByteArrayOutputStream extends OutputStream {
       if (Log.DEBUG) LOG.debug(String.format("used %d slabs, new slab size %d", currentSlabIndex + 1, slabSize));
     } else if (currentSlabIndex < slabs.size() - 1) {
       // free up the slabs that we are not using. We want to minimize overhead
-      this.slabs = new ArrayList<byte[]>(slabs.subList(0, currentSlabIndex + 1));
-      this.capacity = 0;
-      for (byte[] slab : slabs) {
-        capacity += slab.length;
-      }
+      releaseSlabs(currentSlabIndex + 1);
     }
     this.currentSlabIndex = 0;
-    this.currentSlabPosition = 0;
     this.currentSlab = slabs.get(currentSlabIndex);
+    this.currentSlab.clear();
+    this.size = 0;
+  }
+
+  /**
+   * Hands all the slabs back to the allocator. The stream must not be used afterwards.
+   */
+  @Override
+  public void close() {
+    releaseSlabs(0);
+    this.currentSlab = null;
+    this.currentSlabIndex = 0;
     this.size = 0;
   }
 
@@ -218,13 +263,13 @@ public class CapacityByteArrayOutputStream extends OutputStream {
 
     long seen = 0;
     for (int i = 0; i <=currentSlabIndex; i++) {
-      byte[] slab = slabs.get(i);
-      if (index < seen + slab.length) {
+      ByteBuffer slab = slabs.get(i);
+      if (index < seen + slab.capacity()) {
         // ok found index
-        slab[(int)(index-seen)] = value;
+        slab.put((int)(index-seen), value);
         break;
       }
-      seen += slab.length;
+      seen += slab.capacity();
     }
   }
 
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.bytes;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+import parquet.Log;
+
+/**
+ * Allocates slabs outside of the heap.
+ *
+ * Released slabs are freed immediately through the cleaner of the buffer when the JVM exposes it.
+ * Otherwise their memory is reclaimed once the garbage collector collects them.
+ *
+ */
+public class DirectByteBufferAllocator implements ByteBufferAllocator {
+  private static final Log LOG = Log.getLog(DirectByteBufferAllocator.class);
+
+  private static final Method CLEANER;
+  private static final Method CLEAN;
+
+  static {
+    Method cleaner = null;
+    Method clean = null;
+    try {
+      cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+    } catch (Exception e) {
+      if (Log.DEBUG) LOG.debug("direct buffers can not be freed explicitly, leaving them to the garbage collector", e);
+      cleaner = null;
+      clean = null;
+    }
+    CLEANER = cleaner;
+    CLEAN = clean;
+  }
+
+  @Override
+  public ByteBuffer allocate(int size) {
+    return ByteBuffer.allocateDirect(size);
+  }
+
+  @Override
+  public void release(ByteBuffer buffer) {
+    free(buffer);
+  }
+
+  /**
+   * frees the memory of a direct or memory mapped buffer immediately when the JVM allows it.
+   * Neither the buffer nor its duplicates or slices may be used afterwards.
+   * @param buffer the buffer to free, heap buffers are ignored
+   */
+  public static void free(ByteBuffer buffer) {
+    if (CLEANER == null || !buffer.isDirect()) {
+      return;
+    }
+    try {
+      Object cleaner = CLEANER.invoke(buffer);
+      if (cleaner != null) {
+        CLEAN.invoke(cleaner);
+      }
+    } catch (Exception e) {
+      LOG.warn("could not free direct buffer, leaving it to the garbage collector", e);
+    }
+  }
+
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.bytes;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * allocates direct buffers and keeps track of the ones not released yet
+ */
+public class CountingAllocator implements ByteBufferAllocator {
+  private final DirectByteBufferAllocator direct = new DirectByteBufferAllocator();
+  private final List<ByteBuffer> allocated = new ArrayList<ByteBuffer>();
+
+  @Override
+  public synchronized ByteBuffer allocate(int size) {
+    ByteBuffer buffer = direct.allocate(size);
+    allocated.add(buffer);
+    return buffer;
+  }
+
+  @Override
+  public synchronized void release(ByteBuffer buffer) {
+    // identity, ByteBuffer.equals compares the content
+    for (int i = 0; i < allocated.size(); i++) {
+      if (allocated.get(i) == buffer) {
+        allocated.remove(i);
+        direct.release(buffer);
+        return;
+      }
+    }
+    throw new IllegalArgumentException("not allocated or already released");
+  }
+
+  /**
+   * @return the count of buffers allocated and not released yet
+   */
+  public synchronized int getOutstanding() {
+    return allocated.size();
+  }
+}
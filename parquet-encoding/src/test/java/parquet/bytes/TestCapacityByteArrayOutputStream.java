@@ -214,6 +214,32 @@ public class TestCapacityByteArrayOutputStream {
 
   }
 
+  @Test
+  public void testDirectSlabs() throws Throwable {
+    CountingAllocator allocator = new CountingAllocator();
+    CapacityByteArrayOutputStream cbaos = new CapacityByteArrayOutputStream(10, allocator);
+    int v = 23;
+    writeArraysOf3(cbaos, v);
+    cbaos.setByte(3, (byte) 3);
+    validate(cbaos, v * 3);
+    assertEquals(cbaos.getSlabCount(), allocator.getOutstanding());
+
+    // the slabs dropped by reset are released
+    for (int i = 0; i < 500 * v; i++) {
+      cbaos.write(new byte[] { 1, 2, 3 });
+    }
+    assertTrue(cbaos.getSlabCount() > 2);
+    cbaos.reset();
+    writeArraysOf3(cbaos, v);
+    validate(cbaos, v * 3);
+    assertEquals(cbaos.getSlabCount(), allocator.getOutstanding());
+
+    cbaos.close();
+    assertEquals(0, cbaos.getSlabCount());
+    assertEquals(0, cbaos.getCapacity());
+    assertEquals(0, allocator.getOutstanding());
+  }
+
   private void writeArraysOf3(CapacityByteArrayOutputStream capacityByteArrayOutputStream, int n)
       throws IOException {
     for (int i = 0; i < n; i++) {
@@ -0,0 +1,346 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter2.dictionarylevel;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import parquet.column.ColumnDescriptor;
+import parquet.column.Dictionary;
+import parquet.column.Encoding;
+import parquet.column.page.DictionaryPage;
+import parquet.column.page.DictionaryPageReadStore;
+import parquet.column.statistics.Statistics;
+import parquet.common.schema.ColumnPath;
+import parquet.filter2.predicate.FilterPredicate;
+import parquet.filter2.predicate.Operators.And;
+import parquet.filter2.predicate.Operators.Column;
+import parquet.filter2.predicate.Operators.ColumnFilterPredicate;
+import parquet.filter2.predicate.Operators.Eq;
+import parquet.filter2.predicate.Operators.Gt;
+import parquet.filter2.predicate.Operators.GtEq;
+import parquet.filter2.predicate.Operators.In;
+import parquet.filter2.predicate.Operators.IsNull;
+import parquet.filter2.predicate.Operators.Lt;
+import parquet.filter2.predicate.Operators.LtEq;
+import parquet.filter2.predicate.Operators.Not;
+import parquet.filter2.predicate.Operators.NotEq;
+import parquet.filter2.predicate.Operators.Or;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.io.ParquetDecodingException;
+import parquet.io.api.Binary;
+import parquet.schema.MessageType;
+
+import static parquet.Preconditions.checkNotNull;
+
+/**
+ * Applies a {@link FilterPredicate} to the dictionaries of the column chunks of a row group.
+ * When all the data pages of a column chunk are dictionary encoded, the dictionary contains
+ * every distinct non null value of the chunk and the row group can be dropped
+ * if none of them can satisfy the predicate.
+ * It is conservative: when in doubt (no dictionary, plain encoded pages, ...) it returns false.
+ *
+ * As in {@link parquet.filter2.statisticslevel.StatisticsFilter},
+ * an inverted visitor evaluates the negation of the visited predicate.
+ */
+public class DictionaryFilter implements FilterPredicate.Visitor<Boolean> {
+
+  /**
+   * @param predicate the filter
+   * @param schema the schema of the file
+   * @param columns the column chunks of a row group
+   * @param dictionaries the dictionary pages of the row group
+   * @return true if no record in the row group can match the predicate
+   */
+  public static boolean canDrop(FilterPredicate predicate, MessageType schema, List<ColumnChunkMetaData> columns, DictionaryPageReadStore dictionaries) {
+    checkNotNull(predicate, "predicate");
+    checkNotNull(schema, "schema");
+    checkNotNull(columns, "columns");
+    checkNotNull(dictionaries, "dictionaries");
+    return predicate.accept(new DictionaryFilter(schema, columns, dictionaries));
+  }
+
+  /**
+   * @param column the metadata of a column chunk
+   * @return true if all the data pages of the chunk are dictionary encoded
+   */
+  public static boolean hasOnlyDictionaryEncodedPages(ColumnChunkMetaData column) {
+    boolean usesDictionary = false;
+    for (Encoding encoding : column.getEncodings()) {
+      if (encoding.usesDictionary()) {
+        usesDictionary = true;
+      } else if (encoding != Encoding.RLE && encoding != Encoding.BIT_PACKED) {
+        // RLE and BIT_PACKED are used for the repetition and definition levels
+        // any other encoding means some pages fell back to a non dictionary encoding
+        return false;
+      }
+    }
+    return usesDictionary;
+  }
+
+  private final MessageType schema;
+  private final Map<ColumnPath, ColumnChunkMetaData> columns;
+  private final DictionaryPageReadStore dictionaries;
+  // shared with the inverse
+  private final Map<ColumnPath, Set<?>> dictionaryValues;
+  private final boolean inverted;
+  private DictionaryFilter inverse;
+
+  private DictionaryFilter(MessageType schema, List<ColumnChunkMetaData> columnsList, DictionaryPageReadStore dictionaries) {
+    this.schema = schema;
+    this.columns = new HashMap<ColumnPath, ColumnChunkMetaData>();
+    for (ColumnChunkMetaData chunk : columnsList) {
+      columns.put(chunk.getPath(), chunk);
+    }
+    this.dictionaries = dictionaries;
+    this.dictionaryValues = new HashMap<ColumnPath, Set<?>>();
+    this.inverted = false;
+  }
+
+  private DictionaryFilter(DictionaryFilter inverse) {
+    this.schema = inverse.schema;
+    this.columns = inverse.columns;
+    this.dictionaries = inverse.dictionaries;
+    this.dictionaryValues = inverse.dictionaryValues;
+    this.inverted = !inverse.inverted;
+    this.inverse = inverse;
+  }
+
+  private DictionaryFilter inverse() {
+    if (inverse == null) {
+      inverse = new DictionaryFilter(this);
+    }
+    return inverse;
+  }
+
+  /**
+   * @return all the distinct non null values of the column or null if they are not known
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends Comparable<T>> Set<T> getDictionaryValues(Column<T> column) {
+    ColumnPath path = column.getColumnPath();
+    if (dictionaryValues.containsKey(path)) {
+      return (Set<T>) dictionaryValues.get(path);
+    }
+    Set<T> values = null;
+    ColumnChunkMetaData chunk = columns.get(path);
+    if (chunk != null && hasOnlyDictionaryEncodedPages(chunk)) {
+      ColumnDescriptor descriptor = schema.getColumnDescription(path.toArray());
+      DictionaryPage page = dictionaries.readDictionaryPage(descriptor);
+      if (page != null) {
+        values = (Set<T>) decode(descriptor, page);
+      }
+    }
+    dictionaryValues.put(path, values);
+    return values;
+  }
+
+  private static Set<?> decode(ColumnDescriptor descriptor, DictionaryPage page) {
+    Dictionary dictionary;
+    try {
+      dictionary = page.getEncoding().initDictionary(descriptor, page);
+    } catch (IOException e) {
+      throw new ParquetDecodingException("could not decode the dictionary for " + descriptor, e);
+    }
+    int size = dictionary.getMaxId() + 1;
+    switch (descriptor.getType()) {
+    case INT32: {
+      Set<Integer> values = new HashSet<Integer>(size);
+      for (int id = 0; id < size; id++) {
+        values.add(dictionary.decodeToInt(id));
+      }
+      return values;
+    }
+    case INT64: {
+      Set<Long> values = new HashSet<Long>(size);
+      for (int id = 0; id < size; id++) {
+        values.add(dictionary.decodeToLong(id));
+      }
+      return values;
+    }
+    case FLOAT: {
+      Set<Float> values = new HashSet<Float>(size);
+      for (int id = 0; id < size; id++) {
+        values.add(dictionary.decodeToFloat(id));
+      }
+      return values;
+    }
+    case DOUBLE: {
+      Set<Double> values = new HashSet<Double>(size);
+      for (int id = 0; id < size; id++) {
+        values.add(dictionary.decodeToDouble(id));
+      }
+      return values;
+    }
+    case BINARY:
+    case INT96:
+    case FIXED_LEN_BYTE_ARRAY: {
+      Set<Binary> values = new HashSet<Binary>(size);
+      for (int id = 0; id < size; id++) {
+        values.add(dictionary.decodeToBinary(id));
+      }
+      return values;
+    }
+    default:
+      throw new ParquetDecodingException("dictionary not supported for " + descriptor);
+    }
+  }
+
+  /**
+   * @return false only if the statistics prove that the column has no nulls
+   */
+  private boolean mayHaveNulls(Column<?> column) {
+    Statistics stats = columns.get(column.getColumnPath()).getStatistics();
+    return stats == null || stats.isEmpty() || stats.getNumNulls() > 0;
+  }
+
+  /**
+   * the comparison between a dictionary value and the value of the predicate
+   */
+  private static abstract class Comparison {
+    abstract boolean matches(int compareToValue);
+  }
+
+  private static final Comparison LT = new Comparison() {
+    boolean matches(int c) { return c < 0; }
+  };
+  private static final Comparison LT_EQ = new Comparison() {
+    boolean matches(int c) { return c <= 0; }
+  };
+  private static final Comparison GT = new Comparison() {
+    boolean matches(int c) { return c > 0; }
+  };
+  private static final Comparison GT_EQ = new Comparison() {
+    boolean matches(int c) { return c >= 0; }
+  };
+
+  /**
+   * @return true if the row group can be dropped for
+   * column OP value (or its negation when inverted)
+   */
+  private <T extends Comparable<T>> boolean canDrop(ColumnFilterPredicate<T> predicate, Comparison comparison) {
+    Set<T> values = getDictionaryValues(predicate.getColumn());
+    if (values == null) {
+      return false;
+    }
+    if (inverted && mayHaveNulls(predicate.getColumn())) {
+      // nulls satisfy the negation
+      return false;
+    }
+    T value = predicate.getValue();
+    for (T dictionaryValue : values) {
+      // when inverted, a value that does not match satisfies the negation
+      if (comparison.matches(dictionaryValue.compareTo(value)) != inverted) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(Eq<T> eq) {
+    return inverted ? canDropNotEq(eq) : canDropEq(eq);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(NotEq<T> notEq) {
+    return inverted ? canDropEq(notEq) : canDropNotEq(notEq);
+  }
+
+  private <T extends Comparable<T>> boolean canDropEq(ColumnFilterPredicate<T> predicate) {
+    Set<T> values = getDictionaryValues(predicate.getColumn());
+    return values != null && !values.contains(predicate.getValue());
+  }
+
+  private <T extends Comparable<T>> boolean canDropNotEq(ColumnFilterPredicate<T> predicate) {
+    Set<T> values = getDictionaryValues(predicate.getColumn());
+    return values != null
+        && !mayHaveNulls(predicate.getColumn())
+        && values.size() == 1
+        && values.contains(predicate.getValue());
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(Lt<T> lt) {
+    return canDrop(lt, LT);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(LtEq<T> ltEq) {
+    return canDrop(ltEq, LT_EQ);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(Gt<T> gt) {
+    return canDrop(gt, GT);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(GtEq<T> gtEq) {
+    return canDrop(gtEq, GT_EQ);
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(In<T> in) {
+    Set<T> values = getDictionaryValues(in.getColumn());
+    if (values == null) {
+      return false;
+    }
+    if (inverted) {
+      // keeps nulls and values not in the set
+      return !mayHaveNulls(in.getColumn()) && in.getValues().containsAll(values);
+    }
+    for (T value : in.getValues()) {
+      if (values.contains(value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(IsNull<T> isNull) {
+    // dictionaries do not contain nulls
+    return false;
+  }
+
+  @Override
+  public Boolean visit(And and) {
+    if (inverted) {
+      // not(a and b) == not(a) or not(b)
+      return and.getLeft().accept(this) && and.getRight().accept(this);
+    }
+    return and.getLeft().accept(this) || and.getRight().accept(this);
+  }
+
+  @Override
+  public Boolean visit(Or or) {
+    if (inverted) {
+      // not(a or b) == not(a) and not(b)
+      return or.getLeft().accept(this) || or.getRight().accept(this);
+    }
+    return or.getLeft().accept(this) && or.getRight().accept(this);
+  }
+
+  @Override
+  public Boolean visit(Not not) {
+    return not.getPredicate().accept(inverse());
+  }
+}
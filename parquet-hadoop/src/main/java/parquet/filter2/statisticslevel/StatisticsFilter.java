@@ -0,0 +1,90 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter2.statisticslevel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import parquet.common.schema.ColumnPath;
+import parquet.filter2.predicate.FilterPredicate;
+import parquet.filter2.predicate.Operators.Column;
+import parquet.filter2.recordlevel.FilterPredicateRecordFilter;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+
+import static parquet.Preconditions.checkNotNull;
+
+/**
+ * Applies a {@link FilterPredicate} to the statistics of the column chunks of a row group.
+ * It returns true when the statistics prove that no record of the row group can match the predicate,
+ * in which case the row group can be skipped entirely.
+ *
+ * A column missing from the row group is treated as if all its values were null.
+ *
+ * @see StatisticsEvaluator
+ */
+public class StatisticsFilter extends StatisticsEvaluator {
+
+  /**
+   * @param predicate the filter
+   * @param columns the column chunks of a row group
+   * @return true if no record in the row group can match the predicate
+   */
+  public static boolean canDrop(FilterPredicate predicate, List<ColumnChunkMetaData> columns) {
+    checkNotNull(predicate, "predicate");
+    checkNotNull(columns, "columns");
+    return predicate.accept(new StatisticsFilter(columns));
+  }
+
+  /**
+   * @param predicate the filter
+   * @param blocks the row groups
+   * @return the row groups that may contain records matching the predicate
+   */
+  public static List<BlockMetaData> filterRowGroups(FilterPredicate predicate, List<BlockMetaData> blocks) {
+    checkNotNull(predicate, "predicate");
+    Set<ColumnPath> paths = FilterPredicateRecordFilter.getColumnPaths(predicate);
+    List<BlockMetaData> filtered = new ArrayList<BlockMetaData>(blocks.size());
+    for (BlockMetaData block : blocks) {
+      if (!canDrop(predicate, block.getColumns(paths))) {
+        filtered.add(block);
+      }
+    }
+    return filtered;
+  }
+
+  private final Map<ColumnPath, ColumnChunkMetaData> columns;
+
+  private StatisticsFilter(List<ColumnChunkMetaData> columnsList) {
+    this.columns = new HashMap<ColumnPath, ColumnChunkMetaData>();
+    for (ColumnChunkMetaData chunk : columnsList) {
+      columns.put(chunk.getPath(), chunk);
+    }
+  }
+
+  @Override
+  protected <T extends Comparable<T>> ColumnStats<T> getStats(Column<T> column) {
+    ColumnChunkMetaData chunk = columns.get(column.getColumnPath());
+    if (chunk == null) {
+      // the column is not in the file
+      return ColumnStats.allNull();
+    }
+    return ColumnStats.of(chunk.getStatistics(), chunk.getValueCount());
+  }
+}
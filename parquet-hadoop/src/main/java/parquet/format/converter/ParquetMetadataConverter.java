@@ -33,6 +33,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import parquet.Log;
+import parquet.common.schema.ColumnPath;
 import parquet.format.ConvertedType;
 import parquet.format.ColumnChunk;
 import parquet.format.DataPageHeader;
@@ -49,7 +50,6 @@ import parquet.format.Statistics;
 import parquet.format.Type;
 import parquet.hadoop.metadata.BlockMetaData;
 import parquet.hadoop.metadata.ColumnChunkMetaData;
-import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.CompressionCodecName;
 import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.io.ParquetDecodingException;
@@ -341,21 +341,39 @@ public class ParquetMetadataConverter {
   }
 
   public ParquetMetadata readParquetMetadata(InputStream from) throws IOException {
+    return readParquetMetadata(from, false);
+  }
+
+  /**
+   * @param from the stream to read the footer from
+   * @param lazyColumns whether to convert the metadata of the column chunks only when requested
+   * @return the footer
+   * @throws IOException if the footer can not be read
+   */
+  public ParquetMetadata readParquetMetadata(InputStream from, boolean lazyColumns) throws IOException {
     FileMetaData fileMetaData = readFileMetaData(from);
     if (Log.DEBUG) LOG.debug(fileMetaData);
-    ParquetMetadata parquetMetadata = fromParquetMetadata(fileMetaData);
+    ParquetMetadata parquetMetadata = fromParquetMetadata(fileMetaData, lazyColumns);
     if (Log.DEBUG) LOG.debug(ParquetMetadata.toPrettyJSON(parquetMetadata));
     return parquetMetadata;
   }
 
   public ParquetMetadata fromParquetMetadata(FileMetaData parquetMetadata) throws IOException {
+    return fromParquetMetadata(parquetMetadata, false);
+  }
+
+  /**
+   * @param parquetMetadata the thrift footer
+   * @param lazyColumns whether to keep the thrift metadata of the column chunks
+   * and convert it only when requested through {@link BlockMetaData#getColumns(Set)} or {@link BlockMetaData#getColumns()}
+   * @return the footer
+   * @throws IOException
+   */
+  public ParquetMetadata fromParquetMetadata(FileMetaData parquetMetadata, boolean lazyColumns) throws IOException {
     MessageType messageType = fromParquetSchema(parquetMetadata.getSchema());
     List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
     List<RowGroup> row_groups = parquetMetadata.getRow_groups();
     for (RowGroup rowGroup : row_groups) {
-      BlockMetaData blockMetaData = new BlockMetaData();
-      blockMetaData.setRowCount(rowGroup.getNum_rows());
-      blockMetaData.setTotalByteSize(rowGroup.getTotal_byte_size());
       List<ColumnChunk> columns = rowGroup.getColumns();
       String filePath = columns.get(0).getFile_path();
       for (ColumnChunk columnChunk : columns) {
@@ -363,24 +381,18 @@ public class ParquetMetadataConverter {
             || (filePath != null && !filePath.equals(columnChunk.getFile_path()))) {
           throw new ParquetDecodingException("all column chunks of the same row group must be in the same file for now");
         }
-        parquet.format.ColumnMetaData metaData = columnChunk.meta_data;
-        ColumnPath path = getPath(metaData);
-        ColumnChunkMetaData column = ColumnChunkMetaData.get(
-            path,
-            messageType.getType(path.toArray()).asPrimitiveType().getPrimitiveTypeName(),
-            CompressionCodecName.fromParquet(metaData.codec),
-            fromFormatEncodings(metaData.encodings),
-            fromParquetStatistics(metaData.statistics, messageType.getType(path.toArray()).asPrimitiveType().getPrimitiveTypeName()),
-            metaData.data_page_offset,
-            metaData.dictionary_page_offset,
-            metaData.num_values,
-            metaData.total_compressed_size,
-            metaData.total_uncompressed_size);
-        // TODO
-        // index_page_offset
-        // key_value_metadata
-        blockMetaData.addColumn(column);
       }
+      BlockMetaData blockMetaData;
+      if (lazyColumns) {
+        blockMetaData = new LazyBlockMetaData(messageType, columns);
+      } else {
+        blockMetaData = new BlockMetaData();
+        for (ColumnChunk columnChunk : columns) {
+          blockMetaData.addColumn(fromParquetColumnChunk(messageType, columnChunk));
+        }
+      }
+      blockMetaData.setRowCount(rowGroup.getNum_rows());
+      blockMetaData.setTotalByteSize(rowGroup.getTotal_byte_size());
       blockMetaData.setPath(filePath);
       blocks.add(blockMetaData);
     }
@@ -396,6 +408,115 @@ public class ParquetMetadataConverter {
         blocks);
   }
 
+  private ColumnChunkMetaData fromParquetColumnChunk(MessageType messageType, ColumnChunk columnChunk) {
+    parquet.format.ColumnMetaData metaData = columnChunk.meta_data;
+    ColumnPath path = getPath(metaData);
+    PrimitiveTypeName type = messageType.getType(path.toArray()).asPrimitiveType().getPrimitiveTypeName();
+    // TODO
+    // index_page_offset
+    // key_value_metadata
+    return ColumnChunkMetaData.get(
+        path,
+        type,
+        CompressionCodecName.fromParquet(metaData.codec),
+        fromFormatEncodings(metaData.encodings),
+        fromParquetStatistics(metaData.statistics, type),
+        metaData.data_page_offset,
+        metaData.dictionary_page_offset,
+        metaData.num_values,
+        metaData.total_compressed_size,
+        metaData.total_uncompressed_size);
+  }
+
+  /**
+   * Keeps the thrift metadata of the column chunks and converts it when requested,
+   * so that the columns that are not read are never converted.
+   * Once all the columns have been requested through {@link #getColumns()} it behaves like a BlockMetaData.
+   */
+  private final class LazyBlockMetaData extends BlockMetaData {
+
+    private final MessageType messageType;
+    private final List<ColumnChunk> parquetColumns;
+    private final ColumnPath[] paths;
+    private final ColumnChunkMetaData[] columns;
+    private boolean allConverted;
+
+    LazyBlockMetaData(MessageType messageType, List<ColumnChunk> parquetColumns) {
+      this.messageType = messageType;
+      this.parquetColumns = parquetColumns;
+      this.paths = new ColumnPath[parquetColumns.size()];
+      this.columns = new ColumnChunkMetaData[parquetColumns.size()];
+    }
+
+    private ColumnChunkMetaData getColumn(int i) {
+      if (columns[i] == null) {
+        columns[i] = fromParquetColumnChunk(messageType, parquetColumns.get(i));
+      }
+      return columns[i];
+    }
+
+    private ColumnPath getColumnPath(int i) {
+      if (paths[i] == null) {
+        paths[i] = ParquetMetadataConverter.this.getPath(parquetColumns.get(i).meta_data);
+      }
+      return paths[i];
+    }
+
+    @Override
+    public synchronized List<ColumnChunkMetaData> getColumns() {
+      if (!allConverted) {
+        for (int i = 0; i < columns.length; i++) {
+          super.addColumn(getColumn(i));
+        }
+        allConverted = true;
+      }
+      return super.getColumns();
+    }
+
+    @Override
+    public synchronized List<ColumnChunkMetaData> getColumns(Set<ColumnPath> requested) {
+      if (allConverted) {
+        return super.getColumns(requested);
+      }
+      List<ColumnChunkMetaData> result = new ArrayList<ColumnChunkMetaData>();
+      for (int i = 0; i < columns.length; i++) {
+        if (requested.contains(getColumnPath(i))) {
+          result.add(getColumn(i));
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public synchronized void addColumn(ColumnChunkMetaData column) {
+      getColumns();
+      super.addColumn(column);
+    }
+
+    @Override
+    public synchronized long getStartingPos() {
+      return allConverted ? super.getStartingPos() : getColumn(0).getStartingPos();
+    }
+
+    @Override
+    public synchronized long getCompressedSize() {
+      if (allConverted) {
+        return super.getCompressedSize();
+      }
+      long totalSize = 0;
+      for (ColumnChunk column : parquetColumns) {
+        totalSize += column.meta_data.total_compressed_size;
+      }
+      return totalSize;
+    }
+
+    @Override
+    public String toString() {
+      getColumns();
+      return super.toString();
+    }
+  }
+
   private ColumnPath getPath(parquet.format.ColumnMetaData metaData) {
     String[] path = metaData.path_in_schema.toArray(new String[metaData.path_in_schema.size()]);
     return ColumnPath.get(path);
@@ -17,8 +17,11 @@ package parquet.hadoop;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -30,8 +33,10 @@ import org.apache.hadoop.io.compress.CompressionOutputStream;
 import org.apache.hadoop.io.compress.Compressor;
 import org.apache.hadoop.io.compress.Decompressor;
 import org.apache.hadoop.util.ReflectionUtils;
+import org.xerial.snappy.Snappy;
 
 import parquet.bytes.BytesInput;
+import parquet.hadoop.codec.SnappyCodec;
 import parquet.hadoop.metadata.CompressionCodecName;
 
 class CodecFactory {
@@ -50,16 +55,37 @@ class CodecFactory {
       }
     }
 
+    /**
+     * decompresses the bytes at once in a new array of the uncompressed size.
+     * Snappy pages are decompressed in a single call without intermediate buffers.
+     * @param bytes the compressed bytes
+     * @param uncompressedSize the size of the result
+     * @return the decompressed bytes
+     * @throws IOException
+     */
     public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
-      final BytesInput decompressed;
-      if (codec != null) {
-        decompressor.reset();
-        InputStream is = codec.createInputStream(new ByteArrayInputStream(bytes.toByteArray()), decompressor);
-        decompressed = BytesInput.from(is, uncompressedSize);
+      if (codec == null) {
+        return bytes;
+      }
+      ByteBuffer compressed = bytes.toByteBuffer();
+      if (!compressed.hasArray()) {
+        // memory mapped: the codecs read from arrays
+        compressed = ByteBuffer.wrap(bytes.toByteArray());
+      }
+      byte[] decompressed = new byte[uncompressedSize];
+      if (codec instanceof SnappyCodec) {
+        int size = Snappy.uncompress(compressed.array(), compressed.arrayOffset() + compressed.position(), compressed.remaining(), decompressed, 0);
+        if (size != uncompressedSize) {
+          throw new IOException("decompressed " + size + " bytes instead of " + uncompressedSize);
+        }
       } else {
-        decompressed = bytes;
+        decompressor.reset();
+        InputStream is = codec.createInputStream(
+            new ByteArrayInputStream(compressed.array(), compressed.arrayOffset() + compressed.position(), compressed.remaining()),
+            decompressor);
+        new DataInputStream(is).readFully(decompressed);
       }
-      return decompressed;
+      return new DecompressedBytesInput(decompressed);
     }
 
     private void release() {
@@ -69,6 +95,54 @@ class CodecFactory {
     }
   }
 
+  /**
+   * the result of a decompression.
+   * It owns its array: {@link #toByteBuffer()} wraps it without copy for the readers
+   * while {@link #toByteArray()} returns a copy that the caller may modify.
+   */
+  private static final class DecompressedBytesInput extends BytesInput {
+
+    private final byte[] bytes;
+
+    private DecompressedBytesInput(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public void writeAllTo(OutputStream out) throws IOException {
+      out.write(bytes);
+    }
+
+    @Override
+    public byte[] toByteArray() throws IOException {
+      return bytes.clone();
+    }
+
+    @Override
+    public ByteBuffer toByteBuffer() throws IOException {
+      return ByteBuffer.wrap(bytes);
+    }
+
+    @Override
+    public long size() {
+      return bytes.length;
+    }
+  }
+
+  /**
+   * a buffer reused to concatenate the pages to compress
+   */
+  private static final class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private ReusableByteArrayOutputStream(int size) {
+      super(size);
+    }
+
+    private byte[] getBuf() {
+      return buf;
+    }
+  }
+
   /**
    * Encapsulates the logic around hadoop compression
    *
@@ -81,23 +155,44 @@ class CodecFactory {
     private final Compressor compressor;
     private final ByteArrayOutputStream compressedOutBuffer;
     private final CompressionCodecName codecName;
+    private final int pageSize;
+    // Snappy: the input and output buffers reused for all the pages
+    private final ReusableByteArrayOutputStream snappyInBuffer;
+    private byte[] snappyOutBuffer;
 
     public BytesCompressor(CompressionCodecName codecName, CompressionCodec codec, int pageSize) {
       this.codecName = codecName;
       this.codec = codec;
-      if (codec != null) {
+      this.pageSize = pageSize;
+      if (codec instanceof SnappyCodec) {
+        // the pages are compressed in one call, no need for the stream machinery
+        this.compressor = null;
+        this.compressedOutBuffer = null;
+        this.snappyInBuffer = new ReusableByteArrayOutputStream(pageSize);
+        this.snappyOutBuffer = new byte[Snappy.maxCompressedLength(pageSize)];
+      } else if (codec != null) {
         this.compressor = CodecPool.getCompressor(codec);
         this.compressedOutBuffer = new ByteArrayOutputStream(pageSize);
+        this.snappyInBuffer = null;
       } else {
         this.compressor = null;
         this.compressedOutBuffer = null;
+        this.snappyInBuffer = null;
       }
     }
 
+    /**
+     * The result is only valid until the next call, it must be written or copied before.
+     * @param bytes the bytes to compress
+     * @return the compressed bytes
+     * @throws IOException
+     */
     public BytesInput compress(BytesInput bytes) throws IOException {
       final BytesInput compressedBytes;
       if (codec == null) {
         compressedBytes = bytes;
+      } else if (snappyInBuffer != null) {
+        compressedBytes = compressSnappy(bytes);
       } else {
         compressedOutBuffer.reset();
         if (compressor != null) {
@@ -113,7 +208,27 @@ class CodecFactory {
       return compressedBytes;
     }
 
-    private void release() {
+    private BytesInput compressSnappy(BytesInput bytes) throws IOException {
+      // the page is usually a concatenation (levels and values) that is gathered in the reused buffer
+      snappyInBuffer.reset();
+      bytes.writeAllTo(snappyInBuffer);
+      int maxCompressedLength = Snappy.maxCompressedLength(snappyInBuffer.size());
+      if (snappyOutBuffer.length < maxCompressedLength) {
+        snappyOutBuffer = new byte[maxCompressedLength];
+      }
+      int compressedSize = Snappy.compress(snappyInBuffer.getBuf(), 0, snappyInBuffer.size(), snappyOutBuffer, 0);
+      return BytesInput.from(snappyOutBuffer, 0, compressedSize);
+    }
+
+    /**
+     * a compressor is not thread safe, each thread compressing in parallel uses its own
+     * @return a new compressor for the same codec, to be released when not used anymore
+     */
+    BytesCompressor newCompressor() {
+      return new BytesCompressor(codecName, codec, pageSize);
+    }
+
+    void release() {
       if (compressor != null) {
         CodecPool.returnCompressor(compressor);
       }
@@ -16,18 +16,22 @@
 package parquet.hadoop;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
 import parquet.Log;
+import parquet.bytes.BytesInput;
 import parquet.column.ColumnDescriptor;
 import parquet.column.page.DictionaryPage;
+import parquet.column.page.DictionaryPageReadStore;
 import parquet.column.page.Page;
 import parquet.column.page.PageReadStore;
 import parquet.column.page.PageReader;
 import parquet.hadoop.CodecFactory.BytesDecompressor;
+import parquet.hadoop.util.ByteArrayPool;
 
 /**
  * TODO: should this actually be called RowGroupImpl or something?
@@ -35,7 +39,7 @@ import parquet.hadoop.CodecFactory.BytesDecompressor;
  * in our format: columns, chunks, and pages
  *
  */
-class ColumnChunkPageReadStore implements PageReadStore {
+class ColumnChunkPageReadStore implements PageReadStore, DictionaryPageReadStore {
   private static final Log LOG = Log.getLog(ColumnChunkPageReadStore.class);
 
   /**
@@ -51,6 +55,8 @@ class ColumnChunkPageReadStore implements PageReadStore {
     private final long valueCount;
     private final List<Page> compressedPages;
     private final DictionaryPage compressedDictionaryPage;
+    // set when the pages are in buffers to give back to a pool
+    private ColumnChunkPageReadStore pooledBuffersOwner;
 
     ColumnChunkPageReader(BytesDecompressor decompressor, List<Page> compressedPages, DictionaryPage compressedDictionaryPage) {
       this.decompressor = decompressor;
@@ -75,8 +81,16 @@ class ColumnChunkPageReadStore implements PageReadStore {
       }
       Page compressedPage = compressedPages.remove(0);
       try {
+        BytesInput bytes = decompressor.decompress(compressedPage.getBytes(), compressedPage.getUncompressedSize());
+        if (pooledBuffersOwner != null) {
+          if (bytes == compressedPage.getBytes()) {
+            // not compressed: the page must not point to the buffer once it is reused
+            bytes = BytesInput.copy(bytes);
+          }
+          pooledBuffersOwner.pageRead();
+        }
         return new Page(
-            decompressor.decompress(compressedPage.getBytes(), compressedPage.getUncompressedSize()),
+            bytes,
             compressedPage.getValueCount(),
             compressedPage.getUncompressedSize(),
             compressedPage.getStatistics(),
@@ -104,11 +118,24 @@ class ColumnChunkPageReadStore implements PageReadStore {
     }
   }
 
-  private final Map<ColumnDescriptor, ColumnChunkPageReader> readers = new HashMap<ColumnDescriptor, ColumnChunkPageReader>();
+  private final Map<ColumnDescriptor, PageReader> readers = new HashMap<ColumnDescriptor, PageReader>();
   private final long rowCount;
+  private final ByteArrayPool bufferPool;
+  // the buffers holding the pages, given back to the pool once all the pages have been read
+  private final List<byte[]> pooledBuffers = new ArrayList<byte[]>();
+  private int unreadPageCount;
 
   public ColumnChunkPageReadStore(long rowCount) {
+    this(rowCount, null);
+  }
+
+  /**
+   * @param rowCount the row count of the row group
+   * @param bufferPool the pool the buffers of the pages come from or null if they are not pooled
+   */
+  ColumnChunkPageReadStore(long rowCount, ByteArrayPool bufferPool) {
     this.rowCount = rowCount;
+    this.bufferPool = bufferPool;
   }
 
   @Override
@@ -124,10 +151,47 @@ class ColumnChunkPageReadStore implements PageReadStore {
     return readers.get(path);
   }
 
-  void addColumn(ColumnDescriptor path, ColumnChunkPageReader reader) {
+  @Override
+  public DictionaryPage readDictionaryPage(ColumnDescriptor descriptor) {
+    PageReader reader = readers.get(descriptor);
+    return reader == null ? null : reader.readDictionaryPage();
+  }
+
+  /**
+   * @param path the column
+   * @param reader the pages of the column, a ColumnChunkPageReader if the buffers are pooled
+   */
+  void addColumn(ColumnDescriptor path, PageReader reader) {
     if (readers.put(path, reader) != null) {
       throw new RuntimeException(path+ " was added twice");
     }
+    if (bufferPool != null) {
+      ColumnChunkPageReader chunkPageReader = (ColumnChunkPageReader) reader;
+      chunkPageReader.pooledBuffersOwner = this;
+      unreadPageCount += chunkPageReader.compressedPages.size();
+    }
+  }
+
+  /**
+   * @param buffer a buffer from the pool containing pages of this row group
+   */
+  void addPooledBuffer(byte[] buffer) {
+    pooledBuffers.add(buffer);
+  }
+
+  /**
+   * gives the buffers back to the pool when all the pages have been read.
+   * If the row group is not read entirely the buffers are left to the garbage collector.
+   */
+  private synchronized void pageRead() {
+    -- unreadPageCount;
+    if (unreadPageCount == 0) {
+      if (Log.DEBUG) LOG.debug("releasing " + pooledBuffers.size() + " buffers");
+      for (byte[] buffer : pooledBuffers) {
+        bufferPool.release(buffer);
+      }
+      pooledBuffers.clear();
+    }
   }
 
 }
@@ -18,16 +18,21 @@ package parquet.hadoop;
 import static parquet.Log.INFO;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import parquet.Log;
+import parquet.bytes.ByteBufferAllocator;
 import parquet.bytes.BytesInput;
 import parquet.bytes.CapacityByteArrayOutputStream;
+import parquet.bytes.HeapByteBufferAllocator;
 import parquet.column.ColumnDescriptor;
 import parquet.column.Encoding;
 import parquet.column.page.DictionaryPage;
@@ -45,12 +50,48 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
 
   private static ParquetMetadataConverter parquetMetadataConverter = new ParquetMetadataConverter();
 
+  /**
+   * the compressors of the threads compressing pages in parallel.
+   * A compressor is borrowed for each page, so there are at most as many as threads.
+   */
+  static final class CompressorPool {
+
+    private final BytesCompressor compressor;
+    private final LinkedList<BytesCompressor> compressors = new LinkedList<BytesCompressor>();
+
+    /**
+     * @param compressor the compressor to copy
+     */
+    CompressorPool(BytesCompressor compressor) {
+      this.compressor = compressor;
+    }
+
+    private synchronized BytesCompressor borrow() {
+      BytesCompressor borrowed = compressors.poll();
+      return borrowed == null ? compressor.newCompressor() : borrowed;
+    }
+
+    private synchronized void giveBack(BytesCompressor borrowed) {
+      compressors.add(borrowed);
+    }
+
+    /**
+     * releases the compressors once no page is being compressed anymore
+     */
+    synchronized void release() {
+      for (BytesCompressor pooled : compressors) {
+        pooled.release();
+      }
+      compressors.clear();
+    }
+  }
+
   private static final class ColumnChunkPageWriter implements PageWriter {
 
     private final ColumnDescriptor path;
     private final BytesCompressor compressor;
 
-    private final CapacityByteArrayOutputStream buf;
+    private CapacityByteArrayOutputStream buf;
     private DictionaryPage dictionaryPage;
 
     private long uncompressedLength;
@@ -62,11 +103,22 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
 
     private Statistics totalStatistics;
 
-    private ColumnChunkPageWriter(ColumnDescriptor path, BytesCompressor compressor, int initialSize) {
+    // compression in parallel: the pages are compressed and appended in order by one task at a time
+    private final Executor compressionExecutor;
+    private final CompressorPool compressorPool;
+    private final LinkedList<PendingPage> pendingPages = new LinkedList<PendingPage>();
+    private long pendingSize;
+    private boolean compressing;
+    private IOException compressionError;
+
+    private ColumnChunkPageWriter(ColumnDescriptor path, BytesCompressor compressor, CapacityByteArrayOutputStream buf,
+        Executor compressionExecutor, CompressorPool compressorPool) {
       this.path = path;
       this.compressor = compressor;
-      this.buf = new CapacityByteArrayOutputStream(initialSize);
+      this.buf = buf;
       this.totalStatistics = Statistics.getStatsBasedOnType(this.path.getType());
+      this.compressionExecutor = compressionExecutor;
+      this.compressorPool = compressorPool;
     }
 
     @Deprecated
@@ -76,27 +128,8 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
                           Encoding rlEncoding,
                           Encoding dlEncoding,
                           Encoding valuesEncoding) throws IOException {
-      long uncompressedSize = bytes.size();
-      BytesInput compressedBytes = compressor.compress(bytes);
-      long compressedSize = compressedBytes.size();
       BooleanStatistics statistics = new BooleanStatistics(); // dummy stats object
-      parquetMetadataConverter.writeDataPageHeader(
-          (int)uncompressedSize,
-          (int)compressedSize,
-          valueCount,
-          statistics,
-          rlEncoding,
-          dlEncoding,
-          valuesEncoding,
-          buf);
-      this.uncompressedLength += uncompressedSize;
-      this.compressedLength += compressedSize;
-      this.totalValueCount += valueCount;
-      this.pageCount += 1;
-      compressedBytes.writeAllTo(buf);
-      encodings.add(rlEncoding);
-      encodings.add(dlEncoding);
-      encodings.add(valuesEncoding);
+      writePage(new PendingPage(bytes, valueCount, statistics, rlEncoding, dlEncoding, valuesEncoding));
     }
 
     @Override
@@ -106,35 +139,125 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
                           Encoding rlEncoding,
                           Encoding dlEncoding,
                           Encoding valuesEncoding) throws IOException {
-      long uncompressedSize = bytes.size();
-      BytesInput compressedBytes = compressor.compress(bytes);
-      long compressedSize = compressedBytes.size();
-      parquetMetadataConverter.writeDataPageHeader(
-          (int)uncompressedSize,
-          (int)compressedSize,
-          valueCount,
-          statistics,
-          rlEncoding,
-          dlEncoding,
-          valuesEncoding,
-          buf);
-      this.uncompressedLength += uncompressedSize;
-      this.compressedLength += compressedSize;
-      this.totalValueCount += valueCount;
-      this.pageCount += 1;
       this.totalStatistics.mergeStatistics(statistics);
-      compressedBytes.writeAllTo(buf);
-      encodings.add(rlEncoding);
-      encodings.add(dlEncoding);
-      encodings.add(valuesEncoding);
+      writePage(new PendingPage(bytes, valueCount, statistics, rlEncoding, dlEncoding, valuesEncoding));
+    }
+
+    private void writePage(PendingPage page) throws IOException {
+      this.totalValueCount += page.valueCount;
+      this.pageCount += 1;
+      encodings.add(page.rlEncoding);
+      encodings.add(page.dlEncoding);
+      encodings.add(page.valuesEncoding);
+      if (compressionExecutor == null) {
+        appendPage(page);
+        return;
+      }
+      // the buffers of the bytes are reused by the column writer once the page is written
+      page.bytes = BytesInput.copy(page.bytes);
+      synchronized (this) {
+        checkCompressionError();
+        pendingPages.add(page);
+        pendingSize += page.bytes.size();
+        if (compressing) {
+          return;
+        }
+        compressing = true;
+      }
+      compressionExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          compressPendingPages();
+        }
+      });
+    }
+
+    private void compressPendingPages() {
+      while (true) {
+        PendingPage page;
+        synchronized (this) {
+          page = pendingPages.poll();
+          if (page == null) {
+            compressing = false;
+            notifyAll();
+            return;
+          }
+        }
+        try {
+          appendPage(page);
+        } catch (Exception e) {
+          synchronized (this) {
+            compressionError = e instanceof IOException ? (IOException)e : new IOException("could not compress a page of " + path, e);
+            pendingPages.clear();
+            pendingSize = 0;
+            compressing = false;
+            notifyAll();
+          }
+          return;
+        }
+      }
+    }
+
+    private void appendPage(PendingPage page) throws IOException {
+      // the compressed bytes are in the buffers of the compressor until they are appended
+      BytesCompressor pageCompressor = compressorPool == null ? compressor : compressorPool.borrow();
+      try {
+        long uncompressedSize = page.bytes.size();
+        BytesInput compressedBytes = pageCompressor.compress(page.bytes);
+        long compressedSize = compressedBytes.size();
+        synchronized (this) {
+          parquetMetadataConverter.writeDataPageHeader(
+              (int)uncompressedSize,
+              (int)compressedSize,
+              page.valueCount,
+              page.statistics,
+              page.rlEncoding,
+              page.dlEncoding,
+              page.valuesEncoding,
+              buf);
+          this.uncompressedLength += uncompressedSize;
+          this.compressedLength += compressedSize;
+          compressedBytes.writeAllTo(buf);
+          if (compressionExecutor != null) {
+            pendingSize -= uncompressedSize;
+          }
+        }
+      } finally {
+        if (compressorPool != null) {
+          compressorPool.giveBack(pageCompressor);
+        }
+      }
+    }
+
+    private void checkCompressionError() throws IOException {
+      if (compressionError != null) {
+        throw compressionError;
+      }
+    }
+
+    /**
+     * waits until all the pages are compressed and appended
+     * @throws IOException if one of them failed
+     */
+    private synchronized void waitForPendingPages() throws IOException {
+      while (compressing) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("interrupted while compressing the pages of " + path);
+        }
+      }
+      checkCompressionError();
     }
 
     @Override
-    public long getMemSize() {
-      return buf.size();
+    public synchronized long getMemSize() {
+      return buf.size() + pendingSize;
     }
 
     public void writeToFileWriter(ParquetFileWriter writer) throws IOException {
+      waitForPendingPages();
       writer.startColumn(path, totalValueCount, compressor.getCodecName());
       if (dictionaryPage != null) {
         writer.writeDictionaryPage(dictionaryPage);
@@ -156,9 +279,42 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
       pageCount = 0;
     }
 
+    /**
+     * starts a new column chunk for the next row group
+     * @param buf the buffer of the new chunk
+     */
+    private void resetChunk(CapacityByteArrayOutputStream buf) {
+      this.buf = buf;
+      this.dictionaryPage = null;
+      this.uncompressedLength = 0;
+      this.compressedLength = 0;
+      this.totalValueCount = 0;
+      this.pageCount = 0;
+      this.encodings = new HashSet<Encoding>();
+      this.totalStatistics = Statistics.getStatsBasedOnType(this.path.getType());
+    }
+
+    /**
+     * hands the current column chunk over to a new page writer and starts a new one
+     * @param newBuf the buffer of the new chunk
+     * @return the page writer containing the current chunk
+     */
+    private ColumnChunkPageWriter sealChunk(CapacityByteArrayOutputStream newBuf) {
+      ColumnChunkPageWriter sealed = new ColumnChunkPageWriter(path, compressor, buf, null, null);
+      sealed.dictionaryPage = dictionaryPage;
+      sealed.uncompressedLength = uncompressedLength;
+      sealed.compressedLength = compressedLength;
+      sealed.totalValueCount = totalValueCount;
+      sealed.pageCount = pageCount;
+      sealed.encodings = encodings;
+      sealed.totalStatistics = totalStatistics;
+      resetChunk(newBuf);
+      return sealed;
+    }
+
     @Override
-    public long allocatedSize() {
-      return buf.getCapacity();
+    public synchronized long allocatedSize() {
+      return buf.getCapacity() + pendingSize;
     }
 
     @Override
@@ -173,35 +329,198 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
     }
 
     @Override
-    public String memUsageString(String prefix) {
+    public synchronized String memUsageString(String prefix) {
       return buf.memUsageString(prefix + " ColumnChunkPageWriter");
     }
   }
 
+  /**
+   * a page waiting to be compressed
+   */
+  private static final class PendingPage {
+    private BytesInput bytes;
+    private final int valueCount;
+    private final Statistics statistics;
+    private final Encoding rlEncoding;
+    private final Encoding dlEncoding;
+    private final Encoding valuesEncoding;
+
+    private PendingPage(BytesInput bytes, int valueCount, Statistics statistics,
+        Encoding rlEncoding, Encoding dlEncoding, Encoding valuesEncoding) {
+      this.bytes = bytes;
+      this.valueCount = valueCount;
+      this.statistics = statistics;
+      this.rlEncoding = rlEncoding;
+      this.dlEncoding = dlEncoding;
+      this.valuesEncoding = valuesEncoding;
+    }
+  }
+
+  /**
+   * the buffers of the chunks already written, reused by the next row groups.
+   * Shared by a store and the stores it sealed, which are written and recycled by another thread.
+   */
+  private static final class FreeBuffers {
+    private final Map<ColumnDescriptor, LinkedList<CapacityByteArrayOutputStream>> buffers =
+        new HashMap<ColumnDescriptor, LinkedList<CapacityByteArrayOutputStream>>();
+    private boolean released;
+
+    private synchronized CapacityByteArrayOutputStream take(ColumnDescriptor path) {
+      LinkedList<CapacityByteArrayOutputStream> columnBuffers = buffers.get(path);
+      return columnBuffers == null ? null : columnBuffers.poll();
+    }
+
+    /**
+     * @param buffer a buffer already reset, closed if the buffers were released
+     */
+    private synchronized void giveBack(ColumnDescriptor path, CapacityByteArrayOutputStream buffer) {
+      if (released) {
+        buffer.close();
+        return;
+      }
+      LinkedList<CapacityByteArrayOutputStream> columnBuffers = buffers.get(path);
+      if (columnBuffers == null) {
+        columnBuffers = new LinkedList<CapacityByteArrayOutputStream>();
+        buffers.put(path, columnBuffers);
+      }
+      columnBuffers.add(buffer);
+    }
+
+    private synchronized void release() {
+      released = true;
+      for (LinkedList<CapacityByteArrayOutputStream> columnBuffers : buffers.values()) {
+        for (CapacityByteArrayOutputStream buffer : columnBuffers) {
+          buffer.close();
+        }
+      }
+      buffers.clear();
+    }
+  }
+
   private final Map<ColumnDescriptor, ColumnChunkPageWriter> writers = new HashMap<ColumnDescriptor, ColumnChunkPageWriter>();
   private final MessageType schema;
   private final BytesCompressor compressor;
   private final int initialSize;
+  private final Executor compressionExecutor;
+  private final CompressorPool compressorPool;
+  private final ByteBufferAllocator allocator;
+  private final FreeBuffers freeBuffers;
+  // sealed stores only release their own buffers
+  private final boolean sealed;
 
   public ColumnChunkPageWriteStore(BytesCompressor compressor, MessageType schema, int initialSize) {
+    this(compressor, schema, initialSize, null, null, new HeapByteBufferAllocator());
+  }
+
+  /**
+   * @param compressor the compressor of the dictionaries, and of the pages if they are compressed synchronously
+   * @param schema the schema of the columns
+   * @param initialSize the initial size of the buffer of each column
+   * @param compressionExecutor the executor compressing the pages in parallel or null to compress them synchronously
+   * @param compressorPool the compressors of the threads of the executor, reused across row groups
+   * @param allocator allocates the buffers of the columns, released by {@link #release()}
+   */
+  ColumnChunkPageWriteStore(BytesCompressor compressor, MessageType schema, int initialSize,
+      Executor compressionExecutor, CompressorPool compressorPool,
+      ByteBufferAllocator allocator) {
+    this(compressor, schema, initialSize, compressionExecutor, compressorPool, allocator, new FreeBuffers(), false);
+  }
+
+  private ColumnChunkPageWriteStore(BytesCompressor compressor, MessageType schema, int initialSize,
+      Executor compressionExecutor, CompressorPool compressorPool,
+      ByteBufferAllocator allocator, FreeBuffers freeBuffers, boolean sealed) {
     this.compressor = compressor;
     this.schema = schema;
     this.initialSize = initialSize;
+    this.compressionExecutor = compressionExecutor;
+    this.compressorPool = compressorPool;
+    this.allocator = allocator;
+    this.freeBuffers = freeBuffers;
+    this.sealed = sealed;
   }
 
   @Override
   public PageWriter getPageWriter(ColumnDescriptor path) {
     if (!writers.containsKey(path)) {
-      writers.put(path,  new ColumnChunkPageWriter(path, compressor, initialSize));
+      writers.put(path,  new ColumnChunkPageWriter(path, compressor, newBuffer(path), compressionExecutor, compressorPool));
     }
     return writers.get(path);
   }
 
+  /**
+   * @return a buffer recycled from a row group already written or a new one
+   */
+  private CapacityByteArrayOutputStream newBuffer(ColumnDescriptor path) {
+    CapacityByteArrayOutputStream buffer = freeBuffers.take(path);
+    return buffer == null ? new CapacityByteArrayOutputStream(initialSize, allocator) : buffer;
+  }
+
+  /**
+   * waits until the pages compressed in parallel are done.
+   * All the pages of the row group are then in the buffers of the columns.
+   * @throws IOException if the compression of a page failed
+   */
+  void waitForPendingPages() throws IOException {
+    for (ColumnChunkPageWriter pageWriter : writers.values()) {
+      pageWriter.waitForPendingPages();
+    }
+  }
+
+  /**
+   * writes the column chunks of the row group and resets the page writers for the next one.
+   * The buffers are kept to be reused.
+   * @param writer the file to write to
+   * @throws IOException
+   */
   public void flushToFileWriter(ParquetFileWriter writer) throws IOException {
     List<ColumnDescriptor> columns = schema.getColumns();
     for (ColumnDescriptor columnDescriptor : columns) {
       ColumnChunkPageWriter pageWriter = writers.get(columnDescriptor);
       pageWriter.writeToFileWriter(writer);
+      pageWriter.buf.reset();
+      pageWriter.resetChunk(pageWriter.buf);
+    }
+  }
+
+  /**
+   * hands the column chunks of the row group over to a new store so that they can be written
+   * while this store is used for the next row group.
+   * @return the store containing the current row group, to be written with {@link #flushToFileWriter(ParquetFileWriter)} then {@link #recycle()}
+   * @throws IOException if the compression of a page failed
+   */
+  ColumnChunkPageWriteStore seal() throws IOException {
+    waitForPendingPages();
+    ColumnChunkPageWriteStore sealed = new ColumnChunkPageWriteStore(compressor, schema, initialSize, null, null, allocator, freeBuffers, true);
+    for (Map.Entry<ColumnDescriptor, ColumnChunkPageWriter> entry : writers.entrySet()) {
+      ColumnDescriptor path = entry.getKey();
+      sealed.writers.put(path, entry.getValue().sealChunk(newBuffer(path)));
+    }
+    return sealed;
+  }
+
+  /**
+   * gives the buffers of a sealed store back to the store it comes from once written
+   */
+  void recycle() {
+    for (Map.Entry<ColumnDescriptor, ColumnChunkPageWriter> entry : writers.entrySet()) {
+      // already reset when written
+      freeBuffers.giveBack(entry.getKey(), entry.getValue().buf);
+    }
+    writers.clear();
+  }
+
+  /**
+   * hands the buffers of the columns back to the allocator, including the ones recycled from the sealed stores
+   * unless this store is sealed. The buffers recycled afterwards are released as well.
+   * The store must not be used afterwards.
+   */
+  void release() {
+    for (ColumnChunkPageWriter pageWriter : writers.values()) {
+      pageWriter.buf.close();
+    }
+    writers.clear();
+    if (!sealed) {
+      freeBuffers.release();
     }
   }
 
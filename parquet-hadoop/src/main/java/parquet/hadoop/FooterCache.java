@@ -0,0 +1,205 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static parquet.Preconditions.checkArgument;
+import static parquet.hadoop.ParquetInputFormat.FOOTER_CACHE_SIZE;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+
+import parquet.Log;
+import parquet.hadoop.metadata.ParquetMetadata;
+
+/**
+ * Keeps the most recently used footers so that they are not read again.
+ * A footer is identified by the path, the length and the modification time of its file,
+ * so a file that is replaced is read again.
+ * The size of the cache is the total serialized size of the footers it contains.
+ * The footers are shared between the callers and are not copied: neither the {@link ParquetMetadata}
+ * nor its {@link parquet.hadoop.metadata.BlockMetaData} and column chunks may be modified.
+ */
+public class FooterCache {
+  private static final Log LOG = Log.getLog(FooterCache.class);
+
+  private static final FooterCache SHARED = new FooterCache(0);
+
+  /**
+   * The shared cache grows to the largest {@link ParquetInputFormat#FOOTER_CACHE_SIZE} configured
+   * and never shrinks, so that a job configured with a smaller size does not evict the footers of the others.
+   * @param configuration the configuration of the job
+   * @return the cache shared in this JVM, or null if it is disabled for this configuration
+   */
+  public static FooterCache get(Configuration configuration) {
+    long maxSize = configuration.getLong(FOOTER_CACHE_SIZE, 0);
+    if (maxSize <= 0) {
+      return null;
+    }
+    SHARED.growMaxSize(maxSize);
+    return SHARED;
+  }
+
+  private static final class Key {
+    private final String path;
+    private final long length;
+    private final long modificationTime;
+
+    Key(FileStatus file) {
+      this.path = file.getPath().toString();
+      this.length = file.getLen();
+      this.modificationTime = file.getModificationTime();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return path.equals(other.path) && length == other.length && modificationTime == other.modificationTime;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = path.hashCode();
+      result = 31 * result + (int) (length ^ (length >>> 32));
+      result = 31 * result + (int) (modificationTime ^ (modificationTime >>> 32));
+      return result;
+    }
+  }
+
+  private static final class Entry {
+    private final ParquetMetadata footer;
+    private final long size;
+
+    Entry(ParquetMetadata footer, long size) {
+      this.footer = footer;
+      this.size = size;
+    }
+  }
+
+  // in access order, the least recently used first
+  private final LinkedHashMap<Key, Entry> footers = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+  private long maxSize;
+  private long size;
+  private long hitCount;
+  private long missCount;
+
+  /**
+   * @param maxSize the maximum total serialized size of the footers
+   */
+  public FooterCache(long maxSize) {
+    checkArgument(maxSize >= 0, "maxSize must be positive: " + maxSize);
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @param file the status of the file
+   * @return the footer of the file, that must not be modified, or null if it is not in the cache
+   */
+  public synchronized ParquetMetadata get(FileStatus file) {
+    Entry entry = footers.get(new Key(file));
+    if (entry == null) {
+      ++ missCount;
+      return null;
+    }
+    ++ hitCount;
+    return entry.footer;
+  }
+
+  /**
+   * adds a footer, evicting the least recently used ones if needed
+   * @param file the status of the file
+   * @param footer its footer
+   * @param footerSize the serialized size of the footer
+   */
+  public synchronized void put(FileStatus file, ParquetMetadata footer, long footerSize) {
+    if (footerSize > maxSize) {
+      if (Log.DEBUG) LOG.debug("not caching the footer of " + file.getPath() + " of size " + footerSize);
+      return;
+    }
+    Entry previous = footers.put(new Key(file), new Entry(footer, footerSize));
+    if (previous != null) {
+      size -= previous.size;
+    }
+    size += footerSize;
+    evict();
+  }
+
+  private void evict() {
+    Iterator<Entry> entries = footers.values().iterator();
+    while (size > maxSize && entries.hasNext()) {
+      size -= entries.next().size;
+      entries.remove();
+    }
+  }
+
+  /**
+   * @param maxSize the new maximum total serialized size of the footers
+   */
+  public synchronized void setMaxSize(long maxSize) {
+    checkArgument(maxSize >= 0, "maxSize must be positive: " + maxSize);
+    this.maxSize = maxSize;
+    evict();
+  }
+
+  private synchronized void growMaxSize(long maxSize) {
+    if (maxSize > this.maxSize) {
+      this.maxSize = maxSize;
+    }
+  }
+
+  /**
+   * removes all the footers
+   */
+  public synchronized void clear() {
+    footers.clear();
+    size = 0;
+  }
+
+  /**
+   * @return the total serialized size of the footers in the cache
+   */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  /**
+   * @return the number of footers in the cache
+   */
+  public synchronized int getFooterCount() {
+    return footers.size();
+  }
+
+  /**
+   * @return the number of times a footer was found in the cache
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the number of times a footer was not found in the cache
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+}
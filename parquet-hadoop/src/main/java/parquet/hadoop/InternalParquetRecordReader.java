@@ -16,20 +16,39 @@
 package parquet.hadoop;
 
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import parquet.Log;
 import parquet.column.ColumnDescriptor;
 import parquet.column.page.PageReadStore;
+import parquet.common.schema.ColumnPath;
+import parquet.filter.AndRecordFilter;
 import parquet.filter.UnboundRecordFilter;
+import parquet.filter2.dictionarylevel.DictionaryFilter;
+import parquet.filter2.predicate.FilterPredicate;
+import parquet.filter2.predicate.SchemaCompatibilityValidator;
+import parquet.filter2.recordlevel.FilterPredicateRecordFilter;
+import parquet.filter2.statisticslevel.StatisticsFilter;
 import parquet.hadoop.api.ReadSupport;
 import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
 import parquet.hadoop.util.counters.BenchmarkCounter;
 import parquet.io.ColumnIOFactory;
+import parquet.io.CompilationException;
 import parquet.io.MessageColumnIO;
 import parquet.io.ParquetDecodingException;
+import parquet.io.RecordReaderCompiler;
 import parquet.io.api.RecordMaterializer;
 import parquet.schema.GroupType;
 import parquet.schema.MessageType;
@@ -37,15 +56,49 @@ import parquet.schema.Type;
 
 import static java.lang.String.format;
 import static parquet.Log.DEBUG;
+import static parquet.hadoop.ParquetInputFormat.COMPILE_RECORD_ASSEMBLY;
+import static parquet.hadoop.ParquetInputFormat.PREFETCH_ENABLED;
+import static parquet.hadoop.ParquetInputFormat.PREFETCH_MAX_SIZE;
 import static parquet.hadoop.ParquetInputFormat.STRICT_TYPE_CHECKING;
 
 class InternalParquetRecordReader<T> {
   private static final Log LOG = Log.getLog(InternalParquetRecordReader.class);
 
+  private static final long DEFAULT_PREFETCH_MAX_SIZE = 256 * 1024 * 1024;
+  // how long close waits for the row group being read ahead
+  private static final long PREFETCH_CLOSE_TIMEOUT_MS = 10 * 1000;
+
+  private static final ThreadFactory PREFETCH_THREAD_FACTORY = new ThreadFactory() {
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "parquet-prefetch");
+      thread.setDaemon(true);
+      return thread;
+    }
+  };
+
+  /**
+   * the next row group to assemble and the number of rows dropped before it
+   */
+  private static final class LoadedRowGroup {
+    // index of the row group in blocks, blocks.size() if all the remaining ones were dropped
+    final int blockIndex;
+    final long skippedRowCount;
+    // null if not read yet
+    final PageReadStore pages;
+
+    LoadedRowGroup(int blockIndex, long skippedRowCount, PageReadStore pages) {
+      this.blockIndex = blockIndex;
+      this.skippedRowCount = skippedRowCount;
+      this.pages = pages;
+    }
+  }
+
   private final ColumnIOFactory columnIOFactory = new ColumnIOFactory();
 
   private MessageType requestedSchema;
   private MessageType fileSchema;
+  private MessageColumnIO columnIO;
   private int columnCount;
   private final ReadSupport<T> readSupport;
 
@@ -53,12 +106,15 @@ class InternalParquetRecordReader<T> {
 
   private T currentValue;
   private long total;
-  private int current = 0;
+  private long current = 0;
   private int currentBlock = -1;
   private ParquetFileReader reader;
   private parquet.io.RecordReader<T> recordReader;
   private UnboundRecordFilter recordFilter;
+  private FilterPredicate filterPredicate;
+  private List<BlockMetaData> blocks;
   private boolean strictTypeChecking;
+  private boolean compileRecordAssembly;
 
   private long totalTimeSpentReadingBytes;
   private long totalTimeSpentProcessingRecords;
@@ -66,6 +122,12 @@ class InternalParquetRecordReader<T> {
 
   private long totalCountLoadedSoFar = 0;
 
+  private final Set<ColumnPath> requestedPaths = new HashSet<ColumnPath>();
+  // null if prefetching is disabled
+  private ExecutorService prefetchExecutor;
+  private long prefetchMaxSize;
+  private Future<LoadedRowGroup> prefetchedRowGroup;
+
   private Path file;
 
   /**
@@ -92,32 +154,152 @@ class InternalParquetRecordReader<T> {
         totalTimeSpentProcessingRecords += timeAssembling;
         LOG.info("Assembled and processed " + totalCountLoadedSoFar + " records from " + columnCount + " columns in " + totalTimeSpentProcessingRecords + " ms: "+((float)totalCountLoadedSoFar / totalTimeSpentProcessingRecords) + " rec/ms, " + ((float)totalCountLoadedSoFar * columnCount / totalTimeSpentProcessingRecords) + " cell/ms");
         long totalTime = totalTimeSpentProcessingRecords + totalTimeSpentReadingBytes;
-        long percentReading = 100 * totalTimeSpentReadingBytes / totalTime;
-        long percentProcessing = 100 * totalTimeSpentProcessingRecords / totalTime;
-        LOG.info("time spent so far " + percentReading + "% reading ("+totalTimeSpentReadingBytes+" ms) and " + percentProcessing + "% processing ("+totalTimeSpentProcessingRecords+" ms)");
+        if (totalTime > 0) {
+          long percentReading = 100 * totalTimeSpentReadingBytes / totalTime;
+          long percentProcessing = 100 * totalTimeSpentProcessingRecords / totalTime;
+          LOG.info("time spent so far " + percentReading + "% reading ("+totalTimeSpentReadingBytes+" ms) and " + percentProcessing + "% processing ("+totalTimeSpentProcessingRecords+" ms)");
+        }
       }
 
       LOG.info("at row " + current + ". reading next block");
       long t0 = System.currentTimeMillis();
-      PageReadStore pages = reader.readNextRowGroup();
-      if (pages == null) {
-        throw new IOException("expecting more rows but reached last block. Read " + current + " out of " + total);
+      LoadedRowGroup rowGroup = prefetchedRowGroup == null ? loadRowGroup(currentBlock + 1, false) : waitFor(prefetchedRowGroup);
+      prefetchedRowGroup = null;
+      PageReadStore pages = rowGroup.pages;
+      if (pages == null && rowGroup.blockIndex < blocks.size()) {
+        // it was too large to be read ahead
+        pages = reader.readNextRowGroup();
       }
       long timeSpentReading = System.currentTimeMillis() - t0;
       totalTimeSpentReadingBytes += timeSpentReading;
       BenchmarkCounter.incrementTime(timeSpentReading);
+      currentBlock = rowGroup.blockIndex;
+      totalCountLoadedSoFar += rowGroup.skippedRowCount;
+      current = totalCountLoadedSoFar;
+      if (pages == null) {
+        // the remaining blocks were dropped
+        if (current != total) {
+          throw new IOException("expecting more rows but reached last block. Read " + current + " out of " + total);
+        }
+        recordReader = null;
+        return;
+      }
       LOG.info("block read in memory in " + timeSpentReading + " ms. row count = " + pages.getRowCount());
-      if (Log.DEBUG) LOG.debug("initializing Record assembly with requested schema " + requestedSchema);
-      MessageColumnIO columnIO = columnIOFactory.getColumnIO(requestedSchema, fileSchema, strictTypeChecking);
-      recordReader = columnIO.getRecordReader(pages, recordConverter, recordFilter);
-      startedAssemblingCurrentBlockAt = System.currentTimeMillis();
       totalCountLoadedSoFar += pages.getRowCount();
-      ++ currentBlock;
+      prefetchNextRowGroup();
+      if (recordReader == null) {
+        if (Log.DEBUG) LOG.debug("initializing Record assembly with requested schema " + requestedSchema);
+        columnIO = columnIOFactory.getColumnIO(requestedSchema, fileSchema, strictTypeChecking);
+        recordReader = columnIO.getRecordReader(pages, recordConverter, recordFilter);
+        if (compileRecordAssembly) {
+          try {
+            recordReader = new RecordReaderCompiler().compile(recordReader);
+          } catch (CompilationException e) {
+            LOG.warn("could not compile the record assembly, falling back to the generic one", e);
+          }
+        }
+      } else {
+        // the record assembly only depends on the schema
+        recordReader = columnIO.getRecordReader(pages, recordReader);
+      }
+      startedAssemblingCurrentBlockAt = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Drops the row groups starting at blockIndex which dictionaries do not match the filter
+   * and reads the first one that is not dropped.
+   * @param blockIndex the index of the next row group in blocks
+   * @param readAhead whether the next row group is read ahead of time
+   * @return the next row group
+   * @throws IOException if an error occurs while reading
+   */
+  private LoadedRowGroup loadRowGroup(int blockIndex, boolean readAhead) throws IOException {
+    long skippedRowCount = 0;
+    while (blockIndex < blocks.size() && filterPredicate != null) {
+      // the dictionaries are much smaller than the row group
+      BlockMetaData block = blocks.get(blockIndex);
+      if (!DictionaryFilter.canDrop(filterPredicate, fileSchema, block.getColumns(), reader.getNextDictionaryReader())) {
+        break;
+      }
+      LOG.info("skipping block " + blockIndex + ": no value in the dictionaries matches the filter " + filterPredicate);
+      reader.skipNextRowGroup();
+      skippedRowCount += block.getRowCount();
+      ++ blockIndex;
+    }
+    PageReadStore pages = null;
+    if (blockIndex < blocks.size() && (!readAhead || getRequestedSize(blocks.get(blockIndex)) <= prefetchMaxSize)) {
+      pages = reader.readNextRowGroup();
+    }
+    return new LoadedRowGroup(blockIndex, skippedRowCount, pages);
+  }
+
+  /**
+   * @return the size of the requested column chunks of the block
+   */
+  private long getRequestedSize(BlockMetaData block) {
+    long size = 0;
+    for (ColumnChunkMetaData chunk : block.getColumns(requestedPaths)) {
+      size += chunk.getTotalSize();
+    }
+    return size;
+  }
+
+  /**
+   * starts reading the next row group in the background if prefetching is enabled
+   */
+  private void prefetchNextRowGroup() {
+    if (prefetchExecutor != null && currentBlock + 1 < blocks.size()) {
+      final int nextBlock = currentBlock + 1;
+      prefetchedRowGroup = prefetchExecutor.submit(new Callable<LoadedRowGroup>() {
+        @Override
+        public LoadedRowGroup call() throws Exception {
+          return loadRowGroup(nextBlock, true);
+        }
+      });
+    }
+  }
+
+  private static LoadedRowGroup waitFor(Future<LoadedRowGroup> rowGroup) throws IOException {
+    try {
+      return rowGroup.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("interrupted while reading the next row group", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException("could not read the next row group", cause);
     }
   }
 
   public void close() throws IOException {
-    reader.close();
+    boolean prefetchStopped = true;
+    if (prefetchExecutor != null) {
+      if (prefetchedRowGroup != null) {
+        prefetchedRowGroup.cancel(true);
+        prefetchedRowGroup = null;
+      }
+      prefetchExecutor.shutdownNow();
+      try {
+        // the file should not be closed while it is being read but a read ignoring the interruption must not block close
+        prefetchStopped = prefetchExecutor.awaitTermination(PREFETCH_CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (!prefetchStopped) {
+          LOG.warn("the row group read ahead in " + file + " did not stop after " + PREFETCH_CLOSE_TIMEOUT_MS + " ms, closing the file anyway");
+        }
+      } catch (InterruptedException e) {
+        prefetchStopped = false;
+        Thread.currentThread().interrupt();
+      }
+    }
+    // a mapped file still read by the read ahead is left to the garbage collector
+    reader.close(prefetchStopped);
   }
 
   public Void getCurrentKey() throws IOException, InterruptedException {
@@ -145,14 +327,48 @@ class InternalParquetRecordReader<T> {
         configuration, extraMetadata, fileSchema,
         new ReadSupport.ReadContext(requestedSchema, readSupportMetadata));
     this.strictTypeChecking = configuration.getBoolean(STRICT_TYPE_CHECKING, true);
+    this.compileRecordAssembly = configuration.getBoolean(COMPILE_RECORD_ASSEMBLY, false);
+    this.filterPredicate = ParquetInputFormat.getFilterPredicate(configuration);
+    if (filterPredicate != null) {
+      SchemaCompatibilityValidator.validate(filterPredicate, fileSchema);
+      checkProjection(filterPredicate, requestedSchema, fileSchema);
+      // no-op when the blocks come from a split as their statistics are not serialized
+      blocks = StatisticsFilter.filterRowGroups(filterPredicate, blocks);
+      UnboundRecordFilter predicateRecordFilter = FilterPredicateRecordFilter.filter(filterPredicate);
+      // the predicate goes first so that the pages it rules out are skipped
+      this.recordFilter = recordFilter == null ? predicateRecordFilter : AndRecordFilter.and(predicateRecordFilter, recordFilter);
+    }
+    this.blocks = blocks;
     List<ColumnDescriptor> columns = requestedSchema.getColumns();
-    reader = new ParquetFileReader(configuration, file, blocks, columns);
+    for (ColumnDescriptor column : columns) {
+      requestedPaths.add(ColumnPath.get(column.getPath()));
+    }
+    reader = new ParquetFileReader(configuration, file, blocks, columns, ParquetInputFormat.getBufferPool(configuration));
+    if (configuration.getBoolean(PREFETCH_ENABLED, false)) {
+      this.prefetchMaxSize = configuration.getLong(PREFETCH_MAX_SIZE, DEFAULT_PREFETCH_MAX_SIZE);
+      this.prefetchExecutor = Executors.newSingleThreadExecutor(PREFETCH_THREAD_FACTORY);
+    }
     for (BlockMetaData block : blocks) {
       total += block.getRowCount();
     }
     LOG.info("RecordReader initialized will read a total of " + total + " records.");
   }
 
+  /**
+   * The records can only be filtered on the columns that are read.
+   * Columns missing from the file are null at every level and do not need to be read.
+   * @throws IllegalArgumentException if the predicate references a column of the file that is not requested
+   */
+  private static void checkProjection(FilterPredicate filterPredicate, MessageType requestedSchema, MessageType fileSchema) {
+    for (ColumnPath path : FilterPredicateRecordFilter.getColumnPaths(filterPredicate)) {
+      String[] columnPath = path.toArray();
+      if (fileSchema.containsPath(columnPath) && !requestedSchema.containsPath(columnPath)) {
+        throw new IllegalArgumentException("the filter predicate " + filterPredicate + " references the column "
+            + path.toDotString() + " which is not in the requested schema, add it to the projection: " + requestedSchema);
+      }
+    }
+  }
+
   private boolean contains(GroupType group, String[] path, int index) {
     if (index == path.length) {
       return false;
@@ -169,10 +385,19 @@ class InternalParquetRecordReader<T> {
   }
 
   public boolean nextKeyValue() throws IOException, InterruptedException {
-    if (current < total) {
+    while (current < total) {
       try {
         checkRead();
+        if (current == totalCountLoadedSoFar) {
+          // the block was skipped
+          continue;
+        }
         currentValue = recordReader.read();
+        if (currentValue == null && recordReader.isExhausted()) {
+          // the filter skipped the remaining records of the block
+          current = totalCountLoadedSoFar;
+          continue;
+        }
         if (DEBUG) LOG.debug("read value: " + currentValue);
         current ++;
       } catch (RuntimeException e) {
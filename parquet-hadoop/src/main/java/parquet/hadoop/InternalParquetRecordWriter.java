@@ -22,12 +22,23 @@ import static parquet.Log.DEBUG;
 import static parquet.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.util.LinkedList;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import parquet.Log;
+import parquet.bytes.ByteBufferAllocator;
 import parquet.column.ParquetProperties.WriterVersion;
 import parquet.column.impl.ColumnWriteStoreImpl;
 import parquet.hadoop.CodecFactory.BytesCompressor;
+import parquet.hadoop.ColumnChunkPageWriteStore.CompressorPool;
 import parquet.hadoop.api.WriteSupport;
 import parquet.io.ColumnIOFactory;
 import parquet.io.MessageColumnIO;
@@ -39,6 +50,8 @@ class InternalParquetRecordWriter<T> {
   private static final int MINIMUM_BUFFER_SIZE = 64 * 1024;
   private static final int MINIMUM_RECORD_COUNT_FOR_CHECK = 100;
   private static final int MAXIMUM_RECORD_COUNT_FOR_CHECK = 10000;
+  // how long close waits for the background threads to stop before releasing what they use
+  private static final long SHUTDOWN_TIMEOUT_MS = 10000;
 
   private final ParquetFileWriter w;
   private final WriteSupport<T> writeSupport;
@@ -51,6 +64,20 @@ class InternalParquetRecordWriter<T> {
   private final boolean enableDictionary;
   private final boolean validating;
   private final WriterVersion writerVersion;
+  private final long flushMaxPendingSize;
+  private final ByteBufferAllocator allocator;
+
+  // compression of the pages in parallel, each thread borrowing a compressor from the pool
+  private final ExecutorService compressionExecutor;
+  private final CompressorPool compressorPool;
+
+  // row groups being written in the background, oldest first
+  private final LinkedList<PendingFlush> pendingFlushes = new LinkedList<PendingFlush>();
+  private long pendingFlushSize = 0;
+  private ExecutorService flusher;
+
+  // the row group size, lowered by the memory manager when many writers are open
+  private volatile long rowGroupSizeThreshold;
 
   private long recordCount = 0;
   private long recordCountForNextMemCheck = MINIMUM_RECORD_COUNT_FOR_CHECK;
@@ -65,6 +92,9 @@ class InternalParquetRecordWriter<T> {
    * @param extraMetaData extra meta data to write in the footer of the file
    * @param blockSize the size of a block in the file (this will be approximate)
    * @param codec the codec used to compress
+   * @param flushMaxPendingSize the maximum size of the row groups written in the background, 0 to write them synchronously
+   * @param compressionThreads the number of threads compressing the pages of the columns in parallel, 0 to compress them synchronously
+   * @param allocator allocates the buffers of the column chunks
    */
   public InternalParquetRecordWriter(
       ParquetFileWriter w,
@@ -77,18 +107,39 @@ class InternalParquetRecordWriter<T> {
       int dictionaryPageSize,
       boolean enableDictionary,
       boolean validating,
-      WriterVersion writerVersion) {
+      WriterVersion writerVersion,
+      long flushMaxPendingSize,
+      int compressionThreads,
+      ByteBufferAllocator allocator) {
     this.w = w;
     this.writeSupport = checkNotNull(writeSupport, "writeSupport");
     this.schema = schema;
     this.extraMetaData = extraMetaData;
     this.blockSize = blockSize;
+    this.rowGroupSizeThreshold = blockSize;
     this.pageSize = pageSize;
     this.compressor = compressor;
     this.dictionaryPageSize = dictionaryPageSize;
     this.enableDictionary = enableDictionary;
     this.validating = validating;
     this.writerVersion = writerVersion;
+    this.flushMaxPendingSize = flushMaxPendingSize;
+    this.allocator = checkNotNull(allocator, "allocator");
+    if (compressionThreads > 0) {
+      this.compressionExecutor = Executors.newFixedThreadPool(compressionThreads, new ThreadFactory() {
+        private int threadCount = 0;
+        @Override
+        public synchronized Thread newThread(Runnable r) {
+          Thread thread = new Thread(r, "parquet-page-compressor-" + (++ threadCount));
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+      this.compressorPool = new CompressorPool(compressor);
+    } else {
+      this.compressionExecutor = null;
+      this.compressorPool = null;
+    }
     initStore();
   }
 
@@ -97,7 +148,7 @@ class InternalParquetRecordWriter<T> {
     // ideally we divide the block equally across the columns
     // it is unlikely all columns are going to be the same size.
     int initialBlockBufferSize = max(MINIMUM_BUFFER_SIZE, blockSize / schema.getColumns().size() / 5);
-    pageStore = new ColumnChunkPageWriteStore(compressor, schema, initialBlockBufferSize);
+    pageStore = new ColumnChunkPageWriteStore(compressor, schema, initialBlockBufferSize, compressionExecutor, compressorPool, allocator);
     // we don't want this number to be too small either
     // ideally, slightly bigger than the page size, but not bigger than the block buffer
     int initialPageBufferSize = max(MINIMUM_BUFFER_SIZE, min(pageSize + pageSize / 10, initialBlockBufferSize));
@@ -107,28 +158,72 @@ class InternalParquetRecordWriter<T> {
   }
 
   public void close() throws IOException, InterruptedException {
-    flushStore();
+    try {
+      flushStore();
+      waitForPendingFlushes(0);
+    } finally {
+      if (flusher != null) {
+        flusher.shutdownNow();
+        awaitTermination(flusher, "row group flusher");
+        // the row groups that never started, the others release their store themselves
+        for (PendingFlush pendingFlush : pendingFlushes) {
+          if (pendingFlush.claimed.compareAndSet(false, true)) {
+            pendingFlush.pageStore.release();
+          }
+        }
+        pendingFlushes.clear();
+        pendingFlushSize = 0;
+      }
+      // pages still being compressed write to the buffers of the store
+      boolean compressionTerminated = true;
+      if (compressionExecutor != null) {
+        compressionExecutor.shutdownNow();
+        compressionTerminated = awaitTermination(compressionExecutor, "page compression");
+        if (compressionTerminated) {
+          compressorPool.release();
+        }
+      }
+      if (compressionTerminated) {
+        pageStore.release();
+      }
+    }
     w.end(extraMetaData);
   }
 
+  /**
+   * @return true if the executor terminated in time
+   */
+  private static boolean awaitTermination(ExecutorService executor, String name) {
+    try {
+      if (executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+      LOG.warn(format("%s still running after %,d ms", name, SHUTDOWN_TIMEOUT_MS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOG.warn(format("interrupted while waiting for the %s", name));
+    }
+    return false;
+  }
+
   public void write(T value) throws IOException, InterruptedException {
     writeSupport.write(value);
     ++ recordCount;
     checkBlockSizeReached();
   }
 
-  private void checkBlockSizeReached() throws IOException {
+  private void checkBlockSizeReached() throws IOException, InterruptedException {
     if (recordCount >= recordCountForNextMemCheck) { // checking the memory size is relatively expensive, so let's not do it for every record.
       long memSize = store.memSize();
-      if (memSize > blockSize) {
-        LOG.info(format("mem size %,d > %,d: flushing %,d records to disk.", memSize, blockSize, recordCount));
+      long rowGroupSizeThreshold = this.rowGroupSizeThreshold;
+      if (memSize > rowGroupSizeThreshold) {
+        LOG.info(format("mem size %,d > %,d: flushing %,d records to disk.", memSize, rowGroupSizeThreshold, recordCount));
         flushStore();
-        initStore();
         recordCountForNextMemCheck = min(max(MINIMUM_RECORD_COUNT_FOR_CHECK, recordCount / 2), MAXIMUM_RECORD_COUNT_FOR_CHECK);
       } else {
         float recordSize = (float) memSize / recordCount;
         recordCountForNextMemCheck = min(
-            max(MINIMUM_RECORD_COUNT_FOR_CHECK, (recordCount + (long)(blockSize / recordSize)) / 2), // will check halfway
+            max(MINIMUM_RECORD_COUNT_FOR_CHECK, (recordCount + (long)(rowGroupSizeThreshold / recordSize)) / 2), // will check halfway
             recordCount + MAXIMUM_RECORD_COUNT_FOR_CHECK // will not look more than max records ahead
             );
         if (DEBUG) LOG.debug(format("Checked mem at %,d will check again at: %,d ", recordCount, recordCountForNextMemCheck));
@@ -136,18 +231,126 @@ class InternalParquetRecordWriter<T> {
     }
   }
 
+  /**
+   * @param rowGroupSizeThreshold the size of the row groups, used from the next memory check
+   */
+  void setRowGroupSizeThreshold(long rowGroupSizeThreshold) {
+    this.rowGroupSizeThreshold = rowGroupSizeThreshold;
+  }
+
+  long getRowGroupSizeThreshold() {
+    return rowGroupSizeThreshold;
+  }
+
   private void flushStore()
-      throws IOException {
+      throws IOException, InterruptedException {
     LOG.info(format("Flushing mem store to file. allocated memory: %,d", store.allocatedSize()));
     if (store.allocatedSize() > 3 * blockSize) {
       LOG.warn("Too much memory used: " + store.memUsageString());
     }
-    w.startBlock(recordCount);
     store.flush();
-    pageStore.flushToFileWriter(w);
+    // the compressors of the columns are free for the next row group after that
+    pageStore.waitForPendingPages();
+    if (flushMaxPendingSize > 0) {
+      long size = store.memSize();
+      flushInBackground(pageStore.seal(), recordCount, size);
+    } else {
+      writeRowGroup(pageStore, recordCount);
+    }
+    // the stores and their buffers are reused for the next row group
     recordCount = 0;
+  }
+
+  private void writeRowGroup(ColumnChunkPageWriteStore pageStore, long recordCount) throws IOException {
+    w.startBlock(recordCount);
+    pageStore.flushToFileWriter(w);
     w.endBlock();
-    store = null;
-    pageStore = null;
   }
-}
\ No newline at end of file
+
+  /**
+   * hands the sealed row group to the flusher thread so that the next one can be filled in the mean time.
+   * The file writer is only used by the flusher until the writer is closed.
+   */
+  private void flushInBackground(final ColumnChunkPageWriteStore pageStore, final long recordCount, long size)
+      throws IOException, InterruptedException {
+    // stay under the maximum, a row group bigger than it waits for all the others
+    boolean waited = false;
+    try {
+      waitForPendingFlushes(flushMaxPendingSize - size);
+      waited = true;
+    } finally {
+      if (!waited) {
+        pageStore.release();
+      }
+    }
+    if (flusher == null) {
+      flusher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread thread = new Thread(r, "parquet-row-group-flusher");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    final AtomicBoolean claimed = new AtomicBoolean();
+    Future<?> future = flusher.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws IOException {
+        if (!claimed.compareAndSet(false, true)) {
+          // released by close
+          return null;
+        }
+        boolean written = false;
+        try {
+          writeRowGroup(pageStore, recordCount);
+          written = true;
+        } finally {
+          if (written) {
+            pageStore.recycle();
+          } else {
+            pageStore.release();
+          }
+        }
+        return null;
+      }
+    });
+    pendingFlushes.add(new PendingFlush(future, size, pageStore, claimed));
+    pendingFlushSize += size;
+    if (DEBUG) LOG.debug(format("%,d bytes pending in %d row groups", pendingFlushSize, pendingFlushes.size()));
+  }
+
+  /**
+   * waits for the oldest row groups until the pending size is at most maxSize.
+   * The row groups already written are removed and their errors reported.
+   */
+  private void waitForPendingFlushes(long maxSize) throws IOException, InterruptedException {
+    while (!pendingFlushes.isEmpty() && (pendingFlushSize > maxSize || pendingFlushes.getFirst().future.isDone())) {
+      PendingFlush pendingFlush = pendingFlushes.removeFirst();
+      pendingFlushSize -= pendingFlush.size;
+      try {
+        pendingFlush.future.get();
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException)e.getCause();
+        }
+        throw new IOException("could not write the row group", e.getCause());
+      }
+    }
+  }
+
+  private static final class PendingFlush {
+    private final Future<?> future;
+    private final long size;
+    private final ColumnChunkPageWriteStore pageStore;
+    // set by whichever of the flusher or close gets the store first
+    private final AtomicBoolean claimed;
+
+    private PendingFlush(Future<?> future, long size, ColumnChunkPageWriteStore pageStore, AtomicBoolean claimed) {
+      this.future = future;
+      this.size = size;
+      this.pageStore = pageStore;
+      this.claimed = claimed;
+    }
+  }
+}
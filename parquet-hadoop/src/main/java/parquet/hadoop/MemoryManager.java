@@ -0,0 +1,123 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static java.lang.String.format;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import parquet.Log;
+
+/**
+ * Shares the memory of the JVM between the writers open at the same time.
+ * When the row groups they buffer would use more than the memory pool
+ * (a ratio of the maximum heap), the row group size of every writer is
+ * scaled down by the same factor so that they flush earlier.
+ *
+ * @see ParquetOutputFormat#MEMORY_POOL_RATIO
+ */
+class MemoryManager {
+  private static final Log LOG = Log.getLog(MemoryManager.class);
+
+  static final float DEFAULT_MEMORY_POOL_RATIO = 0.95f;
+  static final long DEFAULT_MIN_MEMORY_ALLOCATION = 1 * 1024 * 1024; // 1MB
+
+  private final long totalMemoryPool;
+  private final long minMemoryAllocation;
+  private final Map<InternalParquetRecordWriter<?>, Long> writerList = new HashMap<InternalParquetRecordWriter<?>, Long>();
+  private double scale = 1.0;
+
+  /**
+   * @param ratio the ratio of the maximum heap the writers can use
+   * @param minAllocation the row group size under which a warning is logged
+   */
+  MemoryManager(float ratio, long minAllocation) {
+    if (ratio <= 0 || ratio > 1) {
+      throw new BadConfigurationException("The memory pool ratio must be in ]0, 1]: " + ratio);
+    }
+    this.totalMemoryPool = (long)(Runtime.getRuntime().maxMemory() * ratio);
+    this.minMemoryAllocation = minAllocation;
+    if (Log.DEBUG) LOG.debug(format("Allocated total memory pool is: %,d", totalMemoryPool));
+  }
+
+  /**
+   * @param writer the writer opened
+   * @param allocation the row group size it was configured with
+   */
+  synchronized void addWriter(InternalParquetRecordWriter<?> writer, long allocation) {
+    if (writerList.containsKey(writer)) {
+      throw new IllegalArgumentException("[BUG] The writer is already added to the memory manager");
+    }
+    writerList.put(writer, allocation);
+    updateAllocation();
+  }
+
+  /**
+   * @param writer the writer closed
+   */
+  synchronized void removeWriter(InternalParquetRecordWriter<?> writer) {
+    if (writerList.remove(writer) != null) {
+      updateAllocation();
+    }
+  }
+
+  /**
+   * gives each writer its row group size scaled down to fit in the pool
+   */
+  private void updateAllocation() {
+    long totalAllocations = 0;
+    for (Long allocation : writerList.values()) {
+      totalAllocations += allocation;
+    }
+    if (totalAllocations <= totalMemoryPool) {
+      scale = 1.0;
+    } else {
+      scale = (double)totalMemoryPool / totalAllocations;
+      LOG.warn(format(
+          "Total allocation exceeds %.2f%% (%,d bytes) of heap memory: scaling row group sizes to %.2f%% for %d writers",
+          100 * (double)totalMemoryPool / Runtime.getRuntime().maxMemory(), totalMemoryPool, 100 * scale, writerList.size()));
+    }
+    for (Map.Entry<InternalParquetRecordWriter<?>, Long> entry : writerList.entrySet()) {
+      long newSize = (long)Math.floor(entry.getValue() * scale);
+      if (newSize < minMemoryAllocation) {
+        LOG.warn(format("The row group size %,d of a writer is below the minimum %,d: too many writers are open", newSize, minMemoryAllocation));
+      }
+      entry.getKey().setRowGroupSizeThreshold(newSize);
+    }
+  }
+
+  /**
+   * @return the memory the writers can use in bytes
+   */
+  long getTotalMemoryPool() {
+    return totalMemoryPool;
+  }
+
+  /**
+   * @return the ratio the row group sizes are scaled with
+   */
+  synchronized double getScale() {
+    return scale;
+  }
+
+  /**
+   * @return the number of writers open
+   */
+  synchronized int getWriterCount() {
+    return writerList.size();
+  }
+}
@@ -19,11 +19,23 @@ import static parquet.Log.DEBUG;
 import static parquet.bytes.BytesUtils.readIntLittleEndian;
 import static parquet.hadoop.ParquetFileWriter.MAGIC;
 import static parquet.hadoop.ParquetFileWriter.PARQUET_METADATA_FILE;
+import static parquet.hadoop.ParquetInputFormat.CHUNK_MAX_GAP;
+import static parquet.hadoop.ParquetInputFormat.CHUNK_MAX_READ_SIZE;
+import static parquet.hadoop.ParquetInputFormat.FOOTER_READ_PARALLELISM;
+import static parquet.hadoop.ParquetInputFormat.FOOTER_READ_SIZE;
+import static parquet.hadoop.ParquetInputFormat.LAZY_COLUMN_METADATA;
+import static parquet.hadoop.ParquetInputFormat.MEMORY_MAP_ENABLED;
+import static parquet.hadoop.ParquetInputFormat.STREAMING_READ_ENABLED;
 
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -34,10 +46,16 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -47,20 +65,25 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapred.Utils;
 
 import parquet.Log;
+import parquet.bytes.DirectByteBufferAllocator;
 import parquet.bytes.BytesInput;
 import parquet.column.ColumnDescriptor;
 import parquet.column.page.DictionaryPage;
+import parquet.column.page.DictionaryPageReadStore;
 import parquet.column.page.Page;
 import parquet.column.page.PageReadStore;
+import parquet.column.page.PageReader;
+import parquet.common.schema.ColumnPath;
 import parquet.format.PageHeader;
+import parquet.format.PageType;
 import parquet.format.Util;
 import parquet.format.converter.ParquetMetadataConverter;
 import parquet.hadoop.CodecFactory.BytesDecompressor;
 import parquet.hadoop.ColumnChunkPageReadStore.ColumnChunkPageReader;
 import parquet.hadoop.metadata.BlockMetaData;
 import parquet.hadoop.metadata.ColumnChunkMetaData;
-import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.hadoop.util.ByteArrayPool;
 import parquet.hadoop.util.counters.BenchmarkCounter;
 import parquet.io.ParquetDecodingException;
 
@@ -74,6 +97,18 @@ public class ParquetFileReader implements Closeable {
 
   private static final Log LOG = Log.getLog(ParquetFileReader.class);
 
+  private static final int DEFAULT_FOOTER_READ_SIZE = 64 * 1024;
+
+  private static final int DEFAULT_FOOTER_READ_PARALLELISM = 5;
+
+  private static final long FOOTER_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+  // shared by all the footer reads, sized to the highest parallelism requested. Guarded by the class.
+  private static ThreadPoolExecutor footerExecutor;
+
+  // size of the buffer used to read the page headers in streaming mode
+  private static final int STREAMING_BUFFER_SIZE = 8 * 1024;
+
   private static ParquetMetadataConverter parquetMetadataConverter = new ParquetMetadataConverter();
 
   /**
@@ -120,7 +155,7 @@ public class ParquetFileReader implements Closeable {
 
     Map<Path, Footer> cache = new HashMap<Path, Footer>();
     try {
-      List<Map<Path, Footer>> footersFromSummaries = runAllInParallel(5, summaries);
+      List<Map<Path, Footer>> footersFromSummaries = runAllInParallel(configuration, summaries);
       for (Map<Path, Footer> footers : footersFromSummaries) {
         cache.putAll(footers);
       }
@@ -149,24 +184,79 @@ public class ParquetFileReader implements Closeable {
     return result;
   }
 
-  private static <T> List<T> runAllInParallel(int parallelism, List<Callable<T>> toRun) throws ExecutionException {
-    ExecutorService threadPool = Executors.newFixedThreadPool(parallelism);
+  private static int getFooterReadParallelism(Configuration configuration) {
+    int parallelism = configuration.getInt(FOOTER_READ_PARALLELISM, DEFAULT_FOOTER_READ_PARALLELISM);
+    if (parallelism < 1) {
+      throw new BadConfigurationException(FOOTER_READ_PARALLELISM + " must be positive: " + parallelism);
+    }
+    return parallelism;
+  }
+
+  /**
+   * @param parallelism the number of footers read in parallel by the caller
+   * @return the executor shared by all the footer reads, with at least that many threads
+   */
+  private static synchronized ExecutorService getFooterExecutor(int parallelism) {
+    if (footerExecutor == null) {
+      footerExecutor = new ThreadPoolExecutor(
+          parallelism, parallelism,
+          FOOTER_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(),
+          new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable r) {
+              Thread thread = new Thread(r, "parquet-footer-reader-" + threadCount.incrementAndGet());
+              // the threads must not prevent the JVM from exiting
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+      // idle threads go away when there is nothing to read
+      footerExecutor.allowCoreThreadTimeOut(true);
+    } else if (parallelism > footerExecutor.getCorePoolSize()) {
+      // grow the maximum first, it can not be lower than the core size
+      footerExecutor.setMaximumPoolSize(parallelism);
+      footerExecutor.setCorePoolSize(parallelism);
+    }
+    return footerExecutor;
+  }
+
+  /**
+   * runs the tasks in the shared executor and collects the results as they complete.
+   * At most the configured parallelism of tasks are submitted at a time.
+   * If one fails, the others are cancelled.
+   * @return the results in the same order as the tasks
+   */
+  private static <T> List<T> runAllInParallel(Configuration configuration, List<Callable<T>> toRun) throws ExecutionException {
+    int parallelism = getFooterReadParallelism(configuration);
+    CompletionService<T> completionService = new ExecutorCompletionService<T>(getFooterExecutor(parallelism));
+    Map<Future<T>, Integer> futures = new HashMap<Future<T>, Integer>();
     try {
-      List<Future<T>> futures = new ArrayList<Future<T>>();
-      for (Callable<T> callable : toRun) {
-        futures.add(threadPool.submit(callable));
-      }
-      List<T> result = new ArrayList<T>(toRun.size());
-      for (Future<T> future : futures) {
-        try {
-          result.add(future.get());
-        } catch (InterruptedException e) {
-          throw new RuntimeException("The thread was interrupted", e);
+      int submitted = 0;
+      for (; submitted < toRun.size() && submitted < parallelism; submitted++) {
+        futures.put(completionService.submit(toRun.get(submitted)), submitted);
+      }
+      Object[] result = new Object[toRun.size()];
+      for (int i = 0; i < result.length; i++) {
+        Future<T> future = completionService.take();
+        result[futures.remove(future)] = future.get();
+        if (submitted < toRun.size()) {
+          futures.put(completionService.submit(toRun.get(submitted)), submitted);
+          submitted++;
         }
       }
-      return result;
+      @SuppressWarnings("unchecked")
+      List<T> resultList = (List<T>)Arrays.asList(result);
+      return resultList;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("The thread was interrupted", e);
     } finally {
-      threadPool.shutdownNow();
+      // fail fast: cancel the tasks still pending after a failure
+      for (Future<T> future : futures.keySet()) {
+        future.cancel(true);
+      }
     }
   }
 
@@ -185,7 +275,7 @@ public class ParquetFileReader implements Closeable {
       });
     }
     try {
-      return runAllInParallel(5, footers);
+      return runAllInParallel(configuration, footers);
     } catch (ExecutionException e) {
       throw new IOException("Could not read footer: " + e.getMessage(), e.getCause());
     }
@@ -262,12 +352,20 @@ public class ParquetFileReader implements Closeable {
 
   /**
    * Reads the meta data block in the footer of the file
+   * or gets it from the {@link FooterCache} if enabled.
    * @param configuration
    * @param file the parquet File
-   * @return the metadata blocks in the footer
+   * @return the metadata blocks in the footer, shared with the other readers and not to be modified if the cache is enabled
    * @throws IOException if an error occurs while reading the file
    */
   public static final ParquetMetadata readFooter(Configuration configuration, FileStatus file) throws IOException {
+    FooterCache footerCache = FooterCache.get(configuration);
+    if (footerCache != null) {
+      ParquetMetadata footer = footerCache.get(file);
+      if (footer != null) {
+        return footer;
+      }
+    }
     FileSystem fileSystem = file.getPath().getFileSystem(configuration);
     FSDataInputStream f = fileSystem.open(file.getPath());
     try {
@@ -278,12 +376,15 @@ public class ParquetFileReader implements Closeable {
         throw new RuntimeException(file.getPath() + " is not a Parquet file (too small)");
       }
       long footerLengthIndex = l - FOOTER_LENGTH_SIZE - MAGIC.length;
-      if (Log.DEBUG) LOG.debug("reading footer index at " + footerLengthIndex);
+      // read the end of the file at once, hopefully including the footer
+      int tailLength = (int)Math.min(l, Math.max(FOOTER_LENGTH_SIZE + MAGIC.length, configuration.getInt(FOOTER_READ_SIZE, DEFAULT_FOOTER_READ_SIZE)));
+      long tailIndex = l - tailLength;
+      if (Log.DEBUG) LOG.debug("reading the last " + tailLength + " bytes for the footer index at " + footerLengthIndex);
+      byte[] tail = new byte[tailLength];
+      f.readFully(tailIndex, tail);
 
-      f.seek(footerLengthIndex);
-      int footerLength = readIntLittleEndian(f);
-      byte[] magic = new byte[MAGIC.length];
-      f.readFully(magic);
+      int footerLength = readIntLittleEndian(tail, tailLength - FOOTER_LENGTH_SIZE - MAGIC.length);
+      byte[] magic = Arrays.copyOfRange(tail, tailLength - MAGIC.length, tailLength);
       if (!Arrays.equals(MAGIC, magic)) {
         throw new RuntimeException(file.getPath() + " is not a Parquet file. expected magic number at tail " + Arrays.toString(MAGIC) + " but found " + Arrays.toString(magic));
       }
@@ -292,17 +393,45 @@ public class ParquetFileReader implements Closeable {
       if (footerIndex < MAGIC.length || footerIndex >= footerLengthIndex) {
         throw new RuntimeException("corrupted file: the footer index is not within the file");
       }
-      f.seek(footerIndex);
-      return parquetMetadataConverter.readParquetMetadata(f);
+      byte[] footer;
+      int footerOffset;
+      if (footerIndex >= tailIndex) {
+        footer = tail;
+        footerOffset = (int)(footerIndex - tailIndex);
+      } else {
+        // the footer is larger than what we read: read the missing beginning
+        if (Log.DEBUG) LOG.debug("footer not in the last " + tailLength + " bytes, reading " + (tailIndex - footerIndex) + " more");
+        footer = new byte[footerLength];
+        footerOffset = 0;
+        int missing = (int)(tailIndex - footerIndex);
+        f.readFully(footerIndex, footer, 0, missing);
+        System.arraycopy(tail, 0, footer, missing, footerLength - missing);
+      }
+      ParquetMetadata parquetMetadata = parquetMetadataConverter.readParquetMetadata(
+          new ByteArrayInputStream(footer, footerOffset, footerLength),
+          configuration.getBoolean(LAZY_COLUMN_METADATA, false));
+      if (footerCache != null) {
+        footerCache.put(file, parquetMetadata, footerLength);
+      }
+      return parquetMetadata;
     } finally {
       f.close();
     }
   }
 
   private final CodecFactory codecFactory;
+  // the dictionaries of the next row group can be read ahead by another thread while the pages of
+  // the current one are decompressed. The decompressors are not thread safe so they are not shared.
+  private final CodecFactory dictionaryCodecFactory;
   private final List<BlockMetaData> blocks;
   private final FSDataInputStream f;
   private final Path filePath;
+  private final ByteArrayPool bufferPool;
+  private final long maxGap;
+  private final long maxReadSize;
+  private final boolean streaming;
+  // the whole file when it is local and memory mapping is enabled
+  private final ByteBuffer mappedFile;
   private int currentBlock = 0;
   private final Map<ColumnPath, ColumnDescriptor> paths = new HashMap<ColumnPath, ColumnDescriptor>();
 
@@ -314,18 +443,67 @@ public class ParquetFileReader implements Closeable {
    * @throws IOException if the file can not be opened
    */
   public ParquetFileReader(Configuration configuration, Path filePath, List<BlockMetaData> blocks, List<ColumnDescriptor> columns) throws IOException {
+    this(configuration, filePath, blocks, columns, null);
+  }
+
+  /**
+   * @param f the Parquet file (will be opened for read in this constructor)
+   * @param blocks the blocks to read
+   * @param colums the columns to read (their path)
+   * @param bufferPool the pool to borrow the buffers the column chunks are read into from or null to allocate them
+   * @throws IOException if the file can not be opened
+   */
+  public ParquetFileReader(Configuration configuration, Path filePath, List<BlockMetaData> blocks, List<ColumnDescriptor> columns, ByteArrayPool bufferPool) throws IOException {
     this.filePath = filePath;
+    this.bufferPool = bufferPool;
+    this.maxGap = configuration.getLong(CHUNK_MAX_GAP, 0);
+    this.maxReadSize = configuration.getLong(CHUNK_MAX_READ_SIZE, Integer.MAX_VALUE);
+    this.streaming = configuration.getBoolean(STREAMING_READ_ENABLED, false);
     FileSystem fs = filePath.getFileSystem(configuration);
     this.f = fs.open(filePath);
+    if (configuration.getBoolean(MEMORY_MAP_ENABLED, false)) {
+      this.mappedFile = map(fs, filePath);
+    } else {
+      this.mappedFile = null;
+    }
     this.blocks = blocks;
     for (ColumnDescriptor col : columns) {
       paths.put(ColumnPath.get(col.getPath()), col);
     }
     this.codecFactory = new CodecFactory(configuration);
+    this.dictionaryCodecFactory = new CodecFactory(configuration);
+  }
+
+  /**
+   * @param fs the file system of the file
+   * @param filePath the file to map
+   * @return the content of the file if it is on the local file system and can be mapped in one buffer, null otherwise
+   * @throws IOException if the mapping fails
+   */
+  private static ByteBuffer map(FileSystem fs, Path filePath) throws IOException {
+    Path qualifiedPath = fs.makeQualified(filePath);
+    if (!"file".equals(qualifiedPath.toUri().getScheme())) {
+      if (DEBUG) LOG.debug(filePath + " is not local, it will not be memory mapped");
+      return null;
+    }
+    RandomAccessFile file = new RandomAccessFile(new File(qualifiedPath.toUri()), "r");
+    try {
+      long length = file.length();
+      if (length > Integer.MAX_VALUE) {
+        LOG.info(filePath + " is too large to be memory mapped: " + length);
+        return null;
+      }
+      // the mapping remains valid after the file is closed
+      return file.getChannel().map(MapMode.READ_ONLY, 0, length);
+    } finally {
+      file.close();
+    }
   }
 
   /**
    * Reads all the columns requested from the row group at the current file position.
+   * In streaming mode the pages are read from the file one at a time when they are requested instead.
+   * If the file is memory mapped, the pages refer to the mapped file.
    * @throws IOException if an error occurs while reading
    * @return the PageReadStore which can provide PageReaders for each column.
    */
@@ -337,18 +515,49 @@ public class ParquetFileReader implements Closeable {
     if (block.getRowCount() == 0) {
       throw new RuntimeException("Illegal row group of 0 rows");
     }
-    ColumnChunkPageReadStore columnChunkPageReadStore = new ColumnChunkPageReadStore(block.getRowCount());
-    // prepare the list of consecutive chunks to read them in one scan
+    BenchmarkCounter.incrementTotalBytes(block.getCompressedSize());
+    // only the metadata of the requested columns is needed
+    List<ColumnChunkMetaData> requestedColumns = block.getColumns(paths.keySet());
+    if (mappedFile != null) {
+      ColumnChunkPageReadStore columnChunkPageReadStore = new ColumnChunkPageReadStore(block.getRowCount());
+      for (ColumnChunkMetaData mc : requestedColumns) {
+        ColumnDescriptor columnDescriptor = paths.get(mc.getPath());
+        if (columnDescriptor != null) {
+          ChunkDescriptor descriptor = new ChunkDescriptor(columnDescriptor, mc, mc.getStartingPos(), (int)mc.getTotalSize());
+          BenchmarkCounter.incrementBytesRead(descriptor.size);
+          columnChunkPageReadStore.addColumn(columnDescriptor, new MappedChunk(descriptor, mappedFile).readAllPages());
+        }
+      }
+      ++currentBlock;
+      return columnChunkPageReadStore;
+    }
+    if (streaming) {
+      ColumnChunkPageReadStore columnChunkPageReadStore = new ColumnChunkPageReadStore(block.getRowCount());
+      for (ColumnChunkMetaData mc : requestedColumns) {
+        ColumnDescriptor columnDescriptor = paths.get(mc.getPath());
+        if (columnDescriptor != null) {
+          ChunkDescriptor descriptor = new ChunkDescriptor(columnDescriptor, mc, mc.getStartingPos(), (int)mc.getTotalSize());
+          columnChunkPageReadStore.addColumn(columnDescriptor, new StreamingChunkPageReader(descriptor));
+        }
+      }
+      ++currentBlock;
+      return columnChunkPageReadStore;
+    }
+    ColumnChunkPageReadStore columnChunkPageReadStore = new ColumnChunkPageReadStore(block.getRowCount(), bufferPool);
+    // prepare the list of consecutive chunks to read them in one scan,
+    // chunks separated by at most maxGap bytes are considered consecutive
     List<ConsecutiveChunkList> allChunks = new ArrayList<ConsecutiveChunkList>();
     ConsecutiveChunkList currentChunks = null;
-    for (ColumnChunkMetaData mc : block.getColumns()) {
+    for (ColumnChunkMetaData mc : requestedColumns) {
       ColumnPath pathKey = mc.getPath();
-      BenchmarkCounter.incrementTotalBytes(mc.getTotalSize());
       ColumnDescriptor columnDescriptor = paths.get(pathKey);
       if (columnDescriptor != null) {
         long startingPos = mc.getStartingPos();
-        // first chunk or not consecutive => new list
-        if (currentChunks == null || currentChunks.endPos() != startingPos) {
+        // first chunk, not consecutive or too large => new list
+        if (currentChunks == null
+            || startingPos < currentChunks.endPos()
+            || startingPos - currentChunks.endPos() > maxGap
+            || startingPos + mc.getTotalSize() - currentChunks.offset > maxReadSize) {
           currentChunks = new ConsecutiveChunkList(startingPos);
           allChunks.add(currentChunks);
         }
@@ -357,7 +566,7 @@ public class ParquetFileReader implements Closeable {
     }
     // actually read all the chunks
     for (ConsecutiveChunkList consecutiveChunks : allChunks) {
-      final List<Chunk> chunks = consecutiveChunks.readAll(f);
+      final List<Chunk> chunks = consecutiveChunks.readAll(f, columnChunkPageReadStore);
       for (Chunk chunk : chunks) {
         columnChunkPageReadStore.addColumn(chunk.descriptor.col, chunk.readAllPages());
       }
@@ -366,12 +575,103 @@ public class ParquetFileReader implements Closeable {
     return columnChunkPageReadStore;
   }
 
+  /**
+   * Provides the dictionary pages of the next row group without reading its data pages
+   * so that it can be evaluated before being read or skipped.
+   * The dictionary pages are read on demand and any column of the file can be requested.
+   * @return the dictionaries of the next row group or null if there are no more row groups
+   */
+  public DictionaryPageReadStore getNextDictionaryReader() {
+    if (currentBlock == blocks.size()) {
+      return null;
+    }
+    return new DictionaryPageReader(blocks.get(currentBlock));
+  }
+
+  /**
+   * Moves to the following row group without reading the next one.
+   * @return false if there are no more row groups
+   */
+  public boolean skipNextRowGroup() {
+    if (currentBlock == blocks.size()) {
+      return false;
+    }
+    ++currentBlock;
+    return true;
+  }
 
+  /**
+   * @param chunk the metadata of the column chunk
+   * @return the decompressed dictionary page or null if the chunk does not start with one
+   * @throws IOException if an error occurs while reading
+   */
+  private DictionaryPage readDictionaryPage(ColumnChunkMetaData chunk) throws IOException {
+    // the dictionary page is the first page of the chunk
+    f.seek(chunk.getStartingPos());
+    PageHeader pageHeader = Util.readPageHeader(f);
+    if (pageHeader.type != PageType.DICTIONARY_PAGE) {
+      return null;
+    }
+    byte[] compressedBytes = new byte[pageHeader.compressed_page_size];
+    f.readFully(compressedBytes);
+    BenchmarkCounter.incrementBytesRead(compressedBytes.length);
+    BytesDecompressor decompressor = dictionaryCodecFactory.getDecompressor(chunk.getCodec());
+    return new DictionaryPage(
+        decompressor.decompress(BytesInput.from(compressedBytes), pageHeader.uncompressed_page_size),
+        pageHeader.dictionary_page_header.num_values,
+        parquetMetadataConverter.getEncoding(pageHeader.dictionary_page_header.encoding));
+  }
 
+  /**
+   * reads the dictionary pages of a row group from the file
+   */
+  private class DictionaryPageReader implements DictionaryPageReadStore {
+
+    private final BlockMetaData block;
+
+    DictionaryPageReader(BlockMetaData block) {
+      this.block = block;
+    }
+
+    @Override
+    public DictionaryPage readDictionaryPage(ColumnDescriptor descriptor) {
+      List<ColumnChunkMetaData> chunks = block.getColumns(Collections.singleton(ColumnPath.get(descriptor.getPath())));
+      if (chunks.isEmpty()) {
+        return null;
+      }
+      ColumnChunkMetaData chunk = chunks.get(0);
+      try {
+        return ParquetFileReader.this.readDictionaryPage(chunk);
+      } catch (IOException e) {
+        throw new ParquetDecodingException("could not read the dictionary page of " + descriptor + " in " + filePath, e);
+      }
+    }
+  }
+
+
+
+  /**
+   * closes the file and unmaps it if it was memory mapped:
+   * the pages read from a mapped file must not be used afterwards.
+   */
   @Override
   public void close() throws IOException {
-    f.close();
-    this.codecFactory.release();
+    close(true);
+  }
+
+  /**
+   * @param unmap false to leave the mapping to the garbage collector when a thread may still be reading the pages
+   */
+  void close(boolean unmap) throws IOException {
+    try {
+      f.close();
+    } finally {
+      if (unmap && mappedFile != null) {
+        DirectByteBufferAllocator.free(mappedFile);
+      }
+      this.codecFactory.release();
+      this.dictionaryCodecFactory.release();
+    }
   }
 
   /**
@@ -384,14 +684,24 @@ public class ParquetFileReader implements Closeable {
 
     private final ChunkDescriptor descriptor;
 
+    /**
+     * for subclasses that do not read from an array
+     * @param descriptor descriptor for the chunk
+     */
+    protected Chunk(ChunkDescriptor descriptor) {
+      super(new byte[0]);
+      this.descriptor = descriptor;
+    }
+
     /**
      *
      * @param descriptor descriptor for the chunk
      * @param data contains the chunk data at offset
      * @param offset where the chunk starts in offset
+     * @param length the length of the data in the buffer (it can be bigger when pooled)
      */
-    public Chunk(ChunkDescriptor descriptor, byte[] data, int offset) {
-      super(data);
+    public Chunk(ChunkDescriptor descriptor, byte[] data, int offset, int length) {
+      super(data, 0, length);
       this.descriptor = descriptor;
       this.pos = offset;
     }
@@ -416,9 +726,14 @@ public class ParquetFileReader implements Closeable {
             if (dictionaryPage != null) {
               throw new ParquetDecodingException("more than one dictionary page in column " + descriptor.col);
             }
+            BytesInput dictionaryBytes = this.readAsBytesInput(pageHeader.compressed_page_size);
+            if (bufferPool != null) {
+              // the dictionary can be read after the buffer went back to the pool
+              dictionaryBytes = BytesInput.copy(dictionaryBytes);
+            }
             dictionaryPage =
                 new DictionaryPage(
-                    this.readAsBytesInput(pageHeader.compressed_page_size),
+                    dictionaryBytes,
                     pageHeader.uncompressed_page_size,
                     pageHeader.dictionary_page_header.num_values,
                     parquetMetadataConverter.getEncoding(pageHeader.dictionary_page_header.encoding)
@@ -489,10 +804,11 @@ public class ParquetFileReader implements Closeable {
      * @param descriptor the descriptor of the chunk
      * @param data contains the data of the chunk at offset
      * @param offset where the chunk starts in data
+     * @param length the length of the data in the buffer
      * @param f the file stream positioned at the end of this chunk
      */
-    private WorkaroundChunk(ChunkDescriptor descriptor, byte[] data, int offset, FSDataInputStream f) {
-      super(descriptor, data, offset);
+    private WorkaroundChunk(ChunkDescriptor descriptor, byte[] data, int offset, int length, FSDataInputStream f) {
+      super(descriptor, data, offset, length);
       this.f = f;
     }
 
@@ -531,6 +847,254 @@ public class ParquetFileReader implements Closeable {
   }
 
 
+  /**
+   * a column chunk in the memory mapped file.
+   * The pages refer to the mapping instead of being copied.
+   * Since the file is mapped entirely, the chunks whose size is too small because of a now fixed bug
+   * can be read without a workaround.
+   */
+  private class MappedChunk extends Chunk {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+
+    /**
+     * @param descriptor the descriptor of the chunk
+     * @param mappedFile the whole file
+     */
+    private MappedChunk(ChunkDescriptor descriptor, ByteBuffer mappedFile) {
+      super(descriptor);
+      this.buffer = mappedFile.duplicate();
+      this.offset = (int)descriptor.fileOffset;
+      this.buffer.position(offset);
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int read = Math.min(len, buffer.remaining());
+      buffer.get(b, off, read);
+      return read;
+    }
+
+    @Override
+    public long skip(long n) {
+      int skipped = (int)Math.min(n, buffer.remaining());
+      buffer.position(buffer.position() + skipped);
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+
+    @Override
+    public int pos() {
+      return buffer.position() - offset;
+    }
+
+    @Override
+    public BytesInput readAsBytesInput(int size) throws IOException {
+      ByteBuffer page = buffer.duplicate();
+      page.limit(buffer.position() + size);
+      buffer.position(buffer.position() + size);
+      return BytesInput.from(page);
+    }
+
+  }
+
+  /**
+   * Reads the pages of a column chunk from the file when they are requested
+   * so that only the current page of the chunk is in memory.
+   * It uses positioned reads and does not change the position of the file stream.
+   * The stream interface is used to parse the page headers.
+   */
+  private class StreamingChunkPageReader extends InputStream implements PageReader {
+
+    private final ChunkDescriptor descriptor;
+    private final BytesDecompressor decompressor;
+    // buffers the page headers, the pages are read directly
+    private final byte[] buffer;
+    // position in the file of buffer[0]
+    private long bufferOffset;
+    private int bufferPos;
+    private int bufferCount;
+    private boolean started;
+    private DictionaryPage compressedDictionaryPage;
+    // the header of the first data page, read when looking for the dictionary page
+    private PageHeader firstPageHeader;
+    private long valuesCountReadSoFar;
+
+    /**
+     * @param descriptor the chunk to read
+     */
+    StreamingChunkPageReader(ChunkDescriptor descriptor) {
+      this.descriptor = descriptor;
+      this.decompressor = codecFactory.getDecompressor(descriptor.metadata.getCodec());
+      this.buffer = new byte[Math.max(1, Math.min(descriptor.size, STREAMING_BUFFER_SIZE))];
+      this.bufferOffset = descriptor.fileOffset;
+    }
+
+    /**
+     * the dictionary page is the first page of the chunk if present
+     */
+    private void start() throws IOException {
+      if (started) {
+        return;
+      }
+      started = true;
+      if (descriptor.metadata.getValueCount() == 0) {
+        return;
+      }
+      PageHeader pageHeader = Util.readPageHeader(this);
+      if (pageHeader.type == PageType.DICTIONARY_PAGE) {
+        compressedDictionaryPage = new DictionaryPage(
+            BytesInput.from(readBytes(pageHeader.compressed_page_size)),
+            pageHeader.uncompressed_page_size,
+            pageHeader.dictionary_page_header.num_values,
+            parquetMetadataConverter.getEncoding(pageHeader.dictionary_page_header.encoding)
+            );
+      } else {
+        firstPageHeader = pageHeader;
+      }
+    }
+
+    @Override
+    public DictionaryPage readDictionaryPage() {
+      try {
+        start();
+        if (compressedDictionaryPage == null) {
+          return null;
+        }
+        return new DictionaryPage(
+            decompressor.decompress(compressedDictionaryPage.getBytes(), compressedDictionaryPage.getUncompressedSize()),
+            compressedDictionaryPage.getDictionarySize(),
+            compressedDictionaryPage.getEncoding());
+      } catch (IOException e) {
+        throw new ParquetDecodingException("could not read the dictionary page of column " + descriptor.col + " in " + filePath, e);
+      }
+    }
+
+    @Override
+    public long getTotalValueCount() {
+      return descriptor.metadata.getValueCount();
+    }
+
+    @Override
+    public Page readPage() {
+      try {
+        start();
+        while (valuesCountReadSoFar < descriptor.metadata.getValueCount()) {
+          PageHeader pageHeader;
+          if (firstPageHeader != null) {
+            pageHeader = firstPageHeader;
+            firstPageHeader = null;
+          } else {
+            pageHeader = Util.readPageHeader(this);
+          }
+          switch (pageHeader.type) {
+            case DICTIONARY_PAGE:
+              throw new ParquetDecodingException("more than one dictionary page in column " + descriptor.col);
+            case DATA_PAGE:
+              BytesInput compressedBytes = BytesInput.from(readBytes(pageHeader.compressed_page_size));
+              valuesCountReadSoFar += pageHeader.data_page_header.num_values;
+              if (valuesCountReadSoFar > descriptor.metadata.getValueCount()) {
+                throw new ParquetDecodingException(
+                    "Expected " + descriptor.metadata.getValueCount() + " values in column chunk at " +
+                    filePath + " offset " + descriptor.metadata.getFirstDataPageOffset() +
+                    " but got " + valuesCountReadSoFar + " values");
+              }
+              return new Page(
+                  decompressor.decompress(compressedBytes, pageHeader.uncompressed_page_size),
+                  pageHeader.data_page_header.num_values,
+                  pageHeader.uncompressed_page_size,
+                  parquetMetadataConverter.fromParquetStatistics(pageHeader.data_page_header.statistics, descriptor.col.getType()),
+                  parquetMetadataConverter.getEncoding(pageHeader.data_page_header.repetition_level_encoding),
+                  parquetMetadataConverter.getEncoding(pageHeader.data_page_header.definition_level_encoding),
+                  parquetMetadataConverter.getEncoding(pageHeader.data_page_header.encoding)
+                  );
+            default:
+              if (DEBUG) LOG.debug("skipping page of type " + pageHeader.type + " of size " + pageHeader.compressed_page_size);
+              readBytes(pageHeader.compressed_page_size);
+              break;
+          }
+        }
+        return null;
+      } catch (IOException e) {
+        throw new ParquetDecodingException("could not read a page of column " + descriptor.col + " in " + filePath, e);
+      }
+    }
+
+    /**
+     * reads the next bytes of the chunk, bypassing the buffer once it is empty
+     * @param size the number of bytes to read
+     * @return the bytes
+     * @throws IOException
+     */
+    private byte[] readBytes(int size) throws IOException {
+      byte[] bytes = new byte[size];
+      int buffered = Math.min(size, bufferCount - bufferPos);
+      System.arraycopy(buffer, bufferPos, bytes, 0, buffered);
+      bufferPos += buffered;
+      if (buffered < size) {
+        long position = bufferOffset + bufferCount;
+        f.readFully(position, bytes, buffered, size - buffered);
+        BenchmarkCounter.incrementBytesRead(size - buffered);
+        bufferOffset = position + size - buffered;
+        bufferPos = bufferCount = 0;
+      }
+      return bytes;
+    }
+
+    /**
+     * fills the buffer with the bytes following it.
+     * It may read past the end of the chunk as the size of some chunks is too small because of a now fixed bug.
+     * @return false if the end of the file was reached
+     */
+    private boolean fill() throws IOException {
+      bufferOffset += bufferCount;
+      bufferPos = bufferCount = 0;
+      int read = f.read(bufferOffset, buffer, 0, buffer.length);
+      if (read <= 0) {
+        return false;
+      }
+      BenchmarkCounter.incrementBytesRead(read);
+      bufferCount = read;
+      return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (bufferPos == bufferCount && !fill()) {
+        return -1;
+      }
+      return buffer[bufferPos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (bufferPos == bufferCount && !fill()) {
+        return -1;
+      }
+      int read = Math.min(len, bufferCount - bufferPos);
+      System.arraycopy(buffer, bufferPos, b, off, read);
+      bufferPos += read;
+      return read;
+    }
+
+  }
+
   /**
    * information needed to read a column chunk
    */
@@ -562,6 +1126,7 @@ public class ParquetFileReader implements Closeable {
 
   /**
    * describes a list of consecutive column chunks to be read at once.
+   * There may be gaps between the chunks, which are read and ignored.
    *
    * @author Julien Le Dem
    */
@@ -580,36 +1145,42 @@ public class ParquetFileReader implements Closeable {
 
     /**
      * adds a chunk to the list.
-     * It must be consecutive to the previous chunk
+     * It must be after the previous chunk
      * @param descriptor
      */
     public void addChunk(ChunkDescriptor descriptor) {
       chunks.add(descriptor);
-      length += descriptor.size;
+      length = (int)(descriptor.fileOffset + descriptor.size - offset);
     }
 
     /**
      * @param f file to read the chunks from
+     * @param rowGroup the row group the chunks belong to, it gets the buffer back to the pool
      * @return the chunks
      * @throws IOException
      */
-    public List<Chunk> readAll(FSDataInputStream f) throws IOException {
+    public List<Chunk> readAll(FSDataInputStream f, ColumnChunkPageReadStore rowGroup) throws IOException {
       List<Chunk> result = new ArrayList<Chunk>(chunks.size());
       f.seek(offset);
-      byte[] chunksBytes = new byte[length];
-      f.readFully(chunksBytes);
+      byte[] chunksBytes;
+      if (bufferPool == null) {
+        chunksBytes = new byte[length];
+      } else {
+        chunksBytes = bufferPool.allocate(length);
+        rowGroup.addPooledBuffer(chunksBytes);
+      }
+      f.readFully(chunksBytes, 0, length);
       // report in a counter the data we just scanned
       BenchmarkCounter.incrementBytesRead(length);
-      int currentChunkOffset = 0;
       for (int i = 0; i < chunks.size(); i++) {
         ChunkDescriptor descriptor = chunks.get(i);
+        int currentChunkOffset = (int)(descriptor.fileOffset - offset);
         if (i < chunks.size() - 1) {
-          result.add(new Chunk(descriptor, chunksBytes, currentChunkOffset));
+          result.add(new Chunk(descriptor, chunksBytes, currentChunkOffset, length));
         } else {
           // because of a bug, the last chunk might be larger than descriptor.size
-          result.add(new WorkaroundChunk(descriptor, chunksBytes, currentChunkOffset, f));
+          result.add(new WorkaroundChunk(descriptor, chunksBytes, currentChunkOffset, length, f));
         }
-        currentChunkOffset += descriptor.size;
       }
       return result ;
     }
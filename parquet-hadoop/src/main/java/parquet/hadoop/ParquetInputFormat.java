@@ -16,11 +16,16 @@
 package parquet.hadoop;
 
 import java.io.IOException;
+import java.io.Serializable;
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.BlockLocation;
@@ -37,7 +42,12 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 
 import parquet.Log;
+import parquet.common.schema.ColumnPath;
 import parquet.filter.UnboundRecordFilter;
+import parquet.filter2.predicate.FilterPredicate;
+import parquet.filter2.predicate.SchemaCompatibilityValidator;
+import parquet.filter2.recordlevel.FilterPredicateRecordFilter;
+import parquet.filter2.statisticslevel.StatisticsFilter;
 import parquet.hadoop.api.InitContext;
 import parquet.hadoop.api.ReadSupport;
 import parquet.hadoop.api.ReadSupport.ReadContext;
@@ -46,8 +56,11 @@ import parquet.hadoop.metadata.ColumnChunkMetaData;
 import parquet.hadoop.metadata.FileMetaData;
 import parquet.hadoop.metadata.GlobalMetaData;
 import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.hadoop.util.ByteArrayPool;
 import parquet.hadoop.util.ConfigurationUtil;
 import parquet.hadoop.util.ContextUtil;
+import parquet.hadoop.util.HeapByteArrayPool;
+import parquet.hadoop.util.SerializationUtil;
 import parquet.io.ParquetDecodingException;
 import parquet.schema.MessageType;
 import parquet.schema.MessageTypeParser;
@@ -77,12 +90,99 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
    * key to configure the filter
    */
   public static final String UNBOUND_RECORD_FILTER = "parquet.read.filter";
-  
+
+  /**
+   * key to configure the filter predicate
+   * @see #setFilterPredicate(Configuration, FilterPredicate)
+   */
+  public static final String FILTER_PREDICATE = "parquet.read.filter.predicate";
+
   /**
    * key to configure type checking for conflicting schemas (default: true)
    */
   public static final String STRICT_TYPE_CHECKING = "parquet.strict.typing";
 
+  /**
+   * key to enable reading the next row group in the background
+   * while the current one is being assembled (default: false)
+   */
+  public static final String PREFETCH_ENABLED = "parquet.read.prefetch.enabled";
+
+  /**
+   * key to configure the maximum size in bytes of the row groups read in the background (default: 256MB).
+   * This bounds the memory used by prefetching: larger row groups are read when needed.
+   */
+  public static final String PREFETCH_MAX_SIZE = "parquet.read.prefetch.max.size";
+
+  /**
+   * key to enable generating and compiling a record assembly specialized for the requested schema (default: false).
+   * This requires a JDK, the generic record assembly is used if the compilation fails.
+   */
+  public static final String COMPILE_RECORD_ASSEMBLY = "parquet.read.assembly.compile";
+
+  /**
+   * key to configure the {@link ByteArrayPool} implementation the column chunks are read into (default: none).
+   * One instance is shared by all the readers of the JVM.
+   * @see HeapByteArrayPool
+   */
+  public static final String BUFFER_POOL_CLASS = "parquet.read.buffer.pool.class";
+
+  /**
+   * key to configure the maximum number of bytes between two column chunks for them to be read at once (default: 0).
+   * The bytes in between are read and discarded, which saves a seek on high latency file systems.
+   */
+  public static final String CHUNK_MAX_GAP = "parquet.read.chunk.max.gap";
+
+  /**
+   * key to configure the maximum size in bytes of a read of several column chunks (default: 2GB).
+   * A column chunk larger than this is still read at once.
+   */
+  public static final String CHUNK_MAX_READ_SIZE = "parquet.read.chunk.max.read.size";
+
+  /**
+   * key to enable reading the pages from the file one at a time when they are needed
+   * instead of reading whole row groups in memory (default: false).
+   * This bounds the memory used to roughly one page per column.
+   */
+  public static final String STREAMING_READ_ENABLED = "parquet.read.streaming.enabled";
+
+  /**
+   * key to enable memory mapping the files of the local file system (default: false).
+   * The pages then refer to the mapped file instead of being read into arrays.
+   * The checksums of the local file system are not verified.
+   */
+  public static final String MEMORY_MAP_ENABLED = "parquet.read.mmap.enabled";
+
+  /**
+   * key to configure how many bytes are read at once at the end of a file to get its footer (default: 64KB).
+   * Larger footers require a second read.
+   */
+  public static final String FOOTER_READ_SIZE = "parquet.read.footer.read.size";
+
+  /**
+   * key to configure the size in bytes of the cache of footers shared in the JVM (default: 0, disabled).
+   * The footers read are cached by path, length and modification time of the file.
+   * The cache takes the largest size configured in the JVM; a size of 0 bypasses it.
+   * @see FooterCache
+   */
+  public static final String FOOTER_CACHE_SIZE = "parquet.read.footer.cache.size";
+
+  /**
+   * key to convert the metadata of the column chunks in the footers only when it is used (default: false).
+   * The splits then only contain the metadata of the requested columns and of the columns of the filter predicate.
+   */
+  public static final String LAZY_COLUMN_METADATA = "parquet.read.metadata.lazy";
+
+  /**
+   * key to configure the number of threads reading footers and summary files in parallel (default: 5).
+   * The threads are shared by all the readers in the JVM, as many as the highest value configured, and go away when idle.
+   */
+  public static final String FOOTER_READ_PARALLELISM = "parquet.read.footer.parallelism";
+
+  // weak keys so that the pools do not pin the class loader of their class, which they reference themselves:
+  // the pools are only softly reachable from here
+  private static final Map<Class<?>, SoftReference<ByteArrayPool>> BUFFER_POOLS = new WeakHashMap<Class<?>, SoftReference<ByteArrayPool>>();
+
   private Class<?> readSupportClass;
   private List<Footer> footers;
 
@@ -98,6 +198,37 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
     return ConfigurationUtil.getClassFromConfig(configuration, UNBOUND_RECORD_FILTER, UnboundRecordFilter.class);
   }
 
+  /**
+   * Sets a predicate on the records to read.
+   * Row groups whose statistics prove that no record can match are not read at all,
+   * row groups whose dictionaries prove it are not assembled,
+   * and the remaining records are filtered one by one.
+   * The columns of the file it references must be part of the requested schema,
+   * the record reader fails otherwise. Columns that are not in the file are considered null.
+   * It is combined with the {@link #setUnboundRecordFilter(Job, Class) unbound record filter} if both are set.
+   * @param configuration the configuration of the job
+   * @param filterPredicate the predicate
+   */
+  public static void setFilterPredicate(Configuration configuration, FilterPredicate filterPredicate) {
+    try {
+      SerializationUtil.writeObjectToConfAsBase64(FILTER_PREDICATE, (Serializable) filterPredicate, configuration);
+    } catch (IOException e) {
+      throw new BadConfigurationException("could not serialize the filter predicate " + filterPredicate, e);
+    }
+  }
+
+  /**
+   * @param configuration the configuration of the job
+   * @return the predicate set with {@link #setFilterPredicate(Configuration, FilterPredicate)} or null
+   */
+  public static FilterPredicate getFilterPredicate(Configuration configuration) {
+    try {
+      return SerializationUtil.readObjectFromConfAsBase64(FILTER_PREDICATE, configuration);
+    } catch (IOException e) {
+      throw new BadConfigurationException("could not deserialize the filter predicate set at " + FILTER_PREDICATE, e);
+    }
+  }
+
   public static void setReadSupportClass(JobConf conf, Class<?> readSupportClass) {
     conf.set(READ_SUPPORT_CLASS, readSupportClass.getName());
   }
@@ -106,6 +237,37 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
     return ConfigurationUtil.getClassFromConfig(configuration, READ_SUPPORT_CLASS, ReadSupport.class);
   }
 
+  public static void setBufferPoolClass(Configuration configuration, Class<? extends ByteArrayPool> bufferPoolClass) {
+    configuration.set(BUFFER_POOL_CLASS, bufferPoolClass.getName());
+  }
+
+  /**
+   * @param configuration the configuration of the job
+   * @return the pool of the class set at {@link #BUFFER_POOL_CLASS} shared in this JVM or null if none.
+   * The pool is kept until its class is unloaded or the memory runs low and no reader uses it anymore.
+   */
+  public static ByteArrayPool getBufferPool(Configuration configuration) {
+    Class<?> bufferPoolClass = ConfigurationUtil.getClassFromConfig(configuration, BUFFER_POOL_CLASS, ByteArrayPool.class);
+    if (bufferPoolClass == null) {
+      return null;
+    }
+    synchronized (BUFFER_POOLS) {
+      SoftReference<ByteArrayPool> reference = BUFFER_POOLS.get(bufferPoolClass);
+      ByteArrayPool bufferPool = reference == null ? null : reference.get();
+      if (bufferPool == null) {
+        try {
+          bufferPool = (ByteArrayPool)bufferPoolClass.newInstance();
+        } catch (InstantiationException e) {
+          throw new BadConfigurationException("could not instantiate buffer pool class " + bufferPoolClass, e);
+        } catch (IllegalAccessException e) {
+          throw new BadConfigurationException("could not instantiate buffer pool class " + bufferPoolClass, e);
+        }
+        BUFFER_POOLS.put(bufferPoolClass, new SoftReference<ByteArrayPool>(bufferPool));
+      }
+      return bufferPool;
+    }
+  }
+
   /**
    * Hadoop will instantiate using this constructor
    */
@@ -247,16 +409,42 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
       return rowGroups.size();
     }
 
-    public ParquetInputSplit getParquetInputSplit(FileStatus fileStatus, FileMetaData fileMetaData, String requestedSchema, Map<String, String> readSupportMetadata, String fileSchema) throws IOException {
+    /**
+     * @param projection the columns to keep in the row groups of the split or null to keep them all
+     */
+    public ParquetInputSplit getParquetInputSplit(FileStatus fileStatus, FileMetaData fileMetaData, String requestedSchema, Map<String, String> readSupportMetadata, String fileSchema, Set<ColumnPath> projection) throws IOException {
       MessageType requested = MessageTypeParser.parseMessageType(requestedSchema);
+      Set<ColumnPath> requestedPaths = new HashSet<ColumnPath>();
+      for (String[] path : requested.getPaths()) {
+        requestedPaths.add(ColumnPath.get(path));
+      }
       long length = 0;
 
       for (BlockMetaData block : this.getRowGroups()) {
-        List<ColumnChunkMetaData> columns = block.getColumns();
-        for (ColumnChunkMetaData column : columns) {
-          if (requested.containsPath(column.getPath().toArray())) {
-            length += column.getTotalSize();
+        for (ColumnChunkMetaData column : block.getColumns(requestedPaths)) {
+          length += column.getTotalSize();
+        }
+      }
+      if (length == 0) {
+        // none of the requested columns is in the file: the split still covers its row groups
+        length = compressedByteSize;
+      }
+      List<BlockMetaData> splitRowGroups = this.getRowGroups();
+      if (projection != null) {
+        splitRowGroups = new ArrayList<BlockMetaData>(splitRowGroups.size());
+        for (BlockMetaData rowGroup : this.getRowGroups()) {
+          BlockMetaData projected = new BlockMetaData();
+          for (ColumnChunkMetaData column : rowGroup.getColumns(projection)) {
+            projected.addColumn(column);
           }
+          if (projected.getColumns().isEmpty()) {
+            // keep the first column chunk so that the row group still has a starting position
+            projected.addColumn(rowGroup.getColumns().get(0));
+          }
+          projected.setRowCount(rowGroup.getRowCount());
+          projected.setTotalByteSize(rowGroup.getTotalByteSize());
+          projected.setPath(rowGroup.getPath());
+          splitRowGroups.add(projected);
         }
       }
       return new ParquetInputSplit(
@@ -264,7 +452,7 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
               hdfsBlock.getOffset(),
               length,
               hdfsBlock.getHosts(),
-              this.getRowGroups(),
+              splitRowGroups,
               requestedSchema,
               fileSchema,
               fileMetaData.getKeyValueMetaData(),
@@ -294,9 +482,27 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
           FileMetaData fileMetaData,
           String requestedSchema,
           Map<String, String> readSupportMetadata, long minSplitSize, long maxSplitSize) throws IOException {
+    return generateSplits(rowGroupBlocks, hdfsBlocksArray, fileStatus, fileMetaData, requestedSchema, readSupportMetadata, minSplitSize, maxSplitSize, null);
+  }
+
+  /**
+   * @param projection the columns whose metadata is kept in the splits or null to keep all of them
+   * @see #generateSplits(List, BlockLocation[], FileStatus, FileMetaData, String, Map, long, long)
+   */
+  static <T> List<ParquetInputSplit> generateSplits(
+          List<BlockMetaData> rowGroupBlocks,
+          BlockLocation[] hdfsBlocksArray,
+          FileStatus fileStatus,
+          FileMetaData fileMetaData,
+          String requestedSchema,
+          Map<String, String> readSupportMetadata, long minSplitSize, long maxSplitSize,
+          Set<ColumnPath> projection) throws IOException {
     if (maxSplitSize < minSplitSize || maxSplitSize < 0 || minSplitSize < 0) {
       throw new ParquetDecodingException("maxSplitSize and minSplitSize should be positive and max should be greater or equal to the minSplitSize: maxSplitSize = " + maxSplitSize + "; minSplitSize is " + minSplitSize);
     }
+    if (rowGroupBlocks.isEmpty()) {
+      return new ArrayList<ParquetInputSplit>();
+    }
     String fileSchema = fileMetaData.getSchema().toString().intern();
     HDFSBlocks hdfsBlocks = new HDFSBlocks(hdfsBlocksArray);
     hdfsBlocks.checkBelongingToANewHDFSBlock(rowGroupBlocks.get(0));
@@ -324,7 +530,7 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
     //generate splits from rowGroups of each split
     List<ParquetInputSplit> resultSplits = new ArrayList<ParquetInputSplit>();
     for (SplitInfo splitInfo : splitRowGroups) {
-      ParquetInputSplit split = splitInfo.getParquetInputSplit(fileStatus, fileMetaData, requestedSchema, readSupportMetadata, fileSchema);
+      ParquetInputSplit split = splitInfo.getParquetInputSplit(fileStatus, fileMetaData, requestedSchema, readSupportMetadata, fileSchema, projection);
       resultSplits.add(split);
     }
     return resultSplits;
@@ -368,13 +574,37 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
         configuration,
         globalMetaData.getKeyValueMetaData(),
         globalMetaData.getSchema()));
+    FilterPredicate filterPredicate = getFilterPredicate(configuration);
+    Set<ColumnPath> projection = null;
+    if (configuration.getBoolean(LAZY_COLUMN_METADATA, false)) {
+      // the tasks only need the requested columns and the ones the filter needs
+      projection = new HashSet<ColumnPath>();
+      for (String[] path : readContext.getRequestedSchema().getPaths()) {
+        projection.add(ColumnPath.get(path));
+      }
+      if (filterPredicate != null) {
+        projection.addAll(FilterPredicateRecordFilter.getColumnPaths(filterPredicate));
+      }
+    }
+    long rowGroupCount = 0;
+    long droppedRowGroupCount = 0;
     for (Footer footer : footers) {
       final Path file = footer.getFile();
       LOG.debug(file);
-      FileSystem fs = file.getFileSystem(configuration);
-      FileStatus fileStatus = fs.getFileStatus(file);
       ParquetMetadata parquetMetaData = footer.getParquetMetadata();
       List<BlockMetaData> blocks = parquetMetaData.getBlocks();
+      if (filterPredicate != null) {
+        SchemaCompatibilityValidator.validate(filterPredicate, parquetMetaData.getFileMetaData().getSchema());
+        List<BlockMetaData> filteredBlocks = StatisticsFilter.filterRowGroups(filterPredicate, blocks);
+        rowGroupCount += blocks.size();
+        droppedRowGroupCount += blocks.size() - filteredBlocks.size();
+        blocks = filteredBlocks;
+        if (blocks.isEmpty()) {
+          continue;
+        }
+      }
+      FileSystem fs = file.getFileSystem(configuration);
+      FileStatus fileStatus = fs.getFileStatus(file);
       BlockLocation[] fileBlockLocations = fs.getFileBlockLocations(fileStatus, 0, fileStatus.getLen());
       splits.addAll(
           generateSplits(
@@ -385,9 +615,13 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
               readContext.getRequestedSchema().toString(),
               readContext.getReadSupportMetadata(),
               minSplitSize,
-              maxSplitSize)
+              maxSplitSize,
+              projection)
           );
     }
+    if (filterPredicate != null && Log.INFO) {
+      LOG.info("Dropped " + droppedRowGroupCount + " out of " + rowGroupCount + " row groups using filter " + filterPredicate);
+    }
     return splits;
   }
 
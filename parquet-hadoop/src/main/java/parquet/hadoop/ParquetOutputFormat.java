@@ -33,6 +33,9 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
 
 import parquet.Log;
+import parquet.bytes.ByteBufferAllocator;
+import parquet.bytes.DirectByteBufferAllocator;
+import parquet.bytes.HeapByteBufferAllocator;
 import parquet.column.ParquetProperties.WriterVersion;
 import parquet.hadoop.api.WriteSupport;
 import parquet.hadoop.api.WriteSupport.WriteContext;
@@ -99,6 +102,41 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
   public static final String VALIDATION           = "parquet.validation";
   public static final String WRITER_VERSION       = "parquet.writer.version";
 
+  /**
+   * key to write the row groups to the file in the background (default: 0, written synchronously).
+   * The value is the maximum size in bytes of the row groups waiting to be written
+   * while the next one is being filled.
+   */
+  public static final String FLUSH_MAX_PENDING_SIZE = "parquet.flush.max.pending.size";
+
+  /**
+   * key to compress the pages of the different columns in parallel (default: 0, compressed synchronously).
+   * The value is the number of threads of each writer compressing pages, each thread using its own compressor.
+   */
+  public static final String COMPRESSION_THREADS = "parquet.compression.threads";
+
+  /**
+   * key to keep the buffers of the column chunks outside of the heap (default: false).
+   * They are freed when the writer is closed instead of being left to the garbage collector.
+   */
+  public static final String DIRECT_BUFFERS = "parquet.write.direct.buffers";
+
+  /**
+   * key to configure the ratio of the heap the writers open at the same time can use (default: 0.95).
+   * The row group size of each writer is scaled down when their total would exceed it.
+   * @see MemoryManager
+   */
+  public static final String MEMORY_POOL_RATIO = "parquet.memory.pool.ratio";
+
+  /**
+   * key to configure the row group size under which a warning is logged
+   * when too many writers are open (default: 1MB)
+   */
+  public static final String MIN_MEMORY_ALLOCATION = "parquet.memory.min.chunk.size";
+
+  // shared by all the writers of the JVM, created with the configuration of the first one
+  private static MemoryManager memoryManager;
+
   public static void setWriteSupportClass(Job job,  Class<?> writeSupportClass) {
     getConfiguration(job).set(WRITE_SUPPORT_CLASS, writeSupportClass.getName());
   }
@@ -205,6 +243,26 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
     return configuration.getBoolean(VALIDATION, false);
   }
 
+  public static long getFlushMaxPendingSize(Configuration configuration) {
+    return configuration.getLong(FLUSH_MAX_PENDING_SIZE, 0);
+  }
+
+  public static int getCompressionThreads(Configuration configuration) {
+    return configuration.getInt(COMPRESSION_THREADS, 0);
+  }
+
+  public static boolean getDirectBuffers(Configuration configuration) {
+    return configuration.getBoolean(DIRECT_BUFFERS, false);
+  }
+
+  /**
+   * @param configuration the configuration of the writer
+   * @return the allocator of the buffers of the column chunks
+   */
+  static ByteBufferAllocator getBufferAllocator(Configuration configuration) {
+    return getDirectBuffers(configuration) ? new DirectByteBufferAllocator() : new HeapByteBufferAllocator();
+  }
+
   private CompressionCodecName getCodec(TaskAttemptContext taskAttemptContext) {
     return CodecConfig.from(taskAttemptContext).getCodec();
   }
@@ -268,6 +326,12 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
     if (INFO) LOG.info("Validation is " + (validating ? "on" : "off"));
     WriterVersion writerVersion = getWriterVersion(conf);
     if (INFO) LOG.info("Writer version is: " + writerVersion);
+    long flushMaxPendingSize = getFlushMaxPendingSize(conf);
+    if (INFO && flushMaxPendingSize > 0) LOG.info("Row groups are written in the background, up to " + flushMaxPendingSize + " bytes pending");
+    int compressionThreads = getCompressionThreads(conf);
+    if (INFO && compressionThreads > 0) LOG.info("Pages are compressed by " + compressionThreads + " threads");
+    boolean directBuffers = getDirectBuffers(conf);
+    if (INFO && directBuffers) LOG.info("Column chunks are buffered outside of the heap");
 
     WriteContext init = writeSupport.init(conf);
     ParquetFileWriter w = new ParquetFileWriter(conf, init.getSchema(), file);
@@ -283,7 +347,24 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
         dictionaryPageSize,
         enableDictionary,
         validating,
-        writerVersion);
+        writerVersion,
+        flushMaxPendingSize,
+        compressionThreads,
+        getMemoryManager(conf),
+        getBufferAllocator(conf));
+  }
+
+  /**
+   * @param conf the configuration of the memory pool, used the first time only
+   * @return the memory manager shared by the writers of the JVM
+   */
+  static synchronized MemoryManager getMemoryManager(Configuration conf) {
+    if (memoryManager == null) {
+      memoryManager = new MemoryManager(
+          conf.getFloat(MEMORY_POOL_RATIO, MemoryManager.DEFAULT_MEMORY_POOL_RATIO),
+          conf.getLong(MIN_MEMORY_ALLOCATION, MemoryManager.DEFAULT_MIN_MEMORY_ALLOCATION));
+    }
+    return memoryManager;
   }
 
   /**
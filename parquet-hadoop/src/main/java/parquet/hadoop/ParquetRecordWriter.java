@@ -20,6 +20,8 @@ import java.util.Map;
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 
+import parquet.bytes.ByteBufferAllocator;
+import parquet.bytes.HeapByteBufferAllocator;
 import parquet.column.ParquetProperties.WriterVersion;
 import parquet.hadoop.CodecFactory.BytesCompressor;
 import parquet.hadoop.api.WriteSupport;
@@ -37,6 +39,7 @@ import parquet.schema.MessageType;
 public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
 
   private InternalParquetRecordWriter<T> internalWriter;
+  private MemoryManager memoryManager;
 
   /**
    *
@@ -61,8 +64,66 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
       boolean enableDictionary,
       boolean validating,
       WriterVersion writerVersion) {
+    this(w, writeSupport, schema, extraMetaData, blockSize, pageSize, compressor, dictionaryPageSize, enableDictionary, validating, writerVersion, 0, 0);
+  }
+
+  /**
+   *
+   * @param w the file to write to
+   * @param writeSupport the class to convert incoming records
+   * @param schema the schema of the records
+   * @param extraMetaData extra meta data to write in the footer of the file
+   * @param blockSize the size of a block in the file (this will be approximate)
+   * @param compressor the compressor used to compress the pages
+   * @param dictionaryPageSize the threshold for dictionary size
+   * @param enableDictionary to enable the dictionary
+   * @param validating if schema validation should be turned on
+   * @param flushMaxPendingSize the maximum size of the row groups written in the background, 0 to write them synchronously
+   * @param compressionThreads the number of threads compressing the pages in parallel, 0 to compress them synchronously
+   */
+  public ParquetRecordWriter(
+      ParquetFileWriter w,
+      WriteSupport<T> writeSupport,
+      MessageType schema,
+      Map<String, String> extraMetaData,
+      int blockSize, int pageSize,
+      BytesCompressor compressor,
+      int dictionaryPageSize,
+      boolean enableDictionary,
+      boolean validating,
+      WriterVersion writerVersion,
+      long flushMaxPendingSize,
+      int compressionThreads) {
+    this(w, writeSupport, schema, extraMetaData, blockSize, pageSize, compressor, dictionaryPageSize, enableDictionary, validating, writerVersion,
+        flushMaxPendingSize, compressionThreads, null, new HeapByteBufferAllocator());
+  }
+
+  /**
+   * @param memoryManager shares the memory with the other writers or null to use the block size as is
+   * @param allocator allocates the buffers of the column chunks
+   */
+  ParquetRecordWriter(
+      ParquetFileWriter w,
+      WriteSupport<T> writeSupport,
+      MessageType schema,
+      Map<String, String> extraMetaData,
+      int blockSize, int pageSize,
+      BytesCompressor compressor,
+      int dictionaryPageSize,
+      boolean enableDictionary,
+      boolean validating,
+      WriterVersion writerVersion,
+      long flushMaxPendingSize,
+      int compressionThreads,
+      MemoryManager memoryManager,
+      ByteBufferAllocator allocator) {
     internalWriter = new InternalParquetRecordWriter<T>(w, writeSupport, schema,
-        extraMetaData, blockSize, pageSize, compressor, dictionaryPageSize, enableDictionary, validating, writerVersion);
+        extraMetaData, blockSize, pageSize, compressor, dictionaryPageSize, enableDictionary, validating, writerVersion, flushMaxPendingSize, compressionThreads,
+        allocator);
+    this.memoryManager = memoryManager;
+    if (memoryManager != null) {
+      memoryManager.addWriter(internalWriter, blockSize);
+    }
   }
 
   /**
@@ -70,7 +131,13 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
    */
   @Override
   public void close(TaskAttemptContext context) throws IOException, InterruptedException {
-    internalWriter.close();
+    try {
+      internalWriter.close();
+    } finally {
+      if (memoryManager != null) {
+        memoryManager.removeWriter(internalWriter);
+      }
+    }
   }
 
   /**
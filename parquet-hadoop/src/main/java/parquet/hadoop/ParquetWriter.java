@@ -189,7 +189,10 @@ public class ParquetWriter<T> implements Closeable {
         dictionaryPageSize,
         enableDictionary,
         validating,
-        writerVersion);
+        writerVersion,
+        ParquetOutputFormat.getFlushMaxPendingSize(conf),
+        ParquetOutputFormat.getCompressionThreads(conf),
+        ParquetOutputFormat.getBufferAllocator(conf));
   }
 
   /**
@@ -18,6 +18,9 @@ package parquet.hadoop.metadata;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+
+import parquet.common.schema.ColumnPath;
 
 
 /**
@@ -95,6 +98,20 @@ public class BlockMetaData {
     return Collections.unmodifiableList(columns);
   }
 
+  /**
+   * @param paths the columns to return
+   * @return the metadata for the columns in paths, in the order of the file
+   */
+  public List<ColumnChunkMetaData> getColumns(Set<ColumnPath> paths) {
+    List<ColumnChunkMetaData> result = new ArrayList<ColumnChunkMetaData>();
+    for (ColumnChunkMetaData column : getColumns()) {
+      if (paths.contains(column.getPath())) {
+        result.add(column);
+      }
+    }
+    return result;
+  }
+
   /**
    *
    * @return the starting pos of first column
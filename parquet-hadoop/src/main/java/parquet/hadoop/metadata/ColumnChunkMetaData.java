@@ -20,6 +20,7 @@ import java.util.Set;
 import parquet.column.Encoding;
 import parquet.column.statistics.Statistics;
 import parquet.column.statistics.BooleanStatistics;
+import parquet.common.schema.ColumnPath;
 import parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 /**
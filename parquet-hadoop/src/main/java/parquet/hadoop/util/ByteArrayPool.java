@@ -0,0 +1,39 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop.util;
+
+/**
+ * Provides the byte arrays the column chunks are read into
+ * so that they can be reused from one row group to the next.
+ *
+ * Implementations must be thread safe and have a public no-arg constructor
+ * to be set with {@link parquet.hadoop.ParquetInputFormat#BUFFER_POOL_CLASS}.
+ */
+public interface ByteArrayPool {
+
+  /**
+   * @param size the minimum size of the array
+   * @return an array of at least size bytes, its content is undefined
+   */
+  byte[] allocate(int size);
+
+  /**
+   * Gives back an array returned by {@link #allocate(int)} that is not referenced anymore.
+   * @param buffer the array to reuse
+   */
+  void release(byte[] buffer);
+
+}
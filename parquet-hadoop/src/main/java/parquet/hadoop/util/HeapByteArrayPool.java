@@ -0,0 +1,91 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop.util;
+
+import static parquet.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the released arrays up to a total size and hands out the smallest one that is large enough,
+ * if it is less than twice the requested size.
+ * An array is allocated when none fits, arrays released past the limit are left to the garbage collector.
+ */
+public class HeapByteArrayPool implements ByteArrayPool {
+
+  /**
+   * default maximum size of the pooled arrays: enough for a few default row groups
+   */
+  public static final long DEFAULT_MAX_POOLED_SIZE = 512 * 1024 * 1024;
+
+  private final long maxPooledSize;
+  // released arrays by size
+  private final TreeMap<Integer, List<byte[]>> pooled = new TreeMap<Integer, List<byte[]>>();
+  private long pooledSize;
+
+  public HeapByteArrayPool() {
+    this(DEFAULT_MAX_POOLED_SIZE);
+  }
+
+  /**
+   * @param maxPooledSize the maximum total size of the arrays kept for reuse
+   */
+  public HeapByteArrayPool(long maxPooledSize) {
+    checkArgument(maxPooledSize >= 0, "maxPooledSize must be positive: " + maxPooledSize);
+    this.maxPooledSize = maxPooledSize;
+  }
+
+  @Override
+  public synchronized byte[] allocate(int size) {
+    Map.Entry<Integer, List<byte[]>> entry = pooled.ceilingEntry(size);
+    // arrays much larger than needed are kept for larger requests
+    if (entry == null || entry.getKey() / 2 > size) {
+      return new byte[size];
+    }
+    List<byte[]> buffers = entry.getValue();
+    byte[] buffer = buffers.remove(buffers.size() - 1);
+    if (buffers.isEmpty()) {
+      pooled.remove(entry.getKey());
+    }
+    pooledSize -= buffer.length;
+    return buffer;
+  }
+
+  @Override
+  public synchronized void release(byte[] buffer) {
+    if (pooledSize + buffer.length > maxPooledSize) {
+      return;
+    }
+    List<byte[]> buffers = pooled.get(buffer.length);
+    if (buffers == null) {
+      buffers = new ArrayList<byte[]>();
+      pooled.put(buffer.length, buffers);
+    }
+    buffers.add(buffer);
+    pooledSize += buffer.length;
+  }
+
+  /**
+   * @return the total size of the arrays available for reuse
+   */
+  public synchronized long getPooledSize() {
+    return pooledSize;
+  }
+
+}
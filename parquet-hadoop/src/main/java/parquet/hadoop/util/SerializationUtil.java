@@ -0,0 +1,76 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.hadoop.conf.Configuration;
+
+/**
+ * Stores java serializable objects in a Configuration as gzipped, base64 encoded strings
+ */
+public final class SerializationUtil {
+
+  private SerializationUtil() { }
+
+  /**
+   * @param key the key to store the object under
+   * @param obj the object to store
+   * @param conf the configuration to store it in
+   * @throws IOException if the object can not be serialized
+   */
+  public static void writeObjectToConfAsBase64(String key, Serializable obj, Configuration conf) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    ObjectOutputStream oos = new ObjectOutputStream(new GZIPOutputStream(baos));
+    try {
+      oos.writeObject(obj);
+    } finally {
+      oos.close();
+    }
+    conf.set(key, new String(Base64.encodeBase64(baos.toByteArray()), "UTF-8"));
+  }
+
+  /**
+   * @param key the key the object was stored under
+   * @param conf the configuration to read it from
+   * @return the object or null if the key is not set
+   * @throws IOException if the object can not be deserialized
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> T readObjectFromConfAsBase64(String key, Configuration conf) throws IOException {
+    String b64 = conf.get(key);
+    if (b64 == null) {
+      return null;
+    }
+    byte[] bytes = Base64.decodeBase64(b64.getBytes("UTF-8"));
+    ObjectInputStream ois = new ObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes)));
+    try {
+      return (T) ois.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Could not read object from config with key " + key, e);
+    } finally {
+      ois.close();
+    }
+  }
+}
@@ -0,0 +1,234 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter2.dictionarylevel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import parquet.column.ParquetProperties.WriterVersion;
+import parquet.column.page.DictionaryPageReadStore;
+import parquet.column.page.PageReadStore;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.filter2.predicate.FilterPredicate;
+import parquet.filter2.predicate.Operators.BinaryColumn;
+import parquet.filter2.predicate.Operators.IntColumn;
+import parquet.filter2.predicate.Operators.LongColumn;
+import parquet.hadoop.ParquetFileReader;
+import parquet.hadoop.ParquetInputFormat;
+import parquet.hadoop.ParquetReader;
+import parquet.hadoop.ParquetWriter;
+import parquet.hadoop.api.ReadSupport;
+import parquet.hadoop.example.GroupReadSupport;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.io.api.Binary;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static parquet.filter2.predicate.FilterApi.and;
+import static parquet.filter2.predicate.FilterApi.binaryColumn;
+import static parquet.filter2.predicate.FilterApi.eq;
+import static parquet.filter2.predicate.FilterApi.gt;
+import static parquet.filter2.predicate.FilterApi.in;
+import static parquet.filter2.predicate.FilterApi.intColumn;
+import static parquet.filter2.predicate.FilterApi.isNull;
+import static parquet.filter2.predicate.FilterApi.longColumn;
+import static parquet.filter2.predicate.FilterApi.lt;
+import static parquet.filter2.predicate.FilterApi.not;
+import static parquet.filter2.predicate.FilterApi.notEq;
+import static parquet.filter2.predicate.FilterApi.or;
+
+public class TestDictionaryFilter {
+
+  private static final int COUNT = 1000;
+  private static final MessageType schema = MessageTypeParser.parseMessageType(
+      "message test { "
+      + "required int32 id; "
+      + "required binary name; "
+      + "optional int64 value; "
+      + "} ");
+  private static final File file = new File("target/test/TestDictionaryFilter/testParquetFile").getAbsoluteFile();
+  private static final Path path = new Path(file.toURI());
+
+  private static final IntColumn id = intColumn("id");
+  private static final BinaryColumn name = binaryColumn("name");
+  private static final LongColumn value = longColumn("value");
+
+  private static ParquetMetadata footer;
+  private static ParquetFileReader reader;
+  private static DictionaryPageReadStore dictionaries;
+
+  @BeforeClass
+  public static void writeFile() throws IOException {
+    file.delete();
+    Configuration conf = new Configuration();
+    GroupWriteSupport.setSchema(schema, conf);
+    // the dictionary of id does not fit and falls back to plain
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport(),
+        CompressionCodecName.UNCOMPRESSED, 1024 * 1024, 1024, 512, true, false, WriterVersion.PARQUET_1_0, conf);
+    SimpleGroupFactory f = new SimpleGroupFactory(schema);
+    for (int i = 0; i < COUNT; i++) {
+      Group group = f.newGroup().append("id", i).append("name", "name" + (i % 10));
+      if (i % 100 != 0) {
+        group.append("value", (long) (i % 20));
+      }
+      writer.write(group);
+    }
+    writer.close();
+
+    footer = ParquetFileReader.readFooter(conf, path);
+    assertEquals(1, footer.getBlocks().size());
+    reader = new ParquetFileReader(conf, path, footer.getBlocks(), schema.getColumns());
+    dictionaries = reader.getNextDictionaryReader();
+  }
+
+  @AfterClass
+  public static void deleteFile() throws IOException {
+    reader.close();
+    file.delete();
+  }
+
+  private static boolean canDrop(FilterPredicate predicate) {
+    BlockMetaData block = footer.getBlocks().get(0);
+    return DictionaryFilter.canDrop(predicate, schema, block.getColumns(), dictionaries);
+  }
+
+  @Test
+  public void testDictionaryEncodedColumns() {
+    assertTrue(DictionaryFilter.hasOnlyDictionaryEncodedPages(footer.getBlocks().get(0).getColumns().get(1)));
+    assertFalse(DictionaryFilter.hasOnlyDictionaryEncodedPages(footer.getBlocks().get(0).getColumns().get(0)));
+  }
+
+  @Test
+  public void testDictionariesReadBeforeTheRowGroup() throws IOException {
+    Configuration conf = new Configuration();
+    ParquetFileReader fileReader = new ParquetFileReader(conf, path, footer.getBlocks(), schema.getColumns());
+    try {
+      DictionaryPageReadStore rowGroupDictionaries = fileReader.getNextDictionaryReader();
+      assertEquals(10, rowGroupDictionaries.readDictionaryPage(schema.getColumns().get(1)).getDictionarySize());
+      // plain encoded
+      assertNull(rowGroupDictionaries.readDictionaryPage(schema.getColumns().get(0)));
+      PageReadStore pages = fileReader.readNextRowGroup();
+      assertEquals(COUNT, pages.getRowCount());
+      assertEquals(COUNT, pages.getPageReader(schema.getColumns().get(1)).getTotalValueCount());
+      assertNull(fileReader.getNextDictionaryReader());
+      assertFalse(fileReader.skipNextRowGroup());
+    } finally {
+      fileReader.close();
+    }
+
+    fileReader = new ParquetFileReader(conf, path, footer.getBlocks(), schema.getColumns());
+    try {
+      assertTrue(fileReader.skipNextRowGroup());
+      assertNull(fileReader.readNextRowGroup());
+    } finally {
+      fileReader.close();
+    }
+  }
+
+  @Test
+  public void testEqNotEq() {
+    assertFalse(canDrop(eq(name, Binary.fromString("name3"))));
+    // within min and max but not in the dictionary
+    assertTrue(canDrop(eq(name, Binary.fromString("name35"))));
+    assertFalse(canDrop(notEq(name, Binary.fromString("name3"))));
+    assertFalse(canDrop(eq(value, 7l)));
+    assertTrue(canDrop(eq(value, 77l)));
+    // plain encoded
+    assertFalse(canDrop(eq(id, -1)));
+  }
+
+  @Test
+  public void testLtGtIn() {
+    assertTrue(canDrop(lt(name, Binary.fromString("name0"))));
+    assertFalse(canDrop(lt(name, Binary.fromString("name1"))));
+    assertTrue(canDrop(gt(value, 19l)));
+    assertFalse(canDrop(gt(value, 18l)));
+    assertTrue(canDrop(in(value, 21l, 35l)));
+    assertFalse(canDrop(in(value, 21l, 5l)));
+  }
+
+  @Test
+  public void testNullsAndNot() {
+    assertFalse(canDrop(isNull(value)));
+    assertFalse(canDrop(not(eq(name, Binary.fromString("name35")))));
+    assertTrue(canDrop(not(notEq(name, Binary.fromString("name35")))));
+    // name has no nulls and all its values are > "a"
+    assertTrue(canDrop(not(gt(name, Binary.fromString("a")))));
+    // value has nulls, they satisfy not(...)
+    assertFalse(canDrop(not(gt(value, -1l))));
+    assertTrue(canDrop(or(eq(name, Binary.fromString("foo")), eq(value, 100l))));
+    assertTrue(canDrop(and(eq(name, Binary.fromString("foo")), eq(id, 1))));
+    assertFalse(canDrop(and(eq(name, Binary.fromString("name1")), eq(id, 1))));
+  }
+
+  private static int count(FilterPredicate predicate) throws IOException {
+    return count(predicate, new Configuration());
+  }
+
+  private static int count(FilterPredicate predicate, Configuration conf) throws IOException {
+    ParquetInputFormat.setFilterPredicate(conf, predicate);
+    ParquetReader<Group> reader = new ParquetReader<Group>(conf, path, new GroupReadSupport());
+    int count = 0;
+    while (reader.read() != null) {
+      ++ count;
+    }
+    reader.close();
+    return count;
+  }
+
+  @Test
+  public void testReadWithFilter() throws IOException {
+    assertEquals(100, count(eq(name, Binary.fromString("name3"))));
+    assertEquals(0, count(eq(name, Binary.fromString("name35"))));
+    assertEquals(10, count(isNull(value)));
+    assertEquals(COUNT - 10, count(not(isNull(value))));
+    assertEquals(50, count(eq(value, 7l)));
+    assertEquals(1, count(and(eq(name, Binary.fromString("name1")), eq(id, 1))));
+    // nulls satisfy notEq
+    assertEquals(COUNT - 50, count(notEq(value, 7l)));
+  }
+
+  @Test
+  public void testFilterOnUnprojectedColumn() throws IOException {
+    Configuration conf = new Configuration();
+    conf.set(ReadSupport.PARQUET_READ_SCHEMA, "message test { required int32 id; }");
+    try {
+      count(eq(name, Binary.fromString("name3")), conf);
+      fail("the records can not be filtered on a column that is not read");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("name"));
+    }
+    // the columns that are not in the file are null
+    assertEquals(COUNT, count(isNull(longColumn("missing")), conf));
+    assertEquals(1, count(and(eq(id, 1), isNull(longColumn("missing"))), conf));
+  }
+}
@@ -0,0 +1,215 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter2.statisticslevel;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import parquet.column.Encoding;
+import parquet.column.statistics.DoubleStatistics;
+import parquet.column.statistics.IntStatistics;
+import parquet.common.schema.ColumnPath;
+import parquet.filter2.predicate.FilterPredicate;
+import parquet.filter2.predicate.Operators.DoubleColumn;
+import parquet.filter2.predicate.Operators.IntColumn;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static parquet.filter2.predicate.FilterApi.and;
+import static parquet.filter2.predicate.FilterApi.doubleColumn;
+import static parquet.filter2.predicate.FilterApi.eq;
+import static parquet.filter2.predicate.FilterApi.gt;
+import static parquet.filter2.predicate.FilterApi.gtEq;
+import static parquet.filter2.predicate.FilterApi.in;
+import static parquet.filter2.predicate.FilterApi.intColumn;
+import static parquet.filter2.predicate.FilterApi.isNull;
+import static parquet.filter2.predicate.FilterApi.lt;
+import static parquet.filter2.predicate.FilterApi.ltEq;
+import static parquet.filter2.predicate.FilterApi.not;
+import static parquet.filter2.predicate.FilterApi.notEq;
+import static parquet.filter2.predicate.FilterApi.or;
+import static parquet.filter2.statisticslevel.StatisticsFilter.canDrop;
+
+public class TestStatisticsFilter {
+
+  private static final IntColumn intColumn = intColumn("int.column");
+  private static final DoubleColumn doubleColumn = doubleColumn("double.column");
+  private static final IntColumn missingColumn = intColumn("missing");
+
+  private static ColumnChunkMetaData getIntColumnMeta(IntStatistics stats, long valueCount) {
+    return ColumnChunkMetaData.get(ColumnPath.get("int", "column"),
+        PrimitiveTypeName.INT32,
+        CompressionCodecName.GZIP,
+        new HashSet<Encoding>(Arrays.asList(Encoding.PLAIN)),
+        stats,
+        0L, 0L, valueCount, 0L, 0L);
+  }
+
+  private static ColumnChunkMetaData getDoubleColumnMeta(DoubleStatistics stats, long valueCount) {
+    return ColumnChunkMetaData.get(ColumnPath.get("double", "column"),
+        PrimitiveTypeName.DOUBLE,
+        CompressionCodecName.GZIP,
+        new HashSet<Encoding>(Arrays.asList(Encoding.PLAIN)),
+        stats,
+        0L, 0L, valueCount, 0L, 0L);
+  }
+
+  private static IntStatistics intStats(int min, int max, long numNulls) {
+    IntStatistics stats = new IntStatistics();
+    stats.setMinMax(min, max);
+    stats.setNumNulls(numNulls);
+    return stats;
+  }
+
+  private static DoubleStatistics doubleStats(double min, double max) {
+    DoubleStatistics stats = new DoubleStatistics();
+    stats.setMinMax(min, max);
+    return stats;
+  }
+
+  // int.column in [10, 100] without nulls, double.column in [0.0, 100.0]
+  private static final List<ColumnChunkMetaData> columnMetas = Arrays.asList(
+      getIntColumnMeta(intStats(10, 100, 0), 177L),
+      getDoubleColumnMeta(doubleStats(0.0, 100.0), 177L));
+
+  // int.column only has nulls
+  private static final List<ColumnChunkMetaData> nullColumnMetas = Arrays.asList(
+      getIntColumnMeta(new IntStatistics() {{ setNumNulls(177L); }}, 177L),
+      getDoubleColumnMeta(doubleStats(0.0, 100.0), 177L));
+
+  // int.column in [10, 100] with some nulls
+  private static final List<ColumnChunkMetaData> someNullColumnMetas = Arrays.asList(
+      getIntColumnMeta(intStats(10, 100, 3), 177L),
+      getDoubleColumnMeta(doubleStats(0.0, 100.0), 177L));
+
+  // no statistics at all
+  private static final List<ColumnChunkMetaData> noStatsColumnMetas = Arrays.asList(
+      getIntColumnMeta(new IntStatistics(), 177L),
+      getDoubleColumnMeta(new DoubleStatistics(), 177L));
+
+  @Test
+  public void testEqNotEq() {
+    assertTrue(canDrop(eq(intColumn, 9), columnMetas));
+    assertFalse(canDrop(eq(intColumn, 10), columnMetas));
+    assertFalse(canDrop(eq(intColumn, 100), columnMetas));
+    assertTrue(canDrop(eq(intColumn, 101), columnMetas));
+    assertTrue(canDrop(eq(intColumn, 50), nullColumnMetas));
+    assertTrue(canDrop(eq(missingColumn, 50), columnMetas));
+
+    assertFalse(canDrop(notEq(intColumn, 50), columnMetas));
+    assertTrue(canDrop(notEq(intColumn, 50), Arrays.asList(getIntColumnMeta(intStats(50, 50, 0), 177L))));
+    assertFalse(canDrop(notEq(intColumn, 50), Arrays.asList(getIntColumnMeta(intStats(50, 50, 1), 177L))));
+    assertFalse(canDrop(notEq(intColumn, 50), nullColumnMetas));
+    assertFalse(canDrop(notEq(missingColumn, 50), columnMetas));
+  }
+
+  @Test
+  public void testLtGt() {
+    assertTrue(canDrop(lt(intColumn, 10), columnMetas));
+    assertFalse(canDrop(lt(intColumn, 11), columnMetas));
+    assertTrue(canDrop(ltEq(intColumn, 9), columnMetas));
+    assertFalse(canDrop(ltEq(intColumn, 10), columnMetas));
+    assertTrue(canDrop(gt(intColumn, 100), columnMetas));
+    assertFalse(canDrop(gt(intColumn, 99), columnMetas));
+    assertTrue(canDrop(gtEq(intColumn, 101), columnMetas));
+    assertFalse(canDrop(gtEq(intColumn, 100), columnMetas));
+
+    assertTrue(canDrop(lt(intColumn, 50), nullColumnMetas));
+    assertTrue(canDrop(gtEq(intColumn, 50), nullColumnMetas));
+    assertTrue(canDrop(gt(missingColumn, 50), columnMetas));
+
+    assertTrue(canDrop(gt(doubleColumn, 100.0), columnMetas));
+    assertFalse(canDrop(gt(doubleColumn, 99.5), columnMetas));
+  }
+
+  @Test
+  public void testInIsNull() {
+    assertTrue(canDrop(in(intColumn, 1, 2, 101), columnMetas));
+    assertFalse(canDrop(in(intColumn, 1, 50, 101), columnMetas));
+    assertTrue(canDrop(in(intColumn, 50), nullColumnMetas));
+    assertFalse(canDrop(not(in(intColumn, 50)), columnMetas));
+    assertTrue(canDrop(not(in(intColumn, 50, 51)), Arrays.asList(getIntColumnMeta(intStats(50, 50, 0), 177L))));
+    assertFalse(canDrop(not(in(intColumn, 50, 51)), Arrays.asList(getIntColumnMeta(intStats(50, 50, 1), 177L))));
+
+    assertTrue(canDrop(isNull(intColumn), columnMetas));
+    assertFalse(canDrop(isNull(intColumn), someNullColumnMetas));
+    assertFalse(canDrop(isNull(intColumn), nullColumnMetas));
+    assertFalse(canDrop(isNull(missingColumn), columnMetas));
+    assertTrue(canDrop(not(isNull(intColumn)), nullColumnMetas));
+    assertTrue(canDrop(not(isNull(missingColumn)), columnMetas));
+    assertFalse(canDrop(not(isNull(intColumn)), someNullColumnMetas));
+    assertFalse(canDrop(isNull(intColumn), noStatsColumnMetas));
+  }
+
+  @Test
+  public void testNoStatistics() {
+    assertFalse(canDrop(eq(intColumn, 1000), noStatsColumnMetas));
+    assertFalse(canDrop(lt(intColumn, -1000), noStatsColumnMetas));
+    assertFalse(canDrop(not(eq(intColumn, 1000)), noStatsColumnMetas));
+  }
+
+  @Test
+  public void testAndOr() {
+    FilterPredicate yes = eq(intColumn, 9);
+    FilterPredicate no = eq(doubleColumn, 50.0);
+    assertTrue(canDrop(and(yes, no), columnMetas));
+    assertTrue(canDrop(and(no, yes), columnMetas));
+    assertFalse(canDrop(and(no, no), columnMetas));
+    assertTrue(canDrop(or(yes, yes), columnMetas));
+    assertFalse(canDrop(or(yes, no), columnMetas));
+    assertFalse(canDrop(or(no, yes), columnMetas));
+  }
+
+  @Test
+  public void testNot() {
+    assertFalse(canDrop(not(eq(intColumn, 9)), columnMetas));
+    assertTrue(canDrop(not(notEq(intColumn, 9)), columnMetas));
+    assertTrue(canDrop(not(lt(intColumn, 101)), columnMetas));
+    assertFalse(canDrop(not(lt(intColumn, 100)), columnMetas));
+    // nulls satisfy not(lt)
+    assertFalse(canDrop(not(lt(intColumn, 101)), someNullColumnMetas));
+    assertTrue(canDrop(not(gtEq(intColumn, 10)), columnMetas));
+    assertFalse(canDrop(not(gtEq(intColumn, 11)), columnMetas));
+
+    // not(a or b) == not(a) and not(b)
+    assertTrue(canDrop(not(or(lt(intColumn, 101), eq(intColumn, 1))), columnMetas));
+    // not(a and b) == not(a) or not(b)
+    assertFalse(canDrop(not(and(lt(intColumn, 101), eq(intColumn, 1))), columnMetas));
+    assertTrue(canDrop(not(not(eq(intColumn, 9))), columnMetas));
+  }
+
+  @Test
+  public void testFilterRowGroups() {
+    BlockMetaData matching = new BlockMetaData();
+    for (ColumnChunkMetaData column : columnMetas) {
+      matching.addColumn(column);
+    }
+    BlockMetaData nulls = new BlockMetaData();
+    for (ColumnChunkMetaData column : nullColumnMetas) {
+      nulls.addColumn(column);
+    }
+    List<BlockMetaData> filtered = StatisticsFilter.filterRowGroups(eq(intColumn, 50), Arrays.asList(nulls, matching, nulls));
+    assertEquals(Arrays.asList(matching), filtered);
+  }
+}
@@ -23,12 +23,20 @@ import com.google.common.collect.Lists;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import parquet.column.Encoding;
+import parquet.column.statistics.IntStatistics;
+import parquet.column.statistics.Statistics;
+import parquet.common.schema.ColumnPath;
 import parquet.example.Paper;
 import parquet.format.ConvertedType;
 import parquet.format.FieldRepetitionType;
@@ -36,6 +44,11 @@ import parquet.format.PageHeader;
 import parquet.format.PageType;
 import parquet.format.SchemaElement;
 import parquet.format.Type;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.schema.MessageType;
 import parquet.schema.OriginalType;
 import parquet.schema.PrimitiveType.PrimitiveTypeName;
@@ -117,4 +130,52 @@ public class TestParquetMetadataConverter {
     }
   }
 
+  @Test
+  public void testLazyColumns() throws IOException {
+    MessageType schema = Types.buildMessage()
+        .required(PrimitiveTypeName.INT32).named("a")
+        .required(PrimitiveTypeName.BINARY).named("b")
+        .required(PrimitiveTypeName.INT64).named("c")
+        .named("m");
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    for (int i = 0; i < 2; i++) {
+      BlockMetaData block = new BlockMetaData();
+      long offset = 4 + i * 300;
+      for (String column : new String[] { "a", "b", "c" }) {
+        PrimitiveTypeName type = schema.getType(column).asPrimitiveType().getPrimitiveTypeName();
+        Statistics stats = Statistics.getStatsBasedOnType(type);
+        if (type == PrimitiveTypeName.INT32) {
+          ((IntStatistics) stats).updateStats(i);
+        }
+        block.addColumn(ColumnChunkMetaData.get(
+            ColumnPath.get(column), type,
+            CompressionCodecName.SNAPPY, new HashSet<Encoding>(Arrays.asList(Encoding.PLAIN)),
+            stats, offset, 0, 10, 100, 200));
+        offset += 100;
+      }
+      block.setRowCount(10);
+      block.setTotalByteSize(600);
+      blocks.add(block);
+    }
+    ParquetMetadata metadata = new ParquetMetadata(new FileMetaData(schema, new HashMap<String, String>(), "test"), blocks);
+    ParquetMetadataConverter converter = new ParquetMetadataConverter();
+    parquet.format.FileMetaData parquetMetadata = converter.toParquetMetadata(1, metadata);
+
+    ParquetMetadata eager = converter.fromParquetMetadata(parquetMetadata, false);
+    ParquetMetadata lazy = converter.fromParquetMetadata(parquetMetadata, true);
+    for (int i = 0; i < 2; i++) {
+      BlockMetaData eagerBlock = eager.getBlocks().get(i);
+      BlockMetaData lazyBlock = lazy.getBlocks().get(i);
+      assertEquals(eagerBlock.getStartingPos(), lazyBlock.getStartingPos());
+      assertEquals(eagerBlock.getCompressedSize(), lazyBlock.getCompressedSize());
+      Set<ColumnPath> projection = new HashSet<ColumnPath>(Arrays.asList(ColumnPath.get("c"), ColumnPath.get("a")));
+      List<ColumnChunkMetaData> projected = lazyBlock.getColumns(projection);
+      assertEquals(eagerBlock.getColumns(projection).toString(), projected.toString());
+      assertEquals(ColumnPath.get("a"), projected.get(0).getPath());
+      assertEquals(i, ((IntStatistics) projected.get(0).getStatistics()).getMax());
+    }
+    assertEquals(eager.toString(), lazy.toString());
+    assertEquals(eager.getBlocks().get(0).getColumns().toString(), lazy.getBlocks().get(0).getColumns().toString());
+  }
+
 }
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+import parquet.example.data.Group;
+import parquet.hadoop.example.GroupReadSupport;
+
+/**
+ * reads the files of the tests written with the example object model
+ */
+final class GroupFiles {
+
+  private GroupFiles() {
+  }
+
+  /**
+   * @param conf the configuration of the reader
+   * @param path the file to read
+   * @return the records of the file in their text form, in order
+   */
+  static List<String> read(Configuration conf, Path path) throws IOException {
+    ParquetReader<Group> reader = new ParquetReader<Group>(conf, path, new GroupReadSupport());
+    List<String> records = new ArrayList<String>();
+    try {
+      Group group;
+      while ((group = reader.read()) != null) {
+        records.add(group.toString());
+      }
+    } finally {
+      reader.close();
+    }
+    return records;
+  }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.bytes.CountingAllocator;
+import parquet.column.Encoding;
+import parquet.column.ParquetProperties.WriterVersion;
+import parquet.column.statistics.IntStatistics;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestBackgroundFlush {
+
+  private static final int COUNT = 10000;
+  private static final MessageType schema = MessageTypeParser.parseMessageType(
+      "message test { required int32 id; required binary name; }");
+
+  private Path writeFile(String name, long flushMaxPendingSize) throws IOException {
+    return writeFile(name, flushMaxPendingSize, false);
+  }
+
+  private Path writeFile(String name, long flushMaxPendingSize, boolean directBuffers) throws IOException {
+    File file = new File("target/test/TestBackgroundFlush/" + name).getAbsoluteFile();
+    file.delete();
+    Path path = new Path(file.toURI());
+    Configuration conf = new Configuration();
+    GroupWriteSupport.setSchema(schema, conf);
+    conf.setLong(ParquetOutputFormat.FLUSH_MAX_PENDING_SIZE, flushMaxPendingSize);
+    conf.setBoolean(ParquetOutputFormat.DIRECT_BUFFERS, directBuffers);
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport(),
+        CompressionCodecName.SNAPPY, 16 * 1024, 1024, 1024, true, false, WriterVersion.PARQUET_1_0, conf);
+    SimpleGroupFactory f = new SimpleGroupFactory(schema);
+    for (int i = 0; i < COUNT; i++) {
+      writer.write(f.newGroup().append("id", i).append("name", "name" + (i % 13)));
+    }
+    writer.close();
+    return path;
+  }
+
+  private static long[] rowCounts(Path path) throws IOException {
+    ParquetMetadata footer = ParquetFileReader.readFooter(new Configuration(), path);
+    List<BlockMetaData> blocks = footer.getBlocks();
+    long[] rowCounts = new long[blocks.size()];
+    for (int i = 0; i < rowCounts.length; i++) {
+      rowCounts[i] = blocks.get(i).getRowCount();
+    }
+    return rowCounts;
+  }
+
+  @Test
+  public void testBackgroundFlush() throws IOException {
+    Path sync = writeFile("sync", 0);
+    long[] expectedRowCounts = rowCounts(sync);
+    assertTrue(expectedRowCounts.length > 2);
+    List<String> expected = GroupFiles.read(new Configuration(), sync);
+    assertEquals(COUNT, expected.size());
+
+    // 1: every row group is bigger than the maximum and waits for the previous ones
+    for (long flushMaxPendingSize : new long[] { 1, 64 * 1024, Long.MAX_VALUE }) {
+      Path async = writeFile("async_" + flushMaxPendingSize, flushMaxPendingSize);
+      long[] rowCounts = rowCounts(async);
+      assertEquals(expectedRowCounts.length, rowCounts.length);
+      for (int i = 0; i < rowCounts.length; i++) {
+        assertEquals(expectedRowCounts[i], rowCounts[i]);
+      }
+      assertEquals(expected, GroupFiles.read(new Configuration(), async));
+    }
+  }
+
+  @Test
+  public void testReusedBuffers() throws IOException {
+    // the stores are reused from one row group to the next
+    for (long flushMaxPendingSize : new long[] { 0, 64 * 1024 }) {
+      Path path = writeFile("reused_" + flushMaxPendingSize, flushMaxPendingSize);
+      List<BlockMetaData> blocks = ParquetFileReader.readFooter(new Configuration(), path).getBlocks();
+      assertTrue(blocks.size() > 2);
+      long firstId = 0;
+      for (BlockMetaData block : blocks) {
+        ColumnChunkMetaData id = block.getColumns().get(0);
+        ColumnChunkMetaData name = block.getColumns().get(1);
+        assertEquals(block.getRowCount(), id.getValueCount());
+        assertEquals(block.getRowCount(), name.getValueCount());
+        // the statistics are the ones of the row group only
+        IntStatistics idStatistics = (IntStatistics)id.getStatistics();
+        assertEquals(firstId, idStatistics.getMin());
+        assertEquals(firstId + block.getRowCount() - 1, idStatistics.getMax());
+        // every row group has its own dictionary
+        assertTrue(name.getEncodings().contains(Encoding.PLAIN_DICTIONARY));
+        firstId += block.getRowCount();
+      }
+      assertEquals(COUNT, firstId);
+    }
+  }
+
+  @Test
+  public void testDirectBuffers() throws IOException {
+    Path heap = writeFile("heap", 0);
+    long[] expectedRowCounts = rowCounts(heap);
+    List<String> expected = GroupFiles.read(new Configuration(), heap);
+    for (long flushMaxPendingSize : new long[] { 0, 64 * 1024 }) {
+      Path direct = writeFile("direct_" + flushMaxPendingSize, flushMaxPendingSize, true);
+      long[] rowCounts = rowCounts(direct);
+      assertEquals(expectedRowCounts.length, rowCounts.length);
+      for (int i = 0; i < rowCounts.length; i++) {
+        assertEquals(expectedRowCounts[i], rowCounts[i]);
+      }
+      assertEquals(expected, GroupFiles.read(new Configuration(), direct));
+    }
+  }
+
+  @Test
+  public void testBuffersReleasedAfterFailedFlush() throws Exception {
+    for (long flushMaxPendingSize : new long[] { 0, 64 * 1024 }) {
+      for (int compressionThreads : new int[] { 0, 2 }) {
+        File file = new File("target/test/TestBackgroundFlush/failed_" + flushMaxPendingSize + "_" + compressionThreads).getAbsoluteFile();
+        file.delete();
+        Configuration conf = new Configuration();
+        ParquetFileWriter w = new ParquetFileWriter(conf, schema, new Path(file.toURI()));
+        w.start();
+        CodecFactory codecFactory = new CodecFactory(conf);
+        CountingAllocator allocator = new CountingAllocator();
+        GroupWriteSupport.setSchema(schema, conf);
+        GroupWriteSupport writeSupport = new GroupWriteSupport();
+        Map<String, String> extraMetaData = new HashMap<String, String>();
+        InternalParquetRecordWriter<Group> writer = new InternalParquetRecordWriter<Group>(
+            w, writeSupport, schema, writeSupport.init(conf).getExtraMetaData(), 16 * 1024, 1024,
+            codecFactory.getCompressor(CompressionCodecName.SNAPPY, 1024), 1024, true, false, WriterVersion.PARQUET_1_0,
+            flushMaxPendingSize, compressionThreads, allocator);
+        // every row group fails to start in the ended file
+        w.end(extraMetaData);
+        SimpleGroupFactory f = new SimpleGroupFactory(schema);
+        try {
+          for (int i = 0; i < COUNT; i++) {
+            writer.write(f.newGroup().append("id", i).append("name", "name" + (i % 13)));
+          }
+        } catch (IOException e) {
+          // the failure of a previous row group, or of this one when written synchronously
+        }
+        try {
+          writer.close();
+          fail("the last row group can not be written");
+        } catch (IOException e) {
+          // expected
+        }
+        // the buffers of the row groups failed or never written are released as well as the free ones
+        assertEquals(0, allocator.getOutstanding());
+        codecFactory.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static parquet.hadoop.GroupFiles.read;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import parquet.column.ParquetProperties.WriterVersion;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.util.HeapByteArrayPool;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestBufferPool {
+
+  private static final int COUNT = 10000;
+  private static final MessageType schema = MessageTypeParser.parseMessageType(
+      "message test { required int32 id; required binary name; }");
+  private static final File dir = new File("target/test/TestBufferPool").getAbsoluteFile();
+
+  /**
+   * counts the arrays it allocates
+   */
+  public static class CountingPool extends HeapByteArrayPool {
+    private int allocated;
+    private int released;
+
+    @Override
+    public synchronized byte[] allocate(int size) {
+      long pooledSize = getPooledSize();
+      byte[] buffer = super.allocate(size);
+      if (getPooledSize() == pooledSize) {
+        ++ allocated;
+      }
+      return buffer;
+    }
+
+    @Override
+    public synchronized void release(byte[] buffer) {
+      ++ released;
+      super.release(buffer);
+    }
+
+    synchronized void reset() {
+      allocated = 0;
+      released = 0;
+    }
+  }
+
+  private static Path path(CompressionCodecName codec) {
+    return new Path(new File(dir, codec.name()).toURI());
+  }
+
+  @BeforeClass
+  public static void writeFiles() throws IOException {
+    for (CompressionCodecName codec : new CompressionCodecName[] { CompressionCodecName.UNCOMPRESSED, CompressionCodecName.SNAPPY }) {
+      Path path = path(codec);
+      new File(path.toUri()).delete();
+      Configuration conf = new Configuration();
+      GroupWriteSupport.setSchema(schema, conf);
+      // small row groups of the same size
+      ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport(),
+          codec, 4 * 1024, 1024, 1024, true, false, WriterVersion.PARQUET_1_0, conf);
+      SimpleGroupFactory f = new SimpleGroupFactory(schema);
+      for (int i = 0; i < COUNT; i++) {
+        writer.write(f.newGroup().append("id", i).append("name", "name" + (i % 10)));
+      }
+      writer.close();
+      assertTrue(ParquetFileReader.readFooter(conf, path).getBlocks().size() > 5);
+    }
+  }
+
+  @AfterClass
+  public static void deleteFiles() {
+    for (File file : dir.listFiles()) {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testSharedPool() {
+    Configuration conf = new Configuration();
+    assertEquals(null, ParquetInputFormat.getBufferPool(conf));
+    ParquetInputFormat.setBufferPoolClass(conf, CountingPool.class);
+    assertSame(ParquetInputFormat.getBufferPool(conf), ParquetInputFormat.getBufferPool(new Configuration(conf)));
+  }
+
+  @Test
+  public void testReuseBuffers() throws IOException {
+    Configuration pooledConf = new Configuration();
+    ParquetInputFormat.setBufferPoolClass(pooledConf, CountingPool.class);
+    CountingPool pool = (CountingPool) ParquetInputFormat.getBufferPool(pooledConf);
+    for (CompressionCodecName codec : new CompressionCodecName[] { CompressionCodecName.UNCOMPRESSED, CompressionCodecName.SNAPPY }) {
+      Path path = path(codec);
+      int rowGroupCount = ParquetFileReader.readFooter(pooledConf, path).getBlocks().size();
+      List<String> expected = read(new Configuration(), path);
+      assertEquals(COUNT, expected.size());
+      pool.reset();
+      assertEquals(codec.name(), expected, read(pooledConf, path));
+      // each row group is read in one buffer, given back once its pages are read
+      assertEquals(codec.name(), rowGroupCount, pool.released);
+      assertTrue(codec.name() + " " + pool.allocated, pool.allocated < rowGroupCount);
+    }
+  }
+
+  @Test
+  public void testHeapByteArrayPool() {
+    HeapByteArrayPool pool = new HeapByteArrayPool(100);
+    byte[] b1 = pool.allocate(40);
+    assertEquals(40, b1.length);
+    pool.release(b1);
+    assertEquals(40, pool.getPooledSize());
+    // too large to be used
+    assertEquals(10, pool.allocate(10).length);
+    assertSame(b1, pool.allocate(30));
+    assertEquals(0, pool.getPooledSize());
+    pool.release(b1);
+    pool.release(new byte[50]);
+    // over the limit
+    pool.release(new byte[20]);
+    assertEquals(90, pool.getPooledSize());
+    assertEquals(50, pool.allocate(45).length);
+  }
+}
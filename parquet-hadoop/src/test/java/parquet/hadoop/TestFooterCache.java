@@ -0,0 +1,133 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.column.ParquetProperties.WriterVersion;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestFooterCache {
+
+  private static final MessageType schema = MessageTypeParser.parseMessageType("message test { required int32 id; }");
+
+  private static FileStatus status(String path, long length, long modificationTime) {
+    return new FileStatus(length, false, 1, 1024, modificationTime, new Path(path));
+  }
+
+  private static ParquetMetadata footer() {
+    return new ParquetMetadata(new FileMetaData(schema, new HashMap<String, String>(), "test"), new ArrayList<BlockMetaData>());
+  }
+
+  @Test
+  public void testEviction() {
+    FooterCache cache = new FooterCache(100);
+    ParquetMetadata f1 = footer();
+    ParquetMetadata f2 = footer();
+    ParquetMetadata f3 = footer();
+    cache.put(status("/a", 10, 1), f1, 40);
+    cache.put(status("/b", 10, 1), f2, 40);
+    assertSame(f1, cache.get(status("/a", 10, 1)));
+    // b is the least recently used
+    cache.put(status("/c", 10, 1), f3, 40);
+    assertEquals(2, cache.getFooterCount());
+    assertEquals(80, cache.getSize());
+    assertNull(cache.get(status("/b", 10, 1)));
+    assertSame(f1, cache.get(status("/a", 10, 1)));
+    assertSame(f3, cache.get(status("/c", 10, 1)));
+    // too large
+    cache.put(status("/d", 10, 1), footer(), 101);
+    assertEquals(2, cache.getFooterCount());
+    cache.setMaxSize(50);
+    assertEquals(1, cache.getFooterCount());
+    assertSame(f3, cache.get(status("/c", 10, 1)));
+    assertEquals(4, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    cache.clear();
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void testModifiedFile() {
+    FooterCache cache = new FooterCache(100);
+    cache.put(status("/a", 10, 1), footer(), 40);
+    assertNull(cache.get(status("/a", 10, 2)));
+    assertNull(cache.get(status("/a", 11, 1)));
+  }
+
+  @Test
+  public void testSharedSize() {
+    Configuration conf = new Configuration();
+    conf.setLong(ParquetInputFormat.FOOTER_CACHE_SIZE, 1024 * 1024);
+    FooterCache cache = FooterCache.get(conf);
+    cache.clear();
+    ParquetMetadata footer = footer();
+    cache.put(status("/a", 10, 1), footer, 1000);
+    // a smaller size does not shrink the shared cache
+    Configuration small = new Configuration();
+    small.setLong(ParquetInputFormat.FOOTER_CACHE_SIZE, 10);
+    assertSame(cache, FooterCache.get(small));
+    assertSame(footer, cache.get(status("/a", 10, 1)));
+    // 0 bypasses it
+    small.setLong(ParquetInputFormat.FOOTER_CACHE_SIZE, 0);
+    assertNull(FooterCache.get(small));
+    assertEquals(1, cache.getFooterCount());
+    cache.clear();
+  }
+
+  @Test
+  public void testReadFooter() throws IOException {
+    File file = new File("target/test/TestFooterCache/testReadFooter").getAbsoluteFile();
+    file.delete();
+    Path path = new Path(file.toURI());
+    Configuration conf = new Configuration();
+    GroupWriteSupport.setSchema(schema, conf);
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport(),
+        CompressionCodecName.UNCOMPRESSED, 1024, 1024, 1024, true, false, WriterVersion.PARQUET_1_0, conf);
+    writer.write(new SimpleGroupFactory(schema).newGroup().append("id", 1));
+    writer.close();
+
+    assertNull(FooterCache.get(conf));
+    conf.setLong(ParquetInputFormat.FOOTER_CACHE_SIZE, 1024 * 1024);
+    FooterCache cache = FooterCache.get(conf);
+    cache.clear();
+    ParquetMetadata footer = ParquetFileReader.readFooter(conf, path);
+    assertEquals(1, cache.getFooterCount());
+    assertSame(footer, ParquetFileReader.readFooter(conf, path));
+    assertSame(footer, ParquetFileReader.readAllFootersInParallel(conf, path.getFileSystem(conf).getFileStatus(path)).get(0).getParquetMetadata());
+    cache.clear();
+  }
+}
@@ -15,6 +15,7 @@
  */
 package parquet.hadoop;
 
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.BlockLocation;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
@@ -22,13 +23,15 @@ import org.junit.Before;
 import org.junit.Test;
 import parquet.column.Encoding;
 import parquet.column.statistics.BinaryStatistics;
+import parquet.common.schema.ColumnPath;
+import parquet.filter2.predicate.FilterPredicate;
 import parquet.hadoop.api.ReadSupport;
 import parquet.hadoop.metadata.BlockMetaData;
 import parquet.hadoop.metadata.ColumnChunkMetaData;
-import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.CompressionCodecName;
 import parquet.hadoop.metadata.FileMetaData;
 import parquet.io.ParquetDecodingException;
+import parquet.io.api.Binary;
 import parquet.schema.MessageType;
 import parquet.schema.MessageTypeParser;
 import parquet.schema.PrimitiveType.PrimitiveTypeName;
@@ -41,7 +44,14 @@ import java.util.List;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
+import static parquet.filter2.predicate.FilterApi.binaryColumn;
+import static parquet.filter2.predicate.FilterApi.eq;
+import static parquet.filter2.predicate.FilterApi.gt;
+import static parquet.filter2.predicate.FilterApi.intColumn;
+import static parquet.filter2.predicate.FilterApi.not;
+import static parquet.filter2.predicate.FilterApi.or;
 
 public class TestInputFormat {
 
@@ -243,6 +253,66 @@ public class TestInputFormat {
     shouldSplitLengthBe(splits, 20, 20, 10, 20, 20, 10);
   }
 
+  @Test
+  public void testGenerateSplitsWithoutRowGroups() throws Exception {
+    withHDFSBlockSize(50, 50);
+    List<ParquetInputSplit> splits = ParquetInputFormat.generateSplits(
+        new ArrayList<BlockMetaData>(), hdfsBlocks, fileStatus, fileMetaData, schema.toString(),
+        new HashMap<String, String>(), 10, 18);
+    assertEquals(0, splits.size());
+  }
+
+  @Test
+  public void testGenerateSplitsWithProjection() throws Exception {
+    withHDFSBlockSize(50, 50);
+    List<ParquetInputSplit> splits = ParquetInputFormat.generateSplits(
+        blocks, hdfsBlocks, fileStatus, fileMetaData, schema.toString(),
+        new HashMap<String, String>(), 50, 50, new HashSet<ColumnPath>());
+    assertEquals(2, splits.size());
+    shouldSplitLengthBe(splits, 50, 50);
+    shouldKeepStartingPos(splits);
+    splits = ParquetInputFormat.generateSplits(
+        blocks, hdfsBlocks, fileStatus, fileMetaData, schema.toString(),
+        new HashMap<String, String>(), 50, 50, new HashSet<ColumnPath>(Arrays.asList(ColumnPath.get("foo"))));
+    assertEquals(blocks.subList(0, 5).toString(), splits.get(0).getBlocks().toString());
+  }
+
+  @Test
+  public void testGenerateSplitsWithDisjointProjection() throws Exception {
+    withHDFSBlockSize(50, 50);
+    // none of the requested columns is in the file
+    List<ParquetInputSplit> splits = ParquetInputFormat.generateSplits(
+        blocks, hdfsBlocks, fileStatus, fileMetaData, "message doc { required binary bar; }",
+        new HashMap<String, String>(), 50, 50, new HashSet<ColumnPath>(Arrays.asList(ColumnPath.get("bar"))));
+    assertEquals(2, splits.size());
+    // the length of the row groups is kept for the split accounting
+    shouldSplitLengthBe(splits, 50, 50);
+    shouldKeepStartingPos(splits);
+  }
+
+  private void shouldKeepStartingPos(List<ParquetInputSplit> splits) {
+    int i = 0;
+    for (ParquetInputSplit split : splits) {
+      for (BlockMetaData block : split.getBlocks()) {
+        assertEquals(1, block.getColumns().size());
+        assertEquals(blocks.get(i).getStartingPos(), block.getStartingPos());
+        ++ i;
+      }
+    }
+    assertEquals(blocks.size(), i);
+  }
+
+  @Test
+  public void testFilterPredicateConfiguration() throws Exception {
+    Configuration conf = new Configuration();
+    assertNull(ParquetInputFormat.getFilterPredicate(conf));
+    FilterPredicate p = or(eq(binaryColumn("a.b"), Binary.fromString("foo")), not(gt(intColumn("c"), 7)));
+    ParquetInputFormat.setFilterPredicate(conf, p);
+    FilterPredicate read = ParquetInputFormat.getFilterPredicate(conf);
+    assertEquals(p, read);
+    assertEquals(p.toString(), read.toString());
+  }
+
   private List<ParquetInputSplit> generateSplitByMinMaxSize(long min, long max) throws IOException {
     return ParquetInputFormat.generateSplits(
             blocks, hdfsBlocks, fileStatus, fileMetaData, schema.toString(), new HashMap<String, String>() {{
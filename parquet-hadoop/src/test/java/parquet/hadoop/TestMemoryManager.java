@@ -0,0 +1,103 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.bytes.HeapByteBufferAllocator;
+import parquet.column.ParquetProperties.WriterVersion;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestMemoryManager {
+
+  private static final MessageType schema = MessageTypeParser.parseMessageType(
+      "message test { required int32 id; required binary name; }");
+  private static final int BLOCK_SIZE = 4 * 1024 * 1024;
+
+  private ParquetRecordWriter<Group> newWriter(Configuration conf, MemoryManager memoryManager, int i) throws IOException {
+    File file = new File("target/test/TestMemoryManager/part" + i).getAbsoluteFile();
+    file.delete();
+    ParquetFileWriter w = new ParquetFileWriter(conf, schema, new Path(file.toURI()));
+    w.start();
+    GroupWriteSupport writeSupport = new GroupWriteSupport();
+    writeSupport.init(conf);
+    return new ParquetRecordWriter<Group>(w, writeSupport, schema, new HashMap<String, String>(),
+        BLOCK_SIZE, 1024, new CodecFactory(conf).getCompressor(CompressionCodecName.UNCOMPRESSED, 1024),
+        1024, true, false, WriterVersion.PARQUET_1_0, 0, 0, memoryManager, new HeapByteBufferAllocator());
+  }
+
+  @Test
+  public void testScaleRowGroupSizes() throws Exception {
+    Configuration conf = new Configuration();
+    GroupWriteSupport.setSchema(schema, conf);
+    // room for 2.5 writers
+    float ratio = (float)(2.5 * BLOCK_SIZE / Runtime.getRuntime().maxMemory());
+    MemoryManager memoryManager = new MemoryManager(ratio, MemoryManager.DEFAULT_MIN_MEMORY_ALLOCATION);
+
+    List<ParquetRecordWriter<Group>> writers = new ArrayList<ParquetRecordWriter<Group>>();
+    for (int i = 0; i < 2; i++) {
+      writers.add(newWriter(conf, memoryManager, i));
+    }
+    assertEquals(2, memoryManager.getWriterCount());
+    assertEquals(1.0, memoryManager.getScale(), 0);
+
+    for (int i = 2; i < 5; i++) {
+      writers.add(newWriter(conf, memoryManager, i));
+    }
+    assertEquals(5, memoryManager.getWriterCount());
+    assertEquals(0.5, memoryManager.getScale(), 0.01);
+
+    SimpleGroupFactory f = new SimpleGroupFactory(schema);
+    for (ParquetRecordWriter<Group> writer : writers) {
+      for (int i = 0; i < 1000; i++) {
+        writer.write(null, f.newGroup().append("id", i).append("name", "name" + i));
+      }
+    }
+
+    for (int i = 0; i < 3; i++) {
+      writers.remove(0).close(null);
+    }
+    assertEquals(2, memoryManager.getWriterCount());
+    assertEquals(1.0, memoryManager.getScale(), 0);
+    for (ParquetRecordWriter<Group> writer : writers) {
+      writer.close(null);
+    }
+    assertEquals(0, memoryManager.getWriterCount());
+  }
+
+  @Test
+  public void testSharedMemoryManager() {
+    MemoryManager memoryManager = ParquetOutputFormat.getMemoryManager(new Configuration());
+    assertTrue(memoryManager.getTotalMemoryPool() > 0);
+    assertTrue(memoryManager == ParquetOutputFormat.getMemoryManager(new Configuration()));
+  }
+}
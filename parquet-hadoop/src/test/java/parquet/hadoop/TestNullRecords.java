@@ -0,0 +1,118 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static parquet.filter2.predicate.FilterApi.intColumn;
+import static parquet.filter2.predicate.FilterApi.lt;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.column.ParquetProperties.WriterVersion;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.api.ReadSupport;
+import parquet.hadoop.example.GroupReadSupport;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.io.api.GroupConverter;
+import parquet.io.api.RecordMaterializer;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestNullRecords {
+
+  private static final int COUNT = 100;
+  private static final MessageType schema = MessageTypeParser.parseMessageType(
+      "message test { required int32 id; }");
+
+  /**
+   * materializes null for the record of the given id
+   */
+  private static class NullRecordReadSupport extends GroupReadSupport {
+    private final int nullId;
+
+    NullRecordReadSupport(int nullId) {
+      this.nullId = nullId;
+    }
+
+    @Override
+    public RecordMaterializer<Group> prepareForRead(Configuration configuration,
+        Map<String, String> keyValueMetaData, MessageType fileSchema, ReadContext readContext) {
+      final RecordMaterializer<Group> materializer = super.prepareForRead(configuration, keyValueMetaData, fileSchema, readContext);
+      return new RecordMaterializer<Group>() {
+        @Override
+        public Group getCurrentRecord() {
+          Group record = materializer.getCurrentRecord();
+          return record.getInteger("id", 0) == nullId ? null : record;
+        }
+
+        @Override
+        public GroupConverter getRootConverter() {
+          return materializer.getRootConverter();
+        }
+      };
+    }
+  }
+
+  @Test
+  public void testNullRecordWithFilter() throws IOException, InterruptedException {
+    File file = new File("target/test/TestNullRecords/testParquetFile").getAbsoluteFile();
+    file.delete();
+    Path path = new Path(file.toURI());
+    Configuration conf = new Configuration();
+    GroupWriteSupport.setSchema(schema, conf);
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport(),
+        CompressionCodecName.UNCOMPRESSED, 1024 * 1024, 1024, 1024, true, false, WriterVersion.PARQUET_1_0, conf);
+    SimpleGroupFactory f = new SimpleGroupFactory(schema);
+    for (int i = 0; i < COUNT; i++) {
+      writer.write(f.newGroup().append("id", i));
+    }
+    writer.close();
+
+    ParquetInputFormat.setFilterPredicate(conf, lt(intColumn("id"), 50));
+    ParquetMetadata footer = ParquetFileReader.readFooter(conf, path);
+    InternalParquetRecordReader<Group> reader = new InternalParquetRecordReader<Group>(new NullRecordReadSupport(10));
+    reader.initialize(schema, schema, footer.getFileMetaData().getKeyValueMetaData(),
+        new ReadSupport.ReadContext(schema).getReadSupportMetadata(), path, footer.getBlocks(), conf);
+    List<Integer> ids = new ArrayList<Integer>();
+    int nullCount = 0;
+    while (reader.nextKeyValue()) {
+      Group record = reader.getCurrentValue();
+      if (record == null) {
+        ++ nullCount;
+      } else {
+        ids.add(record.getInteger("id", 0));
+      }
+    }
+    reader.close();
+    // the records after the null one are still read
+    assertEquals(1, nullCount);
+    assertEquals(49, ids.size());
+    assertTrue(ids.contains(11));
+    assertEquals(49, (int) ids.get(ids.size() - 1));
+  }
+}
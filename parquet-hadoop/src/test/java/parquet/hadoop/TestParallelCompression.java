@@ -0,0 +1,82 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.column.ParquetProperties.WriterVersion;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestParallelCompression {
+
+  private static final int COUNT = 10000;
+  private static final MessageType schema = MessageTypeParser.parseMessageType(
+      "message test { required int32 id; required binary name; optional binary comment; required int64 time; }");
+
+  private Path writeFile(CompressionCodecName codec, Configuration conf, String name) throws IOException {
+    File file = new File("target/test/TestParallelCompression/" + codec + "_" + name).getAbsoluteFile();
+    file.delete();
+    Path path = new Path(file.toURI());
+    GroupWriteSupport.setSchema(schema, conf);
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport(),
+        codec, 32 * 1024, 1024, 1024, true, false, WriterVersion.PARQUET_1_0, conf);
+    SimpleGroupFactory f = new SimpleGroupFactory(schema);
+    for (int i = 0; i < COUNT; i++) {
+      Group group = f.newGroup().append("id", i).append("name", "name" + (i % 7));
+      if (i % 3 == 0) {
+        group.append("comment", "comment " + i);
+      }
+      writer.write(group.append("time", i * 1000L));
+    }
+    writer.close();
+    return path;
+  }
+
+  @Test
+  public void testParallelCompression() throws IOException {
+    for (CompressionCodecName codec : new CompressionCodecName[] { CompressionCodecName.GZIP, CompressionCodecName.SNAPPY }) {
+      List<String> expected = GroupFiles.read(new Configuration(), writeFile(codec, new Configuration(), "sync"));
+      assertEquals(COUNT, expected.size());
+      for (int threads : new int[] { 1, 3 }) {
+        Configuration conf = new Configuration();
+        conf.setInt(ParquetOutputFormat.COMPRESSION_THREADS, threads);
+        Path parallel = writeFile(codec, conf, "parallel_" + threads);
+        // the pages are in the same order
+        assertEquals(codec + " " + threads, expected, GroupFiles.read(new Configuration(), parallel));
+      }
+
+      // with the row groups written in the background too
+      Configuration conf = new Configuration();
+      conf.setInt(ParquetOutputFormat.COMPRESSION_THREADS, 2);
+      conf.setLong(ParquetOutputFormat.FLUSH_MAX_PENDING_SIZE, 64 * 1024);
+      Path parallel = writeFile(codec, conf, "parallel_async");
+      assertEquals(codec + " async", expected, GroupFiles.read(new Configuration(), parallel));
+    }
+  }
+}
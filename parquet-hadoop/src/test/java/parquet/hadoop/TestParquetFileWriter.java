@@ -19,6 +19,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static parquet.column.Encoding.BIT_PACKED;
 import static parquet.column.Encoding.PLAIN;
 import static parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
@@ -124,6 +125,13 @@ public class TestParquetFileWriter {
     expectedEncoding.add(BIT_PACKED);
     assertEquals(expectedEncoding,readFooter.getBlocks().get(0).getColumns().get(0).getEncodings());
 
+    // the footer does not fit in what is read first
+    for (int footerReadSize : new int[] { 0, 8, 50 }) {
+      Configuration footerConf = new Configuration(configuration);
+      footerConf.setInt(ParquetInputFormat.FOOTER_READ_SIZE, footerReadSize);
+      assertEquals(readFooter.toString(), ParquetFileReader.readFooter(footerConf, path).toString());
+    }
+
     { // read first block of col #1
       ParquetFileReader r = new ParquetFileReader(configuration, path, Arrays.asList(readFooter.getBlocks().get(0)), Arrays.asList(schema.getColumnDescription(path1)));
       PageReadStore pages = r.readNextRowGroup();
@@ -156,6 +164,43 @@ public class TestParquetFileWriter {
     PrintFooter.main(new String[] {path.toString()});
   }
 
+  @Test
+  public void testReadWithGaps() throws Exception {
+    File testFile = new File("target/test/TestParquetFileWriter/testReadWithGaps").getAbsoluteFile();
+    testFile.delete();
+    Path path = new Path(testFile.toURI());
+    Configuration configuration = new Configuration();
+
+    MessageType schema = MessageTypeParser.parseMessageType("message m { required binary a; required binary b; required binary c; }");
+    String[][] paths = {{"a"}, {"b"}, {"c"}};
+    CompressionCodecName codec = CompressionCodecName.UNCOMPRESSED;
+    ParquetFileWriter w = new ParquetFileWriter(configuration, schema, path);
+    w.start();
+    w.startBlock(2);
+    for (int i = 0; i < paths.length; i++) {
+      w.startColumn(schema.getColumnDescription(paths[i]), 2, codec);
+      w.writeDataPage(2, 4, BytesInput.from(new byte[] { (byte)i, 1, 2, 3}), new BinaryStatistics(), BIT_PACKED, BIT_PACKED, PLAIN);
+      w.endColumn();
+    }
+    w.endBlock();
+    w.end(new HashMap<String, String>());
+    ParquetMetadata readFooter = ParquetFileReader.readFooter(configuration, path);
+
+    // b is between a and c
+    long[][] gapAndMaxSize = {{0, Integer.MAX_VALUE}, {1024, Integer.MAX_VALUE}, {1024, 1}};
+    for (long[] conf : gapAndMaxSize) {
+      configuration.setLong(ParquetInputFormat.CHUNK_MAX_GAP, conf[0]);
+      configuration.setLong(ParquetInputFormat.CHUNK_MAX_READ_SIZE, conf[1]);
+      ParquetFileReader r = new ParquetFileReader(configuration, path, readFooter.getBlocks(),
+          Arrays.asList(schema.getColumnDescription(paths[0]), schema.getColumnDescription(paths[2])));
+      PageReadStore pages = r.readNextRowGroup();
+      validateContains(schema, pages, paths[0], 2, BytesInput.from(new byte[] { 0, 1, 2, 3}));
+      validateContains(schema, pages, paths[2], 2, BytesInput.from(new byte[] { 2, 1, 2, 3}));
+      assertNull(r.readNextRowGroup());
+      r.close();
+    }
+  }
+
   @Test
   public void testConvertToThriftStatistics() throws Exception {
     long[] longArray = new long[] {39L, 99L, 12L, 1000L, 65L, 542L, 2533461316L, -253346131996L, Long.MAX_VALUE, Long.MIN_VALUE};
@@ -307,6 +352,63 @@ public class TestParquetFileWriter {
 
   }
 
+  @Test
+  public void testReadFootersInParallel() throws Exception {
+    File testDir = new File("target/test/TestParquetFileWriter/testReadFootersInParallel").getAbsoluteFile();
+    Path testDirPath = new Path(testDir.toURI());
+    Configuration configuration = new Configuration();
+    configuration.setInt(ParquetInputFormat.FOOTER_READ_PARALLELISM, 2);
+
+    final FileSystem fs = testDirPath.getFileSystem(configuration);
+    fs.delete(testDirPath, true);
+    fs.mkdirs(testDirPath);
+
+    MessageType schema = MessageTypeParser.parseMessageType("message m { required group a {required binary b;} required group c { required int64 d; }}");
+    List<FileStatus> statuses = new ArrayList<FileStatus>();
+    for (int i = 0; i < 3; i++) {
+      Path file = new Path(testDirPath, "part" + i);
+      createFile(configuration, file, schema);
+      statuses.add(fs.getFileStatus(file));
+    }
+
+    // the footers are returned in the order of the files
+    List<Footer> footers = ParquetFileReader.readAllFootersInParallel(configuration, statuses);
+    validateFooters(footers);
+    for (int i = 0; i < statuses.size(); i++) {
+      assertEquals(statuses.get(i).getPath(), footers.get(i).getFile());
+    }
+
+    // fewer or more threads than files, the shared executor grows to the highest parallelism
+    for (int parallelism : new int[] { 1, 4 }) {
+      Configuration conf = new Configuration(configuration);
+      conf.setInt(ParquetInputFormat.FOOTER_READ_PARALLELISM, parallelism);
+      footers = ParquetFileReader.readAllFootersInParallel(conf, statuses);
+      validateFooters(footers);
+      for (int i = 0; i < statuses.size(); i++) {
+        assertEquals(statuses.get(i).getPath(), footers.get(i).getFile());
+      }
+    }
+
+    // one bad file fails the whole read
+    Path notParquet = new Path(testDirPath, "notParquet");
+    fs.create(notParquet).close();
+    statuses.add(fs.getFileStatus(notParquet));
+    try {
+      ParquetFileReader.readAllFootersInParallel(configuration, statuses);
+      fail("should have failed on " + notParquet);
+    } catch (IOException e) {
+      // expected
+    }
+
+    configuration.setInt(ParquetInputFormat.FOOTER_READ_PARALLELISM, 0);
+    try {
+      ParquetFileReader.readAllFootersInParallel(configuration, statuses);
+      fail("parallelism must be positive");
+    } catch (BadConfigurationException e) {
+      // expected
+    }
+  }
+
   private void validateFooters(final List<Footer> metadata) {
     LOG.debug(metadata);
     assertEquals(3, metadata.size());
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static parquet.filter2.predicate.FilterApi.binaryColumn;
+import static parquet.filter2.predicate.FilterApi.eq;
+import static parquet.hadoop.GroupFiles.read;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.column.ParquetProperties.WriterVersion;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.io.api.Binary;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+/**
+ * reads the same files in streaming and memory mapped modes, with and without read ahead and filter,
+ * and compares the records with the default mode
+ */
+public class TestReadModes {
+
+  private static final int COUNT = 10000;
+  private static final MessageType schema = MessageTypeParser.parseMessageType(
+      "message test { required int32 id; required binary name; optional binary comment; }");
+
+  private static Path writeFile(CompressionCodecName codec, boolean dictionary) throws IOException {
+    File file = new File("target/test/TestReadModes/" + codec + "_" + dictionary).getAbsoluteFile();
+    file.delete();
+    Path path = new Path(file.toURI());
+    Configuration conf = new Configuration();
+    GroupWriteSupport.setSchema(schema, conf);
+    // several row groups of several pages
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport(),
+        codec, 32 * 1024, 1024, 1024, dictionary, false, WriterVersion.PARQUET_1_0, conf);
+    SimpleGroupFactory f = new SimpleGroupFactory(schema);
+    for (int i = 0; i < COUNT; i++) {
+      Group group = f.newGroup().append("id", i).append("name", "name" + (i % 7));
+      if (i % 3 == 0) {
+        group.append("comment", "comment " + i);
+      }
+      writer.write(group);
+    }
+    writer.close();
+    return path;
+  }
+
+  private static Configuration conf(String mode, boolean prefetch) {
+    Configuration conf = new Configuration();
+    conf.setBoolean(mode, true);
+    conf.setBoolean(ParquetInputFormat.PREFETCH_ENABLED, prefetch);
+    return conf;
+  }
+
+  @Test
+  public void testReadModes() throws IOException {
+    for (CompressionCodecName codec : new CompressionCodecName[] { CompressionCodecName.UNCOMPRESSED, CompressionCodecName.SNAPPY }) {
+      for (boolean dictionary : new boolean[] { true, false }) {
+        Path path = writeFile(codec, dictionary);
+        List<String> expected = read(new Configuration(), path);
+        assertEquals(COUNT, expected.size());
+        Configuration filterConf = new Configuration();
+        ParquetInputFormat.setFilterPredicate(filterConf, eq(binaryColumn("name"), Binary.fromString("name3")));
+        List<String> filtered = read(filterConf, path);
+        assertEquals(1429, filtered.size());
+
+        for (String mode : new String[] { ParquetInputFormat.STREAMING_READ_ENABLED, ParquetInputFormat.MEMORY_MAP_ENABLED }) {
+          for (boolean prefetch : new boolean[] { false, true }) {
+            String message = codec + " " + dictionary + " " + mode + " " + prefetch;
+            assertEquals(message, expected, read(conf(mode, prefetch), path));
+            Configuration conf = conf(mode, prefetch);
+            ParquetInputFormat.setFilterPredicate(conf, eq(binaryColumn("name"), Binary.fromString("name3")));
+            assertEquals(message, filtered, read(conf, path));
+          }
+        }
+      }
+    }
+  }
+}
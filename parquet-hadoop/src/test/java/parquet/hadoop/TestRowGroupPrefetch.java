@@ -0,0 +1,156 @@
+/**
+ * Copyright 2014 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static parquet.filter2.predicate.FilterApi.binaryColumn;
+import static parquet.filter2.predicate.FilterApi.eq;
+import static parquet.filter2.predicate.FilterApi.intColumn;
+import static parquet.filter2.predicate.FilterApi.lt;
+import static parquet.filter2.predicate.FilterApi.or;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import parquet.column.ParquetProperties.WriterVersion;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.filter2.predicate.FilterPredicate;
+import parquet.hadoop.example.GroupReadSupport;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.io.api.Binary;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestRowGroupPrefetch {
+
+  private static final int COUNT = 10000;
+  private static final MessageType schema = MessageTypeParser.parseMessageType(
+      "message test { required int32 id; required binary name; }");
+  private static final File file = new File("target/test/TestRowGroupPrefetch/testParquetFile").getAbsoluteFile();
+  private static final Path path = new Path(file.toURI());
+  private static final File gzipFile = new File("target/test/TestRowGroupPrefetch/testGzipParquetFile").getAbsoluteFile();
+  private static final Path gzipPath = new Path(gzipFile.toURI());
+
+  @BeforeClass
+  public static void writeFiles() throws IOException {
+    writeFile(path, CompressionCodecName.SNAPPY);
+    // the Hadoop codecs use stateful decompressors
+    writeFile(gzipPath, CompressionCodecName.GZIP);
+  }
+
+  private static void writeFile(Path path, CompressionCodecName codec) throws IOException {
+    new File(path.toUri()).delete();
+    Configuration conf = new Configuration();
+    GroupWriteSupport.setSchema(schema, conf);
+    // small row groups
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport(),
+        codec, 4 * 1024, 1024, 1024, true, false, WriterVersion.PARQUET_1_0, conf);
+    SimpleGroupFactory f = new SimpleGroupFactory(schema);
+    for (int i = 0; i < COUNT; i++) {
+      // each row group has a few distinct names
+      writer.write(f.newGroup().append("id", i).append("name", "name" + (i / 1000) + "_" + (i % 3)));
+    }
+    writer.close();
+    assertTrue(ParquetFileReader.readFooter(conf, path).getBlocks().size() > 5);
+  }
+
+  @AfterClass
+  public static void deleteFiles() {
+    file.delete();
+    gzipFile.delete();
+  }
+
+  private static List<Integer> readIds(Configuration conf) throws IOException {
+    return readIds(conf, path);
+  }
+
+  private static List<Integer> readIds(Configuration conf, Path path) throws IOException {
+    ParquetReader<Group> reader = new ParquetReader<Group>(conf, path, new GroupReadSupport());
+    List<Integer> ids = new ArrayList<Integer>();
+    Group group;
+    while ((group = reader.read()) != null) {
+      ids.add(group.getInteger("id", 0));
+    }
+    reader.close();
+    return ids;
+  }
+
+  private static Configuration prefetchConf() {
+    Configuration conf = new Configuration();
+    conf.setBoolean(ParquetInputFormat.PREFETCH_ENABLED, true);
+    return conf;
+  }
+
+  @Test
+  public void testPrefetch() throws IOException {
+    List<Integer> expected = readIds(new Configuration());
+    assertEquals(COUNT, expected.size());
+    assertEquals(expected, readIds(prefetchConf()));
+
+    // row groups are too large to be read ahead
+    Configuration conf = prefetchConf();
+    conf.setLong(ParquetInputFormat.PREFETCH_MAX_SIZE, 1);
+    assertEquals(expected, readIds(conf));
+  }
+
+  @Test
+  public void testPrefetchWithDroppedRowGroups() throws IOException {
+    FilterPredicate predicate = or(
+        eq(binaryColumn("name"), Binary.fromString("name2_1")),
+        eq(binaryColumn("name"), Binary.fromString("name9_0")));
+    Configuration conf = new Configuration();
+    ParquetInputFormat.setFilterPredicate(conf, predicate);
+    List<Integer> expected = readIds(conf);
+    assertEquals(667, expected.size());
+
+    conf = prefetchConf();
+    ParquetInputFormat.setFilterPredicate(conf, predicate);
+    assertEquals(expected, readIds(conf));
+
+    // all the row groups are dropped
+    conf = prefetchConf();
+    ParquetInputFormat.setFilterPredicate(conf, eq(binaryColumn("name"), Binary.fromString("foo")));
+    assertEquals(0, readIds(conf).size());
+  }
+
+  @Test
+  public void testPrefetchWithFilterAndGzip() throws IOException {
+    // the dictionaries of the next row group are read ahead while the pages of the current one are decompressed
+    FilterPredicate predicate = or(
+        eq(binaryColumn("name"), Binary.fromString("name7_1")),
+        lt(intColumn("id"), 5000));
+    Configuration conf = new Configuration();
+    ParquetInputFormat.setFilterPredicate(conf, predicate);
+    List<Integer> expected = readIds(conf, gzipPath);
+    assertEquals(5334, expected.size());
+    for (int i = 0; i < 10; i++) {
+      conf = prefetchConf();
+      ParquetInputFormat.setFilterPredicate(conf, predicate);
+      assertEquals(expected, readIds(conf, gzipPath));
+    }
+  }
+}
@@ -25,12 +25,17 @@ import org.apache.hadoop.io.compress.CompressionOutputStream;
 import org.junit.Test;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static parquet.hadoop.metadata.CompressionCodecName.GZIP;
+import static parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
 
 import org.xerial.snappy.Snappy;
 
+import parquet.bytes.BytesInput;
+import parquet.hadoop.CodecFactory.BytesDecompressor;
 import parquet.hadoop.codec.SnappyCodec;
 import parquet.hadoop.codec.SnappyCompressor;
 import parquet.hadoop.codec.SnappyDecompressor;
+import parquet.hadoop.metadata.CompressionCodecName;
 
 public class TestSnappyCodec {
   @Test
@@ -95,6 +100,38 @@ public class TestSnappyCodec {
     assertArrayEquals(input, codecDecompressed);
   }
 
+  @Test
+  public void TestBytesCompressorAndDecompressor() throws IOException {
+    CodecFactory codecFactory = new CodecFactory(new Configuration());
+    byte[] input = new byte[64 * 1024];
+    for (int i = 0; i < input.length; ++i) {
+      input[i] = (byte)(i % 7);
+    }
+    for (CompressionCodecName codecName : new CompressionCodecName[] { SNAPPY, GZIP }) {
+      // pages are concatenations of levels and values
+      BytesInput page = BytesInput.concat(BytesInput.from(input, 0, 100), BytesInput.from(input, 100, input.length - 100));
+      byte[] compressed = codecFactory.getCompressor(codecName, 1024).compress(page).toByteArray();
+      if (codecName == SNAPPY) {
+        assertArrayEquals(Snappy.compress(input), compressed);
+      }
+      // decompress from the middle of a larger buffer like a column chunk
+      byte[] chunk = new byte[compressed.length + 20];
+      System.arraycopy(compressed, 0, chunk, 10, compressed.length);
+      BytesDecompressor decompressor = codecFactory.getDecompressor(codecName);
+      for (int i = 0; i < 2; i++) {
+        BytesInput decompressed = decompressor.decompress(BytesInput.from(chunk, 10, compressed.length), input.length);
+        assertEquals(input.length, decompressed.size());
+        assertArrayEquals(codecName.name(), input, decompressed.toByteArray());
+        // the array returned is a copy: modifying it leaves the page and its copies untouched
+        BytesInput copy = BytesInput.copy(decompressed);
+        decompressed.toByteArray()[0] = 42;
+        assertArrayEquals(codecName.name(), input, decompressed.toByteArray());
+        assertArrayEquals(codecName.name(), input, copy.toByteArray());
+      }
+    }
+    codecFactory.release();
+  }
+
   private void TestSnappy(SnappyCompressor compressor, SnappyDecompressor decompressor, 
       String... strings) throws IOException {
     compressor.reset();